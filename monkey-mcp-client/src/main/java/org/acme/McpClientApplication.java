@@ -3,7 +3,10 @@ package org.acme;
 import java.io.InputStream;
 import java.util.logging.LogManager;
 
+import org.acme.client.ClientContext;
+import org.acme.command.AskCommand;
 import org.acme.command.ChatCommand;
+import org.acme.command.GatewayCommand;
 import org.acme.command.ToolsCommand;
 
 import picocli.CommandLine;
@@ -13,17 +16,32 @@ import picocli.CommandLine.Command;
          mixinStandardHelpOptions = true, 
          version = "1.0.0", 
          description = "Java based console app to chat with AI+MCP servers using Ollama Local llama3.2 model", 
-         subcommands = {ChatCommand.class, ToolsCommand.class })
+         subcommands = {ChatCommand.class, AskCommand.class, GatewayCommand.class, ToolsCommand.class })
 public class McpClientApplication {
 
+    private final ClientContext context = new ClientContext();
+
     public static void main(String[] args) {
         // Configure logging from properties file
         configureLogging();
         
-        int exitCode = new CommandLine(new McpClientApplication()).execute(args);
+        var app = new McpClientApplication();
+        int exitCode;
+        try {
+            exitCode = new CommandLine(app).execute(args);
+        } finally {
+            app.context.close();
+        }
         System.exit(exitCode);
     }
 
+    /**
+     * Services shared by all subcommands, created on first use.
+     */
+    public ClientContext context() {
+        return context;
+    }
+
     private static void configureLogging() {
         try (InputStream stream = McpClientApplication.class.getClassLoader()
                 .getResourceAsStream("logging.properties")) {
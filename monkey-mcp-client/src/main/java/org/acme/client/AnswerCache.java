@@ -0,0 +1,261 @@
+package org.acme.client;
+
+import static java.lang.System.out;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+import dev.langchain4j.service.tool.ToolExecution;
+
+/**
+ * Answers to questions asked before, so that asking again skips the model and the tools.
+ *
+ * Questions are keyed by their normalized text: lower-cased, with punctuation and extra
+ * whitespace removed. With a {@code similarity} below 1, a question that matches no key
+ * exactly is also served the answer of the most similar cached question, measured as the
+ * cosine of their {@link ToolSelectingProvider#terms terms}, if it reaches the threshold.
+ *
+ * Each answer remembers the tool calls it was built from and a fingerprint of their results,
+ * leaving out the parts its server's {@link Settings} mark as volatile. When a later turn makes
+ * one of those calls and gets a different result, every answer built on it is dropped. Answers
+ * also expire after {@code ttl}, are dropped when a server changes its tool list, and are
+ * evicted least-recently-used once {@code maxEntries} is reached. Answers that used an
+ * uncacheable tool, or a tool that failed, are never stored.
+ */
+public class AnswerCache {
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final int maxEntries;
+    private final Duration ttl;
+    private final double similarity;
+    private final Function<String, Settings> settingsOf;
+    private final Map<String, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder similarHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidated = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder savedNanos = new LongAdder();
+
+    /**
+     * A cached answer with the turn time it took to produce, which a hit saves.
+     */
+    public record Hit(String answer, long nanos, boolean similar) {
+    }
+
+    /**
+     * The optional {@code answerCache} block of a server entry in mcp.json:
+     * <pre>
+     * "answerCache": { "uncacheableTools": ["get_random_monkey_species"],
+     *                  "volatileResults": ["(?i)accessed:? \\d+"] }
+     * </pre>
+     * Answers that called an uncacheable tool are not stored. Every match of a volatile result
+     * pattern is removed before a result is fingerprinted. Both are empty by default.
+     */
+    public record Settings(Set<String> uncacheableTools, List<Pattern> volatileResults) {
+
+        public static final Settings NONE = new Settings(Set.of(), List.of());
+
+        public Settings {
+            uncacheableTools = Set.copyOf(uncacheableTools);
+            volatileResults = List.copyOf(volatileResults);
+        }
+
+        public static Settings from(JsonNode config) {
+            var node = config != null ? config : MissingNode.getInstance();
+            var uncacheableTools = new HashSet<String>();
+            node.path("uncacheableTools").forEach(tool -> uncacheableTools.add(tool.asText()));
+            var volatileResults = new ArrayList<Pattern>();
+            node.path("volatileResults").forEach(pattern -> volatileResults.add(Pattern.compile(pattern.asText())));
+            return new Settings(uncacheableTools, volatileResults);
+        }
+    }
+
+    private record Entry(String answer, Map<String, Double> terms, Map<String, Integer> dependencies, long nanos,
+            long expiresAt) {
+    }
+
+    /**
+     * @param settingsOf the settings of the server offering a tool, by tool name
+     */
+    public AnswerCache(int maxEntries, Duration ttl, double similarity, Function<String, Settings> settingsOf) {
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.similarity = similarity;
+        this.settingsOf = settingsOf;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > AnswerCache.this.maxEntries) {
+                    evicted.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * The cached answer to a question, or null when there is none.
+     */
+    public Hit get(String question) {
+        var key = normalize(question);
+        var now = System.nanoTime();
+        Hit hit = null;
+        synchronized (entries) {
+            var entry = entries.get(key);
+            if (entry != null && entry.expiresAt() - now > 0) {
+                hit = new Hit(entry.answer(), entry.nanos(), false);
+            } else if (similarity < 1) {
+                var terms = termVector(question);
+                var bestScore = similarity;
+                for (var candidate : entries.values()) {
+                    var score = cosine(terms, candidate.terms());
+                    if (score >= bestScore && candidate.expiresAt() - now > 0) {
+                        bestScore = score;
+                        hit = new Hit(candidate.answer(), candidate.nanos(), true);
+                    }
+                }
+            }
+        }
+
+        if (hit == null) {
+            misses.increment();
+            return null;
+        }
+        (hit.similar() ? similarHits : hits).increment();
+        savedNanos.add(hit.nanos());
+        return hit;
+    }
+
+    /**
+     * Stores the answer of a turn that was not served from the cache, and drops answers
+     * built on tool results this turn saw change.
+     */
+    public void put(String question, String answer, List<ToolExecution> toolExecutions, long nanos) {
+        var dependencies = observe(toolExecutions);
+        if (dependencies == null || answer == null || answer.isBlank()) {
+            return;
+        }
+        var entry = new Entry(answer, termVector(question), dependencies, nanos, System.nanoTime() + ttl.toNanos());
+        synchronized (entries) {
+            entries.put(normalize(question), entry);
+        }
+    }
+
+    /**
+     * Drops every cached answer, e.g. when a server reports that its tools changed.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            invalidated.add(entries.size());
+            entries.clear();
+        }
+    }
+
+    /**
+     * Prints how many questions were served from the cache and the turn time that saved, if any were asked.
+     */
+    public void printSummary() {
+        var served = hits.sum() + similarHits.sum();
+        var lookups = served + misses.sum();
+        if (lookups == 0) {
+            return;
+        }
+        out.printf("✓ Answer cache: %d of %d question(s) served from cache (%.0f%%, %d by similarity), %.1f s of turn time saved; %d invalidated, %d evicted%n",
+                served, lookups, 100.0 * served / lookups, similarHits.sum(),
+                savedNanos.sum() / (double) TimeUnit.SECONDS.toNanos(1), invalidated.sum(), evicted.sum());
+    }
+
+    /**
+     * Fingerprints the tool calls of a turn and drops cached answers whose fingerprint for the
+     * same call differs. Returns null when the answer must not be cached.
+     */
+    private Map<String, Integer> observe(List<ToolExecution> toolExecutions) {
+        var dependencies = new HashMap<String, Integer>();
+        var cacheable = true;
+        for (var execution : toolExecutions) {
+            var request = execution.request();
+            var result = execution.result();
+            var settings = settingsOf.apply(request.name());
+            if (settings.uncacheableTools().contains(request.name()) || result == null
+                    || ToolResults.isFailure(result)) {
+                cacheable = false;
+                continue;
+            }
+            dependencies.put(request.name() + " " + MemoizingMcpClient.canonicalArguments(request.arguments()),
+                    fingerprint(result, settings.volatileResults()));
+        }
+        if (!dependencies.isEmpty()) {
+            synchronized (entries) {
+                var before = entries.size();
+                entries.values().removeIf(entry -> entry.dependencies().entrySet().stream()
+                        .anyMatch(dependency -> {
+                            var seen = dependencies.get(dependency.getKey());
+                            return seen != null && !seen.equals(dependency.getValue());
+                        }));
+                invalidated.add(before - entries.size());
+            }
+        }
+        return cacheable ? dependencies : null;
+    }
+
+    /**
+     * Hashes a tool result without the parts matching {@code volatileResults}, so that a result
+     * differing only in those does not count as changed.
+     */
+    static int fingerprint(String result, List<Pattern> volatileResults) {
+        var stable = result;
+        for (var pattern : volatileResults) {
+            stable = pattern.matcher(stable).replaceAll("");
+        }
+        return stable.hashCode();
+    }
+
+    static String normalize(String question) {
+        return NON_WORD.matcher(question.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private static Map<String, Double> termVector(String text) {
+        var vector = new HashMap<String, Double>();
+        for (var term : ToolSelectingProvider.terms(text)) {
+            vector.merge(term, 1.0, Double::sum);
+        }
+        return vector;
+    }
+
+    private static double cosine(Map<String, Double> a, Map<String, Double> b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0;
+        }
+        var dot = 0.0;
+        for (var term : a.entrySet()) {
+            dot += term.getValue() * b.getOrDefault(term.getKey(), 0.0);
+        }
+        return dot / (norm(a) * norm(b));
+    }
+
+    private static double norm(Map<String, Double> vector) {
+        var sum = 0.0;
+        for (var value : vector.values()) {
+            sum += value * value;
+        }
+        return Math.sqrt(sum);
+    }
+}
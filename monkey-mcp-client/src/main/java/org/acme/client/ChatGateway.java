@@ -0,0 +1,230 @@
+package org.acme.client;
+
+import static java.lang.System.err;
+import static java.lang.System.out;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local HTTP endpoint that serves many chat sessions from one process.
+ *
+ * Every request runs on its own virtual thread. All sessions share the chat model and the
+ * MCP clients but keep separate chat memories. Turns of one session run one at a time, in
+ * order. Turns of different sessions wait for the model in a single first-come, first-served
+ * queue of bounded length; when it is full, new turns are turned away with 503.
+ *
+ * <pre>
+ * POST   /sessions/{id}/messages   {"message": "..."}   → {"reply": "...", ...}
+ * DELETE /sessions/{id}                                  forget the session, after its running turn
+ * GET    /health                                         queue and session counts
+ * </pre>
+ */
+public class ChatGateway implements AutoCloseable {
+
+    static final Pattern SESSION_ID = Pattern.compile("[A-Za-z0-9._-]{1,128}");
+    private static final Pattern MESSAGES_PATH = Pattern.compile("/sessions/([^/]+)/messages");
+    private static final Pattern SESSION_PATH = Pattern.compile("/sessions/([^/]+)");
+
+    /**
+     * What the gateway needs from the chat service.
+     */
+    public interface Sessions {
+
+        ChatService.Answer reply(String sessionId, String message);
+
+        void forget(String sessionId);
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Sessions sessions;
+    private final Semaphore modelSlots;
+    private final int maxQueued;
+    // Turns waiting for a model slot; Semaphore.getQueueLength is only an estimate
+    private final AtomicInteger queuedTurns = new AtomicInteger();
+    private final Map<String, ReentrantLock> sessionLocks = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpServer server;
+
+    public ChatGateway(Sessions sessions, InetSocketAddress address, int maxConcurrentTurns, int maxQueued)
+            throws IOException {
+        this.sessions = sessions;
+        this.modelSlots = new Semaphore(maxConcurrentTurns, true);
+        this.maxQueued = maxQueued;
+        this.server = HttpServer.create(address, 0);
+        server.setExecutor(executor);
+        server.createContext("/sessions/", this::handleSession);
+        server.createContext("/health", this::handleHealth);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.close();
+    }
+
+    private void handleSession(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            var path = exchange.getRequestURI().getPath();
+            var method = exchange.getRequestMethod();
+
+            var messages = MESSAGES_PATH.matcher(path);
+            if (messages.matches()) {
+                if (!"POST".equals(method)) {
+                    send(exchange, 405, error("Use POST to send a message"));
+                    return;
+                }
+                handleMessage(exchange, messages.group(1));
+                return;
+            }
+
+            var session = SESSION_PATH.matcher(path);
+            if (session.matches() && "DELETE".equals(method)) {
+                if (!SESSION_ID.matcher(session.group(1)).matches()) {
+                    send(exchange, 400, error("Invalid session id"));
+                    return;
+                }
+                // Waits for a running turn of the session, so it is not forgotten halfway
+                var sessionLock = lockSession(session.group(1));
+                try {
+                    sessions.forget(session.group(1));
+                    sessionLocks.remove(session.group(1), sessionLock);
+                } finally {
+                    sessionLock.unlock();
+                }
+                send(exchange, 200, objectMapper.createObjectNode().put("session", session.group(1)).put("forgotten", true));
+                return;
+            }
+            send(exchange, 404, error("Unknown endpoint " + method + " " + path));
+        }
+    }
+
+    private void handleMessage(HttpExchange exchange, String sessionId) throws IOException {
+        if (!SESSION_ID.matcher(sessionId).matches()) {
+            send(exchange, 400, error("Invalid session id; use up to 128 letters, digits, '.', '_' or '-'"));
+            return;
+        }
+
+        String message;
+        try {
+            var body = objectMapper.readTree(exchange.getRequestBody());
+            message = body == null ? null : body.path("message").asText(null);
+        } catch (JsonProcessingException e) {
+            message = null;
+        }
+        if (message == null || message.isBlank()) {
+            send(exchange, 400, error("Expected a JSON body with a non-empty \"message\""));
+            return;
+        }
+
+        var started = System.nanoTime();
+        var sessionLock = lockSession(sessionId);
+        try {
+            // A turn takes its place in the queue only once the session's previous turn is done
+            if (!modelSlots.tryAcquire(0, TimeUnit.SECONDS)) {
+                if (queuedTurns.incrementAndGet() > maxQueued) {
+                    queuedTurns.decrementAndGet();
+                    exchange.getResponseHeaders().set("Retry-After", "1");
+                    send(exchange, 503, error("Too many turns waiting for the model, try again shortly"));
+                    return;
+                }
+                try {
+                    modelSlots.acquire();
+                } finally {
+                    queuedTurns.decrementAndGet();
+                }
+            }
+            var queued = System.nanoTime() - started;
+            try {
+                var answer = sessions.reply(sessionId, message);
+                var latency = System.nanoTime() - started;
+                var result = objectMapper.createObjectNode()
+                        .put("session", sessionId)
+                        .put("reply", answer.text())
+                        .put("toolCalls", answer.toolCalls())
+                        .put("queuedMs", TimeUnit.NANOSECONDS.toMillis(queued))
+                        .put("latencyMs", TimeUnit.NANOSECONDS.toMillis(latency));
+                if (answer.tokenUsage() != null) {
+                    result.put("inputTokens", answer.tokenUsage().inputTokenCount())
+                            .put("outputTokens", answer.tokenUsage().outputTokenCount());
+                }
+                if (answer.cached()) {
+                    result.put("cached", true);
+                }
+                out.printf("→ Session %s: %d ms (queued %d ms), %d tool call(s)%n", sessionId,
+                        TimeUnit.NANOSECONDS.toMillis(latency), TimeUnit.NANOSECONDS.toMillis(queued), answer.toolCalls());
+                send(exchange, 200, result);
+            } catch (RuntimeException e) {
+                err.printf("✗ Session %s: %s%n", sessionId, e.getMessage());
+                send(exchange, 500, error(String.valueOf(e.getMessage())));
+            } finally {
+                modelSlots.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            send(exchange, 503, error("Gateway is shutting down"));
+        } finally {
+            sessionLock.unlock();
+        }
+    }
+
+    /**
+     * Locks a session, creating its lock if needed. A lock that a DELETE removed while this
+     * call waited for it is let go, and the session's current lock is taken instead.
+     */
+    private ReentrantLock lockSession(String sessionId) {
+        while (true) {
+            var sessionLock = sessionLocks.computeIfAbsent(sessionId, id -> new ReentrantLock(true));
+            sessionLock.lock();
+            if (sessionLocks.get(sessionId) == sessionLock) {
+                return sessionLock;
+            }
+            sessionLock.unlock();
+        }
+    }
+
+    private void handleHealth(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            send(exchange, 200, objectMapper.createObjectNode()
+                    .put("status", "ok")
+                    .put("freeModelSlots", modelSlots.availablePermits())
+                    .put("queuedTurns", queuedTurns.get())
+                    .put("sessions", sessionLocks.size()));
+        }
+    }
+
+    private ObjectNode error(String message) {
+        return objectMapper.createObjectNode().put("error", message);
+    }
+
+    private static void send(HttpExchange exchange, int status, ObjectNode body) throws IOException {
+        var bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+}
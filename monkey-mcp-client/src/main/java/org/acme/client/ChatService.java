@@ -2,72 +2,155 @@ package org.acme.client;
 
 import static java.lang.System.out;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.acme.client.http.LangChainHttpClient;
+import org.acme.client.memory.CharacterTokenCountEstimator;
+import org.acme.client.memory.ConversationSummarizer;
+import org.acme.client.memory.FileChatMemoryStore;
+import org.acme.client.memory.TokenBudgetChatMemory;
+import org.acme.client.metrics.PerformanceRecorder;
+import org.acme.config.McpConfig;
 import org.acme.config.OllamaConfig;
 
+import dev.langchain4j.data.message.AiMessage;
 import dev.langchain4j.data.message.ChatMessage;
-import dev.langchain4j.memory.chat.MessageWindowChatMemory;
+import dev.langchain4j.model.chat.response.ChatResponse;
 import dev.langchain4j.model.ollama.OllamaChatModel;
+import dev.langchain4j.model.ollama.OllamaStreamingChatModel;
+import dev.langchain4j.model.output.TokenUsage;
 import dev.langchain4j.service.AiServices;
 import dev.langchain4j.service.MemoryId;
+import dev.langchain4j.service.Result;
 import dev.langchain4j.service.SystemMessage;
+import dev.langchain4j.service.TokenStream;
 import dev.langchain4j.service.UserMessage;
+import dev.langchain4j.service.memory.ChatMemoryAccess;
+import dev.langchain4j.service.tool.ToolExecution;
+import dev.langchain4j.store.memory.chat.ChatMemoryStore;
 import dev.langchain4j.store.memory.chat.InMemoryChatMemoryStore;
 
 public class ChatService {
 
     private static final String SUUID = UUID.randomUUID().toString().substring(0, 8);
     private static final String RANDOM_USER = "user-" + SUUID;
+    private static final String THINKING = "🤖 AI is thinking... ";
+    private static final String CLEAR_THINKING = "\r" + " ".repeat(THINKING.length()) + "\r";
+    private static final String SYSTEM_PROMPT = """
+            You are a helpful AI assistant with access to various information tools.
+            You can answer questions about anything users ask and help with various tasks.
+            Use the available tools to provide accurate and up to date information.
+            """;
 
     private Bot bot;
 
+    private Bot batchBot;
+
+    private final AtomicLong askCounter = new AtomicLong();
+
     private OllamaChatModel chatModel;
 
-    private ToolsService toolsService = new ToolsService();
+    private final long startedAt = System.nanoTime();
+
+    private final ToolsService toolsService;
+
+    private ChatMemoryStore chatMemoryStore;
+
+    private final CharacterTokenCountEstimator tokenCountEstimator = new CharacterTokenCountEstimator();
+
+    private final StreamingStats streamingStats = new StreamingStats();
 
-    interface Bot {
+    private final PerformanceRecorder performance = new PerformanceRecorder();
 
-        @SystemMessage("""
-                You are a helpful AI assistant with access to various information tools.
-                You can answer questions about anything users ask and help with various tasks.
-                Use the available tools to provide accurate and up to date information.
-                """)
-        String chat(@MemoryId String memoryId, @UserMessage String message);
+    private final AnswerCache answerCache;
+
+    interface Bot extends ChatMemoryAccess {
+
+        @SystemMessage(SYSTEM_PROMPT)
+        Result<String> chat(@MemoryId String memoryId, @UserMessage String message);
+
+        @SystemMessage(SYSTEM_PROMPT)
+        TokenStream chatStream(@MemoryId String memoryId, @UserMessage String message);
 
         String chat(List<ChatMessage> messages);
     }
 
-    public ChatService() {
+    public ChatService(ToolsService toolsService) {
+        this.toolsService = toolsService;
+        this.answerCache = McpConfig.isAnswerCacheEnabled()
+                ? new AnswerCache(McpConfig.getAnswerCacheMaxEntries(), McpConfig.getAnswerCacheTtl(),
+                        McpConfig.getAnswerCacheSimilarity(), toolsService::answerCacheSettingsOf)
+                : null;
+
+        // Load the model while the MCP servers are still connecting
+        out.println("🔄 Warming up Ollama model...");
+        var warmup = new OllamaWarmup().start();
+
+        var setupStarted = System.nanoTime();
+        var parallelToolCalls = new ParallelToolCalls(McpConfig.getToolCallsMaxConcurrent(), McpConfig.getToolCallTimeout());
         chatModel = OllamaChatModel.builder()
                 .baseUrl(OllamaConfig.getBaseUrl())
                 .modelName(OllamaConfig.getModelName())
                 .timeout(OllamaConfig.getTimeout())
                 .maxRetries(OllamaConfig.getMaxRetries())
                 .temperature(OllamaConfig.getTemperature())
+                .httpClientBuilder(LangChainHttpClient.builder().onRequest(performance::modelRequestSent))
+                .listeners(List.of(performance, parallelToolCalls))
                 .build();
 
-        var chatMemoryStore = new InMemoryChatMemoryStore();
-
-        bot = AiServices.builder(Bot.class)
-                .chatModel(chatModel)
-                .toolProvider(toolsService.getToolProvider())
-                .chatMemoryProvider(memoryId -> MessageWindowChatMemory.builder()
-                        .maxMessages(20)
-                        .chatMemoryStore(chatMemoryStore)
-                        .id(memoryId)
-                        .build())
+        var streamingChatModel = OllamaStreamingChatModel.builder()
+                .baseUrl(OllamaConfig.getBaseUrl())
+                .modelName(OllamaConfig.getModelName())
+                .timeout(OllamaConfig.getTimeout())
+                .temperature(OllamaConfig.getTemperature())
+                .httpClientBuilder(LangChainHttpClient.builder().onRequest(performance::modelRequestSent))
+                .listeners(List.of(performance, parallelToolCalls))
                 .build();
 
-        // Initialize the chat model and check if it's available
+        var toolsWaitStarted = System.nanoTime();
+        var chatSetup = Duration.ofNanos(toolsWaitStarted - setupStarted);
+        var mcpToolProvider = toolsService.getToolProvider();
+        var toolProvider = mcpToolProvider != null
+                ? new ToolSelectingProvider(parallelToolCalls.wrap(performance.wrap(mcpToolProvider, toolsService::serverOf)),
+                        McpConfig.getToolSelectionMaxTools())
+                : null;
+        var toolsWait = Duration.ofNanos(System.nanoTime() - toolsWaitStarted);
+        if (answerCache != null) {
+            toolsService.onToolListChanged(answerCache::invalidateAll);
+        }
+
+        chatMemoryStore = McpConfig.isChatMemoryPersistent()
+                ? new FileChatMemoryStore(McpConfig.getChatMemoryDir())
+                : new InMemoryChatMemoryStore();
+
+        var summarizer = ConversationSummarizer.using(chatModel);
+        bot = newBot(chatMemoryStore, streamingChatModel, toolProvider, summarizer);
+        // One-off questions are forgotten once answered, so they never touch the session logs
+        batchBot = newBot(new InMemoryChatMemoryStore(), streamingChatModel, toolProvider, summarizer);
+
         try {
-            out.println("🔄 Testing connection to Ollama...");
-            bot.chat("health-check", "Say YES if you are ready to chat");
+            var result = warmup.get(OllamaConfig.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
             out.println("✓ Connected to Ollama successfully!");
-        } catch (RuntimeException e) {
-            out.println("✗ Failed to connect to Ollama model: " + e.getMessage());
+            if (McpConfig.isStartupTimingsEnabled()) {
+                printStartupTimings(result, chatSetup, toolsWait);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            chatModel = null;
+            return;
+        } catch (ExecutionException | TimeoutException e) {
+            var cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+            out.println("✗ Failed to connect to Ollama model: " + cause.getMessage());
             out.println("💡 Troubleshooting tips:");
             out.println("   • Make sure Ollama is running: ollama serve");
             out.println("   • Check if your model is available: ollama list");
@@ -77,16 +160,146 @@ public class ChatService {
             return;
         }
 
-        out.printf("✓ Chat initialized!",
-                toolsService.getAvailableTools().size());
+        out.println("✓ Chat initialized!");
+    }
+
+    private Bot newBot(ChatMemoryStore store, OllamaStreamingChatModel streamingChatModel,
+            ToolSelectingProvider toolProvider, ConversationSummarizer summarizer) {
+        var builder = AiServices.builder(Bot.class)
+                .chatModel(chatModel)
+                .streamingChatModel(streamingChatModel)
+                .toolProvider(toolProvider)
+                .chatMemoryProvider(memoryId -> TokenBudgetChatMemory.builder()
+                        .id(memoryId)
+                        .chatMemoryStore(store)
+                        .tokenCountEstimator(tokenCountEstimator)
+                        .maxTokens(McpConfig.getChatMemoryMaxTokens())
+                        .toolResultMaxTokens(McpConfig.getChatMemoryToolResultMaxTokens())
+                        .summarizer(summarizer)
+                        .build());
+        if (toolProvider != null) {
+            builder.hallucinatedToolNameStrategy(toolProvider::executeUnoffered);
+        }
+        return builder.build();
+    }
+
+    private void printStartupTimings(OllamaWarmup.Result warmup, Duration chatSetup, Duration toolsWait) {
+        out.println("⏱ Startup timings (MCP connects and model warm-up run concurrently):");
+        toolsService.getConnectLatencies().forEach((server, latency) ->
+                out.printf("   MCP connect %-20s %6d ms%n", server, latency.toMillis()));
+        out.printf("   %-32s %6d ms%n", "Ollama model probe", warmup.probe().toMillis());
+        out.printf("   %-32s %6d ms%n", "Ollama model load", warmup.load().toMillis());
+        out.printf("   %-32s %6d ms%n", "Chat model setup", chatSetup.toMillis());
+        out.printf("   %-32s %6d ms%n", "Waiting for MCP connects", toolsWait.toMillis());
+        out.printf("   %-32s %6d ms%n", "Ready to chat", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
     }
 
     public boolean isAvailable() {
         return chatModel != null && bot != null;
     }
 
-    public void startInteractiveChat() {
-        printInfo();
+    /**
+     * Reply to a single message, with the tool calls and tokens it took. A reply served from the
+     * answer cache took no tool calls and has no token usage.
+     */
+    public record Answer(String text, int toolCalls, TokenUsage tokenUsage, boolean cached) {
+
+        public Answer(String text, int toolCalls, TokenUsage tokenUsage) {
+            this(text, toolCalls, tokenUsage, false);
+        }
+    }
+
+    /**
+     * Answers one question without conversation history. Safe to call from many threads at
+     * once; all calls share the chat model and the MCP clients.
+     */
+    public Answer ask(String question) {
+        var hit = answerCache != null ? answerCache.get(question) : null;
+        if (hit != null) {
+            return new Answer(hit.answer(), 0, null, true);
+        }
+
+        var memoryId = "ask-" + SUUID + "-" + askCounter.incrementAndGet();
+        var turn = performance.begin("ask", false);
+        var started = System.nanoTime();
+        try {
+            var result = batchBot.chat(memoryId, question);
+            remember(question, result.content(), result.toolExecutions(), started);
+            return new Answer(result.content(), result.toolExecutions().size(), result.tokenUsage());
+        } finally {
+            performance.end(turn);
+            batchBot.evictChatMemory(memoryId);
+        }
+    }
+
+    /**
+     * Answers a message within a session, remembering it for the session's next turns.
+     * Different sessions may be served from different threads at once; turns of one session
+     * must not overlap.
+     */
+    public Answer reply(String sessionId, String message) {
+        // Only the first turn of a session is answered from, or stored in, the cache; later
+        // turns depend on the conversation before them
+        var firstTurn = answerCache != null && chatMemoryStore.getMessages(sessionId).isEmpty();
+        var hit = firstTurn ? cachedReply(sessionId, message) : null;
+        if (hit != null) {
+            return new Answer(hit.answer(), 0, null, true);
+        }
+
+        var turn = performance.begin("reply", false);
+        var started = System.nanoTime();
+        try {
+            var result = bot.chat(sessionId, message);
+            if (firstTurn) {
+                remember(message, result.content(), result.toolExecutions(), started);
+            }
+            return new Answer(result.content(), result.toolExecutions().size(), result.tokenUsage());
+        } finally {
+            performance.end(turn);
+        }
+    }
+
+    /**
+     * Looks the first message of a session up in the answer cache. On a hit the exchange is
+     * written to the session's memory as if the model had answered, so later turns can refer to it.
+     */
+    private AnswerCache.Hit cachedReply(String memoryId, String message) {
+        var hit = answerCache.get(message);
+        if (hit != null) {
+            chatMemoryStore.updateMessages(memoryId, List.of(
+                    dev.langchain4j.data.message.SystemMessage.from(SYSTEM_PROMPT),
+                    dev.langchain4j.data.message.UserMessage.from(message),
+                    AiMessage.from(hit.answer())));
+        }
+        return hit;
+    }
+
+    private void remember(String question, String answer, List<ToolExecution> toolExecutions, long started) {
+        if (answerCache != null) {
+            answerCache.put(question, answer, toolExecutions, System.nanoTime() - started);
+        }
+    }
+
+    /**
+     * Forgets a session, including its log when chat memory is persistent.
+     */
+    public void forgetSession(String sessionId) {
+        bot.evictChatMemory(sessionId);
+        chatMemoryStore.deleteMessages(sessionId);
+    }
+
+    /**
+     * Runs the chat loop. Passing the id of an earlier session resumes its conversation
+     * when chat memory is persistent; {@code null} starts a new session.
+     */
+    public void startInteractiveChat(String sessionId) {
+        var memoryId = sessionId != null ? sessionId : RANDOM_USER;
+        printInfo(memoryId);
+
+        var history = chatMemoryStore.getMessages(memoryId).size();
+        if (history > 0) {
+            out.printf("↻ Resumed session %s with %d message(s) of history%n", memoryId, history);
+        }
 
         try (var scanner = new Scanner(System.in)) {
             while (true) {
@@ -99,16 +312,42 @@ public class ChatService {
                 switch (input.toLowerCase()) {
                     case "exit", "quit", "bye" -> {
                         out.println("👋 Goodbye!");
-                        toolsService.shutdown();
+                        endSession();
                         return;
                     }
                 }
 
                 try {
-                    out.print("🤖 AI is thinking... ");
+                    var firstTurn = answerCache != null && chatMemoryStore.getMessages(memoryId).isEmpty();
+                    var hit = firstTurn ? cachedReply(memoryId, input) : null;
+                    if (hit != null) {
+                        out.printf("AI: %s%n", hit.answer());
+                        out.printf("   ⚡ answered from cache%s, saved ≈%d ms%n", hit.similar() ? " (similar question)" : "",
+                                TimeUnit.NANOSECONDS.toMillis(hit.nanos()));
+                        continue;
+                    }
+
+                    out.print(THINKING);
                     out.flush();
-                    var response = bot.chat(RANDOM_USER, input);
-                    out.printf("\rAI: %s\n", response);
+                    var turn = performance.begin("chat", OllamaConfig.isStreaming());
+                    try {
+                        if (OllamaConfig.isStreaming()) {
+                            streamReply(memoryId, input, firstTurn);
+                        } else {
+                            var started = System.nanoTime();
+                            var result = bot.chat(memoryId, input);
+                            if (firstTurn) {
+                                remember(input, result.content(), result.toolExecutions(), started);
+                            }
+                            out.printf("\rAI: %s\n", result.content());
+                            out.printf("   ⏱ turn %d ms%s%n", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started),
+                                    result.toolExecutions().isEmpty() ? "" : " · " + result.toolExecutions().size() + " tool call(s)");
+                            printPromptSize(memoryId, result.tokenUsage());
+                        }
+                    } finally {
+                        performance.end(turn);
+                    }
+                    out.printf("   📊 %s%n", turn.breakdown());
                 } catch (Exception e) {
                     out.println("\r✗ Error: " + e.getMessage());
                     out.println("💡 This might be due to:");
@@ -119,7 +358,7 @@ public class ChatService {
                     var continueChoice = scanner.nextLine().trim();
                     if (!"y".equalsIgnoreCase(continueChoice)) {
                         out.println("👋 Goodbye!");
-                        toolsService.shutdown();
+                        endSession();
                         return;
                     }
                 }
@@ -127,7 +366,94 @@ public class ChatService {
         }
     }
 
-    private void printInfo() {
+    /**
+     * Prints the reply as tokens arrive, with tool calls shown inline, and records
+     * time-to-first-token and tokens per second for the turn. The reply is stored in the answer
+     * cache when {@code cacheable}.
+     */
+    private void streamReply(String memoryId, String input, boolean cacheable) throws Exception {
+        var started = System.nanoTime();
+        var firstToken = new AtomicLong();
+        var partialResponses = new AtomicInteger();
+        var toolCalls = new AtomicInteger();
+        var toolExecutions = new ArrayList<ToolExecution>();
+        var done = new CompletableFuture<ChatResponse>();
+
+        bot.chatStream(memoryId, input)
+                .onPartialResponse(token -> {
+                    if (firstToken.compareAndSet(0, System.nanoTime())) {
+                        out.print(CLEAR_THINKING + "AI: ");
+                    }
+                    partialResponses.incrementAndGet();
+                    out.print(token);
+                    out.flush();
+                })
+                .onToolExecuted(execution -> {
+                    toolCalls.incrementAndGet();
+                    toolExecutions.add(execution);
+                    out.printf("%s   🔧 %s %s%n%s", CLEAR_THINKING, execution.request().name(),
+                            execution.request().arguments(), THINKING);
+                    out.flush();
+                })
+                .onCompleteResponse(done::complete)
+                .onError(done::completeExceptionally)
+                .start();
+
+        ChatResponse response;
+        try {
+            response = done.get(OllamaConfig.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+        var finished = System.nanoTime();
+        out.println();
+        if (cacheable && response.aiMessage() != null) {
+            remember(input, response.aiMessage().text(), toolExecutions, started);
+        }
+
+        // A reply without partial tokens (e.g. only tool calls) counts its completion as the first token
+        var firstTokenAt = firstToken.get() != 0 ? firstToken.get() : finished;
+        var usage = response.tokenUsage();
+        var outputTokens = usage != null && usage.outputTokenCount() != null
+                ? usage.outputTokenCount()
+                : partialResponses.get();
+        var turn = new StreamingStats.Turn(Duration.ofNanos(firstTokenAt - started),
+                Duration.ofNanos(finished - firstTokenAt), outputTokens, toolCalls.get(),
+                Duration.ofNanos(finished - started));
+        streamingStats.record(turn);
+        StreamingStats.print(turn);
+        printPromptSize(memoryId, usage);
+    }
+
+    /**
+     * Prints the prompt size Ollama reported for the turn next to the memory's own estimate,
+     * which is what the chat memory budget is enforced against.
+     */
+    private void printPromptSize(String memoryId, TokenUsage usage) {
+        var remembered = tokenCountEstimator.estimateTokenCountInMessages(chatMemoryStore.getMessages(memoryId));
+        var prompt = usage != null && usage.inputTokenCount() != null ? usage.inputTokenCount() + " token(s)" : "n/a";
+        out.printf("   🧠 prompt %s · memory ≈%d of %d token(s)%n", prompt, remembered, McpConfig.getChatMemoryMaxTokens());
+    }
+
+    private void endSession() {
+        streamingStats.printSummary();
+    }
+
+    /**
+     * Prints where the time of the turns served went and exports it when {@code mcp.metrics.file} is set.
+     */
+    public void reportPerformance() {
+        performance.printSummary();
+        if (answerCache != null) {
+            answerCache.printSummary();
+        }
+        var file = McpConfig.getMetricsFile();
+        if (file != null) {
+            performance.export(file);
+        }
+    }
+
+    private void printInfo(String memoryId) {
         out.printf("""
                 ════════════════════════════════════
                       Java MCP Chat Client
@@ -135,6 +461,7 @@ public class ChatService {
                 → Starting chat with Ollama (%s) + MCP Tools
                 → Timeout: %s seconds
                 → Max retries: %d
+                → Session: %s (resume with --session %s)
 
                 💡 Try asking:
 
@@ -146,7 +473,8 @@ public class ChatService {
                 """, 
                 OllamaConfig.getModelName(), 
                 OllamaConfig.getTimeout().getSeconds(),
-                OllamaConfig.getMaxRetries());
+                OllamaConfig.getMaxRetries(),
+                memoryId, memoryId);
     }
 
 }
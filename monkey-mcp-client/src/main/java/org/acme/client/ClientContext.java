@@ -0,0 +1,43 @@
+package org.acme.client;
+
+import org.acme.client.http.SharedHttpClient;
+
+/**
+ * Application-wide holder for the MCP and Ollama services.
+ *
+ * Nothing is created until a subcommand asks for it, so {@code --help} never connects anywhere
+ * and {@code tools} never touches Ollama. Services that are created are shared, so the chat reuses
+ * the MCP connections of the same run instead of opening its own.
+ */
+public class ClientContext implements AutoCloseable {
+
+    private ToolsService toolsService;
+    private ChatService chatService;
+
+    public synchronized ToolsService tools() {
+        if (toolsService == null) {
+            toolsService = new ToolsService();
+        }
+        return toolsService;
+    }
+
+    public synchronized ChatService chat() {
+        if (chatService == null) {
+            chatService = new ChatService(tools());
+        }
+        return chatService;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (chatService != null) {
+            chatService.reportPerformance();
+        }
+        if (toolsService != null) {
+            toolsService.shutdown();
+            toolsService = null;
+        }
+        chatService = null;
+        SharedHttpClient.reportStats();
+    }
+}
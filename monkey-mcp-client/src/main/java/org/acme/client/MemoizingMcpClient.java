@@ -0,0 +1,192 @@
+package org.acme.client;
+
+import static java.lang.System.out;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.mcp.client.McpClient;
+import dev.langchain4j.mcp.client.McpGetPromptResult;
+import dev.langchain4j.mcp.client.McpPrompt;
+import dev.langchain4j.mcp.client.McpReadResourceResult;
+import dev.langchain4j.mcp.client.McpResource;
+import dev.langchain4j.mcp.client.McpResourceTemplate;
+
+/**
+ * MCP client that memoizes the results of tools marked cacheable in mcp.json.
+ *
+ * Results are keyed by tool name and canonical (key-sorted) arguments, expire after the
+ * tool's TTL and are evicted least-recently-used once {@code maxEntries} is reached.
+ * Error and timeout results are never cached, so a failed call is retried on the next request.
+ */
+public class MemoizingMcpClient implements McpClient {
+
+    static final int DEFAULT_MAX_ENTRIES = 256;
+
+    private static final ObjectMapper CANONICAL_MAPPER = new ObjectMapper()
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+
+    private final McpClient delegate;
+    private final Map<String, Duration> cacheableTools;
+    private final Map<String, CachedResult> results;
+    private final Map<String, ToolStats> stats = new ConcurrentHashMap<>();
+
+    private record CachedResult(String value, long expiresAt) {
+    }
+
+    private record ToolStats(LongAdder hits, LongAdder misses) {
+
+        ToolStats() {
+            this(new LongAdder(), new LongAdder());
+        }
+    }
+
+    public MemoizingMcpClient(McpClient delegate, Map<String, Duration> cacheableTools, int maxEntries) {
+        this.delegate = delegate;
+        this.cacheableTools = Map.copyOf(cacheableTools);
+        this.results = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResult> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Parses the optional {@code cache} block of a server entry in mcp.json:
+     * <pre>
+     * "cache": { "maxEntries": 256, "tools": { "list_monkey_species": 300 } }
+     * </pre>
+     * where each tool maps to its TTL in seconds. Returns the client unchanged when no tools are cacheable.
+     */
+    public static McpClient wrap(McpClient client, JsonNode cacheConfig) {
+        if (cacheConfig == null || !cacheConfig.path("tools").isObject()) {
+            return client;
+        }
+
+        var cacheableTools = new LinkedHashMap<String, Duration>();
+        cacheConfig.get("tools").fields().forEachRemaining(tool -> {
+            if (tool.getValue().canConvertToLong() && tool.getValue().asLong() > 0) {
+                cacheableTools.put(tool.getKey(), Duration.ofSeconds(tool.getValue().asLong()));
+            }
+        });
+        if (cacheableTools.isEmpty()) {
+            return client;
+        }
+        return new MemoizingMcpClient(client, cacheableTools,
+                cacheConfig.path("maxEntries").asInt(DEFAULT_MAX_ENTRIES));
+    }
+
+    @Override
+    public String executeTool(ToolExecutionRequest request) {
+        var ttl = cacheableTools.get(request.name());
+        if (ttl == null) {
+            return delegate.executeTool(request);
+        }
+
+        var key = request.name() + " " + canonicalArguments(request.arguments());
+        var toolStats = stats.computeIfAbsent(request.name(), name -> new ToolStats());
+        synchronized (results) {
+            var cached = results.get(key);
+            if (cached != null && cached.expiresAt() - System.nanoTime() > 0) {
+                toolStats.hits().increment();
+                return cached.value();
+            }
+        }
+
+        toolStats.misses().increment();
+        var result = delegate.executeTool(request);
+        if (result != null && !ToolResults.isFailure(result)) {
+            synchronized (results) {
+                results.put(key, new CachedResult(result, System.nanoTime() + ttl.toNanos()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Prints per-tool hit rates for this session, if any cacheable tool was called.
+     */
+    public void reportHitRates() {
+        if (stats.isEmpty()) {
+            return;
+        }
+        stats.forEach((tool, toolStats) -> {
+            var hits = toolStats.hits().sum();
+            var lookups = hits + toolStats.misses().sum();
+            out.printf("✓ Tool result cache %s/%s: %d of %d call(s) served from cache (%.0f%%)%n",
+                    delegate.key(), tool, hits, lookups, 100.0 * hits / lookups);
+        });
+    }
+
+    /**
+     * Tool arguments with their keys sorted, so that equal arguments compare equal as text.
+     */
+    static String canonicalArguments(String arguments) {
+        if (arguments == null || arguments.isBlank()) {
+            return "{}";
+        }
+        try {
+            return CANONICAL_MAPPER.writeValueAsString(CANONICAL_MAPPER.readValue(arguments, Object.class));
+        } catch (JsonProcessingException e) {
+            // Not JSON; the raw text is still a correct, if less forgiving, key
+            return arguments;
+        }
+    }
+
+    @Override
+    public String key() {
+        return delegate.key();
+    }
+
+    @Override
+    public List<ToolSpecification> listTools() {
+        return delegate.listTools();
+    }
+
+    @Override
+    public List<McpResource> listResources() {
+        return delegate.listResources();
+    }
+
+    @Override
+    public List<McpResourceTemplate> listResourceTemplates() {
+        return delegate.listResourceTemplates();
+    }
+
+    @Override
+    public McpReadResourceResult readResource(String uri) {
+        return delegate.readResource(uri);
+    }
+
+    @Override
+    public List<McpPrompt> listPrompts() {
+        return delegate.listPrompts();
+    }
+
+    @Override
+    public McpGetPromptResult getPrompt(String name, Map<String, Object> arguments) {
+        return delegate.getPrompt(name, arguments);
+    }
+
+    @Override
+    public void checkHealth() {
+        delegate.checkHealth();
+    }
+
+    @Override
+    public void close() throws Exception {
+        delegate.close();
+    }
+}
@@ -0,0 +1,98 @@
+package org.acme.client;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import org.acme.client.http.SharedHttpClient;
+import org.acme.config.OllamaConfig;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+/**
+ * Checks that the configured model is available and asks Ollama to load it into memory,
+ * without generating any tokens.
+ *
+ * The probe lists local models ({@code GET /api/tags}); the preload is a {@code /api/generate}
+ * request without a prompt, which Ollama answers as soon as the model is resident.
+ */
+public class OllamaWarmup {
+
+    private static final Duration PROBE_TIMEOUT = Duration.ofSeconds(10);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final OkHttpClient probeClient = SharedHttpClient.withTimeouts(PROBE_TIMEOUT, PROBE_TIMEOUT);
+    private final OkHttpClient loadClient = SharedHttpClient.withTimeouts(PROBE_TIMEOUT, OllamaConfig.getTimeout());
+    private final String baseUrl = OllamaConfig.getBaseUrl().replaceAll("/+$", "");
+    private final String modelName = OllamaConfig.getModelName();
+
+    public record Result(Duration probe, Duration load) {
+    }
+
+    public CompletableFuture<Result> start() {
+        var started = System.nanoTime();
+        var tags = new Request.Builder()
+                .url(baseUrl + "/api/tags")
+                .get()
+                .build();
+
+        return SharedHttpClient.send(probeClient, tags)
+                .thenApply(response -> {
+                    checkModelListed(response.code(), body(response));
+                    return Duration.ofNanos(System.nanoTime() - started);
+                })
+                .thenCompose(probe -> {
+                    var loadStarted = System.nanoTime();
+                    return SharedHttpClient.send(loadClient, preloadRequest())
+                            .thenApply(response -> {
+                                var body = body(response);
+                                if (response.code() != 200) {
+                                    throw new IllegalStateException("Ollama could not load model '" + modelName
+                                            + "': HTTP " + response.code() + " " + body);
+                                }
+                                return new Result(probe, Duration.ofNanos(System.nanoTime() - loadStarted));
+                            });
+                });
+    }
+
+    private static String body(Response response) {
+        try (response) {
+            return response.body() != null ? response.body().string() : "";
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void checkModelListed(int status, String body) {
+        if (status != 200) {
+            throw new IllegalStateException("Ollama at " + baseUrl + " answered HTTP " + status);
+        }
+        try {
+            for (var model : objectMapper.readTree(body).path("models")) {
+                var name = model.path("name").asText();
+                if (name.equals(modelName) || name.equals(modelName + ":latest")) {
+                    return;
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unexpected response from Ollama at " + baseUrl + ": " + e.getMessage());
+        }
+        throw new IllegalStateException("Model '" + modelName + "' is not available on " + baseUrl);
+    }
+
+    private Request preloadRequest() {
+        var body = objectMapper.createObjectNode().put("model", modelName);
+        return new Request.Builder()
+                .url(baseUrl + "/api/generate")
+                .post(RequestBody.create(body.toString(), MediaType.get("application/json")))
+                .build();
+    }
+}
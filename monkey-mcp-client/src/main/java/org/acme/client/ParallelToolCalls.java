@@ -0,0 +1,147 @@
+package org.acme.client;
+
+import static java.lang.System.out;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.model.chat.listener.ChatModelListener;
+import dev.langchain4j.model.chat.listener.ChatModelResponseContext;
+import dev.langchain4j.service.tool.ToolExecutor;
+import dev.langchain4j.service.tool.ToolProvider;
+import dev.langchain4j.service.tool.ToolProviderResult;
+
+/**
+ * Runs the tool calls of one model response concurrently.
+ *
+ * LangChain4j executes the tool calls of a response one after another. As a model listener,
+ * this class sees the response first and starts all of its calls at once, at most
+ * {@code maxConcurrent} across the process. The executors handed out by {@link #wrap} then
+ * pick up the running calls as LangChain4j asks for them in order, so the results are
+ * reassembled in the order the model requested them. A call that is not answered within
+ * {@code timeout} of being started is cancelled and reported to the model as an error.
+ *
+ * The listener and the tool loop run on the same thread for each model response, which is
+ * how the started calls are matched to the turn that asked for them.
+ */
+public class ParallelToolCalls implements ChatModelListener {
+
+    private final Duration timeout;
+    private final Semaphore slots;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, ToolExecutor> executors = new ConcurrentHashMap<>();
+    private final ThreadLocal<Map<String, Deque<Call>>> started = ThreadLocal.withInitial(HashMap::new);
+
+    private record Call(Future<String> result, long deadline) {
+    }
+
+    public ParallelToolCalls(int maxConcurrent, Duration timeout) {
+        this.timeout = timeout;
+        this.slots = new Semaphore(maxConcurrent, true);
+    }
+
+    /**
+     * Tool provider whose executors take part in concurrent execution.
+     */
+    public ToolProvider wrap(ToolProvider delegate) {
+        return request -> {
+            var tools = new LinkedHashMap<>(delegate.provideTools(request).tools());
+            tools.replaceAll((tool, toolExecutor) -> {
+                executors.put(tool.name(), toolExecutor);
+                return (toolRequest, memoryId) -> result(toolRequest, () -> toolExecutor.execute(toolRequest, memoryId));
+            });
+            return new ToolProviderResult(tools);
+        };
+    }
+
+    @Override
+    public void onResponse(ChatModelResponseContext context) {
+        var toolSpecifications = context.chatRequest().toolSpecifications();
+        if (toolSpecifications == null || toolSpecifications.isEmpty()) {
+            // Not part of a tool loop, e.g. the memory summarizing earlier turns mid-turn
+            return;
+        }
+
+        var calls = started.get();
+        // Anything the previous response started and nobody asked for is stale
+        calls.values().forEach(pending -> pending.forEach(call -> call.result().cancel(true)));
+        calls.clear();
+
+        var aiMessage = context.chatResponse().aiMessage();
+        if (aiMessage == null || !aiMessage.hasToolExecutionRequests() || aiMessage.toolExecutionRequests().size() < 2) {
+            started.remove();
+            return;
+        }
+
+        var count = 0;
+        for (var request : aiMessage.toolExecutionRequests()) {
+            var toolExecutor = executors.get(request.name());
+            if (toolExecutor != null) {
+                calls.computeIfAbsent(key(request), key -> new ArrayDeque<>())
+                        .add(start(() -> toolExecutor.execute(request, null)));
+                count++;
+            }
+        }
+        if (count > 1) {
+            out.printf("   ⚡ Running %d tool calls concurrently%n", count);
+        }
+    }
+
+    private String result(ToolExecutionRequest request, ToolCall execution) {
+        var pending = started.get().get(key(request));
+        var call = pending != null && !pending.isEmpty() ? pending.poll() : start(execution);
+        var remaining = call.deadline() - System.nanoTime();
+        try {
+            return call.result().get(Math.max(remaining, 0), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            call.result().cancel(true);
+            return "Error: tool " + request.name() + " did not answer within " + timeout.toSeconds() + " s";
+        } catch (ExecutionException e) {
+            var cause = e.getCause() != null ? e.getCause() : e;
+            return "Error: tool " + request.name() + " failed: " + cause.getMessage();
+        } catch (CancellationException e) {
+            return "Error: tool " + request.name() + " was cancelled";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            call.result().cancel(true);
+            return "Error: tool " + request.name() + " was interrupted";
+        }
+    }
+
+    private Call start(ToolCall execution) {
+        var deadline = System.nanoTime() + timeout.toNanos();
+        var result = executor.submit(() -> {
+            slots.acquire();
+            try {
+                return execution.run();
+            } finally {
+                slots.release();
+            }
+        });
+        return new Call(result, deadline);
+    }
+
+    private static String key(ToolExecutionRequest request) {
+        return request.name() + '\u0000' + request.arguments();
+    }
+
+    @FunctionalInterface
+    private interface ToolCall {
+
+        String run() throws Exception;
+    }
+}
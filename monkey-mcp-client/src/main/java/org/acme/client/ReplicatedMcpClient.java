@@ -0,0 +1,460 @@
+package org.acme.client;
+
+import static java.lang.System.err;
+import static java.lang.System.out;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.mcp.client.McpClient;
+import dev.langchain4j.mcp.client.McpGetPromptResult;
+import dev.langchain4j.mcp.client.McpPrompt;
+import dev.langchain4j.mcp.client.McpReadResourceResult;
+import dev.langchain4j.mcp.client.McpResource;
+import dev.langchain4j.mcp.client.McpResourceTemplate;
+
+/**
+ * MCP client over several replicas of the same server.
+ *
+ * Each tool call goes to the healthy replica with the fewest calls in flight. If it has not
+ * answered once the tool's recent latency percentile has passed, the same call is sent to a
+ * second replica and whichever answers first wins; the slower call is left to finish. A
+ * replica that fails {@code failureThreshold} calls in a row is skipped for
+ * {@code openDuration}, after which a single call is let through to probe it. Failed calls
+ * are retried on another replica.
+ *
+ * Hedging and retries can run a call twice, so they only apply to the tools listed in
+ * {@code idempotentTools}. Every other call goes to exactly one replica.
+ *
+ * Replicas connect in the background; the client is usable as soon as one of them has.
+ */
+public class ReplicatedMcpClient implements McpClient {
+
+    private static final int LATENCY_WINDOW = 128;
+    private static final int MIN_LATENCY_SAMPLES = 20;
+
+    private final String key;
+    private final List<Replica> replicas;
+    private final Settings settings;
+    private final Executor executor;
+    private final Map<String, LatencyWindow> latencies = new HashMap<>();
+    private final LongAdder hedged = new LongAdder();
+    private final LongAdder wonByHedge = new LongAdder();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    /**
+     * The optional {@code balancing} block of a server entry in mcp.json:
+     * <pre>
+     * "balancing": { "hedge": true, "hedgePercentile": 95, "minHedgeDelayMs": 20,
+     *                "failureThreshold": 3, "openSeconds": 30,
+     *                "idempotentTools": ["list_monkey_species"] }
+     * </pre>
+     */
+    public record Settings(boolean hedge, int hedgePercentile, Duration minHedgeDelay,
+            int failureThreshold, Duration openDuration, Set<String> idempotentTools) {
+
+        public Settings {
+            idempotentTools = Set.copyOf(idempotentTools);
+        }
+
+        public static Settings from(JsonNode config) {
+            var node = config != null ? config : MissingNode.getInstance();
+            var idempotentTools = new HashSet<String>();
+            node.path("idempotentTools").forEach(tool -> idempotentTools.add(tool.asText()));
+            return new Settings(
+                    node.path("hedge").asBoolean(true),
+                    Math.clamp(node.path("hedgePercentile").asInt(95), 1, 100),
+                    Duration.ofMillis(Math.max(0, node.path("minHedgeDelayMs").asLong(20))),
+                    Math.max(1, node.path("failureThreshold").asInt(3)),
+                    Duration.ofSeconds(Math.max(1, node.path("openSeconds").asLong(30))),
+                    idempotentTools);
+        }
+    }
+
+    /**
+     * One replica with its in-flight count and circuit breaker.
+     */
+    static final class Replica {
+
+        final String url;
+        final CompletableFuture<McpClient> client;
+        final AtomicInteger outstanding = new AtomicInteger();
+        final LongAdder calls = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        private int consecutiveFailures;
+        private long openUntil;
+        private boolean probing;
+
+        Replica(String url, CompletableFuture<McpClient> client) {
+            this.url = url;
+            this.client = client;
+        }
+
+        boolean connected() {
+            return client.isDone() && !client.isCompletedExceptionally();
+        }
+
+        /**
+         * Whether a call may go to this replica now; claims the probe of a half-open breaker.
+         */
+        synchronized boolean admit(long now) {
+            if (consecutiveFailures == 0 || openUntil - now > 0) {
+                return consecutiveFailures == 0;
+            }
+            if (probing) {
+                return false;
+            }
+            probing = true;
+            return true;
+        }
+
+        synchronized boolean available(long now) {
+            return consecutiveFailures == 0 || (openUntil - now <= 0 && !probing);
+        }
+
+        synchronized void succeeded() {
+            consecutiveFailures = 0;
+            probing = false;
+        }
+
+        /**
+         * Records a failure; returns true if this failure opened the breaker.
+         */
+        synchronized boolean failed(int threshold, Duration openDuration) {
+            failures.increment();
+            var wasProbing = probing;
+            probing = false;
+            if (++consecutiveFailures >= threshold || wasProbing) {
+                openUntil = System.nanoTime() + openDuration.toNanos();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private record Outcome(Replica replica, String result, RuntimeException failure, long nanos) {
+
+        boolean succeeded() {
+            return failure == null && !ToolResults.isTimeout(result);
+        }
+    }
+
+    /**
+     * Recent latencies of one tool, for the hedging delay.
+     */
+    private static final class LatencyWindow {
+
+        private final long[] samples = new long[LATENCY_WINDOW];
+        private int count;
+
+        synchronized void add(long nanos) {
+            samples[count++ % LATENCY_WINDOW] = nanos;
+        }
+
+        synchronized Optional<Duration> percentile(int percentile) {
+            if (count < MIN_LATENCY_SAMPLES) {
+                return Optional.empty();
+            }
+            var sorted = Arrays.copyOf(samples, Math.min(count, LATENCY_WINDOW));
+            Arrays.sort(sorted);
+            return Optional.of(Duration.ofNanos(sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)]));
+        }
+    }
+
+    ReplicatedMcpClient(String key, List<Replica> replicas, Settings settings, Executor executor) {
+        this.key = key;
+        this.replicas = List.copyOf(replicas);
+        this.settings = settings;
+        this.executor = executor;
+    }
+
+    /**
+     * Completes with a client over the given replicas as soon as one of them has connected,
+     * or exceptionally once all of them have failed to.
+     */
+    public static CompletableFuture<McpClient> connect(String key, Map<String, CompletableFuture<McpClient>> connections,
+            Settings settings, Executor executor) {
+        var replicas = new ArrayList<Replica>();
+        connections.forEach((url, connection) -> replicas.add(new Replica(url, connection)));
+        var client = new ReplicatedMcpClient(key, replicas, settings, executor);
+
+        var ready = new CompletableFuture<McpClient>();
+        var pending = new AtomicInteger(replicas.size());
+        for (var replica : replicas) {
+            replica.client.whenComplete((connected, e) -> {
+                if (e == null) {
+                    ready.complete(client);
+                } else {
+                    err.printf("⚠ Replica %s of MCP server %s did not connect: %s%n", replica.url, key,
+                            e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+                    if (pending.decrementAndGet() == 0) {
+                        ready.completeExceptionally(new IllegalStateException("No replica of " + key + " could connect"));
+                    }
+                }
+            });
+        }
+        return ready;
+    }
+
+    @Override
+    public String executeTool(ToolExecutionRequest request) {
+        var tried = new HashSet<Replica>();
+        if (!settings.idempotentTools().contains(request.name())) {
+            // Running it twice could count or change something twice: one replica, no hedge, no retry
+            var outcome = call(choose(tried), request).join();
+            if (outcome.failure() != null) {
+                throw outcome.failure();
+            }
+            return outcome.result();
+        }
+
+        var inFlight = new ArrayList<CompletableFuture<Outcome>>();
+        inFlight.add(call(choose(tried), request));
+
+        var hedgeDelay = settings.hedge() ? hedgeDelay(request.name()) : Optional.<Duration>empty();
+        CompletableFuture<Outcome> hedge = null;
+        Outcome last = null;
+        while (!inFlight.isEmpty()) {
+            Outcome outcome;
+            try {
+                var first = CompletableFuture.anyOf(inFlight.toArray(CompletableFuture[]::new));
+                outcome = (Outcome) (hedge == null && hedgeDelay.isPresent()
+                        ? first.get(hedgeDelay.get().toNanos(), TimeUnit.NANOSECONDS)
+                        : first.get());
+            } catch (TimeoutException e) {
+                var second = chooseIfAny(tried);
+                if (second == null) {
+                    hedgeDelay = Optional.empty();
+                    continue;
+                }
+                hedge = call(second, request);
+                hedged.increment();
+                inFlight.add(hedge);
+                continue;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while calling " + request.name() + " on " + key, e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+
+            inFlight.removeIf(CompletableFuture::isDone);
+            if (outcome.succeeded()) {
+                if (hedge != null && hedge.getNow(null) == outcome) {
+                    wonByHedge.increment();
+                }
+                return outcome.result();
+            }
+
+            last = outcome;
+            if (inFlight.isEmpty()) {
+                // Fail over to a replica that has not seen this call yet
+                var next = chooseIfAny(tried);
+                if (next != null) {
+                    inFlight.add(call(next, request));
+                }
+            }
+        }
+
+        if (last.failure() != null) {
+            throw last.failure();
+        }
+        return last.result();
+    }
+
+    private CompletableFuture<Outcome> call(Replica replica, ToolExecutionRequest request) {
+        replica.outstanding.incrementAndGet();
+        replica.calls.increment();
+        return CompletableFuture.supplyAsync(() -> {
+            var started = System.nanoTime();
+            Outcome outcome;
+            try {
+                var result = replica.client.join().executeTool(request);
+                outcome = new Outcome(replica, result, null, System.nanoTime() - started);
+            } catch (RuntimeException e) {
+                outcome = new Outcome(replica, null, e, System.nanoTime() - started);
+            } finally {
+                replica.outstanding.decrementAndGet();
+            }
+            recordOutcome(request.name(), outcome);
+            return outcome;
+        }, executor);
+    }
+
+    private void recordOutcome(String tool, Outcome outcome) {
+        if (outcome.succeeded()) {
+            outcome.replica().succeeded();
+            window(tool).add(outcome.nanos());
+        } else if (outcome.replica().failed(settings.failureThreshold(), settings.openDuration())) {
+            err.printf("⚠ Replica %s of MCP server %s is failing, skipping it for %d s%n",
+                    outcome.replica().url, key, settings.openDuration().toSeconds());
+        }
+    }
+
+    private LatencyWindow window(String tool) {
+        synchronized (latencies) {
+            return latencies.computeIfAbsent(tool, name -> new LatencyWindow());
+        }
+    }
+
+    Optional<Duration> hedgeDelay(String tool) {
+        return window(tool).percentile(settings.hedgePercentile())
+                .map(delay -> delay.compareTo(settings.minHedgeDelay()) < 0 ? settings.minHedgeDelay() : delay);
+    }
+
+    private Replica choose(Set<Replica> tried) {
+        var replica = chooseIfAny(tried);
+        if (replica == null) {
+            throw new IllegalStateException("No healthy replica of MCP server " + key);
+        }
+        return replica;
+    }
+
+    /**
+     * Picks the connected, admitted replica with the fewest calls in flight, rotating the
+     * starting point so ties are spread evenly.
+     */
+    Replica chooseIfAny(Set<Replica> tried) {
+        var now = System.nanoTime();
+        var start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        while (true) {
+            Replica best = null;
+            for (int i = 0; i < replicas.size(); i++) {
+                var replica = replicas.get((start + i) % replicas.size());
+                if (tried.contains(replica) || !replica.connected() || !replica.available(now)) {
+                    continue;
+                }
+                if (best == null || replica.outstanding.get() < best.outstanding.get()) {
+                    best = replica;
+                }
+            }
+            if (best == null) {
+                return null;
+            }
+            if (best.admit(now)) {
+                tried.add(best);
+                return best;
+            }
+            // Another call just claimed this replica's probe
+            tried.add(best);
+        }
+    }
+
+    /**
+     * Runs a non-tool operation on one healthy replica, failing over to the others.
+     */
+    private <T> T onAnyReplica(Function<McpClient, T> operation) {
+        var tried = new HashSet<Replica>();
+        RuntimeException failure = null;
+        for (var replica = chooseIfAny(tried); replica != null; replica = chooseIfAny(tried)) {
+            try {
+                var result = operation.apply(replica.client.join());
+                replica.succeeded();
+                return result;
+            } catch (RuntimeException e) {
+                replica.failed(settings.failureThreshold(), settings.openDuration());
+                failure = e;
+            }
+        }
+        throw failure != null ? failure : new IllegalStateException("No healthy replica of MCP server " + key);
+    }
+
+    /**
+     * Prints calls and failures per replica and how often hedging paid off, if any call was made.
+     */
+    public void reportStats() {
+        if (replicas.stream().allMatch(replica -> replica.calls.sum() == 0)) {
+            return;
+        }
+        for (var replica : replicas) {
+            out.printf("✓ Replica %s of %s: %d call(s), %d failure(s)%n",
+                    replica.url, key, replica.calls.sum(), replica.failures.sum());
+        }
+        if (hedged.sum() > 0) {
+            out.printf("✓ Hedged %d call(s) to %s, %d answered first by the hedge%n", hedged.sum(), key, wonByHedge.sum());
+        }
+    }
+
+    @Override
+    public String key() {
+        return key;
+    }
+
+    @Override
+    public List<ToolSpecification> listTools() {
+        return onAnyReplica(McpClient::listTools);
+    }
+
+    @Override
+    public List<McpResource> listResources() {
+        return onAnyReplica(McpClient::listResources);
+    }
+
+    @Override
+    public List<McpResourceTemplate> listResourceTemplates() {
+        return onAnyReplica(McpClient::listResourceTemplates);
+    }
+
+    @Override
+    public McpReadResourceResult readResource(String uri) {
+        return onAnyReplica(client -> client.readResource(uri));
+    }
+
+    @Override
+    public List<McpPrompt> listPrompts() {
+        return onAnyReplica(McpClient::listPrompts);
+    }
+
+    @Override
+    public McpGetPromptResult getPrompt(String name, Map<String, Object> arguments) {
+        return onAnyReplica(client -> client.getPrompt(name, arguments));
+    }
+
+    @Override
+    public void checkHealth() {
+        onAnyReplica(client -> {
+            client.checkHealth();
+            return null;
+        });
+    }
+
+    @Override
+    public void close() throws Exception {
+        reportStats();
+        Exception failure = null;
+        for (var replica : replicas) {
+            if (!replica.connected()) {
+                replica.client.cancel(true);
+                continue;
+            }
+            try {
+                replica.client.join().close();
+            } catch (Exception e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.acme.client;
+
+import static java.lang.System.out;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Time-to-first-token, generation throughput and wall time of each streamed chat turn.
+ */
+public class StreamingStats {
+
+    private final List<Turn> turns = new ArrayList<>();
+
+    /**
+     * One streamed reply. {@code generation} runs from the first to the last token, so
+     * tokens per second reflects decoding speed rather than prompt processing or tool calls.
+     * {@code wallTime} is the whole turn as the user waits for it, tool calls included.
+     */
+    public record Turn(Duration timeToFirstToken, Duration generation, int outputTokens, int toolCalls,
+            Duration wallTime) {
+
+        public double tokensPerSecond() {
+            var seconds = generation.toNanos() / 1e9;
+            return seconds > 0 ? outputTokens / seconds : 0;
+        }
+    }
+
+    public synchronized void record(Turn turn) {
+        turns.add(turn);
+    }
+
+    /**
+     * Prints the per-turn line shown after each streamed reply.
+     */
+    public static void print(Turn turn) {
+        out.printf("   ⏱ first token %d ms · %d token(s) at %.1f tokens/s%s · turn %d ms%n",
+                turn.timeToFirstToken().toMillis(), turn.outputTokens(), turn.tokensPerSecond(),
+                turn.toolCalls() > 0 ? " · " + turn.toolCalls() + " tool call(s)" : "",
+                turn.wallTime().toMillis());
+    }
+
+    /**
+     * Prints median and worst time-to-first-token and turn time, and mean throughput over the session.
+     */
+    public synchronized void printSummary() {
+        if (turns.isEmpty()) {
+            return;
+        }
+        var ttfts = turns.stream().map(Turn::timeToFirstToken).sorted(Comparator.naturalOrder()).toList();
+        var wallTimes = turns.stream().map(Turn::wallTime).sorted(Comparator.naturalOrder()).toList();
+        var meanTokensPerSecond = turns.stream().mapToDouble(Turn::tokensPerSecond).average().orElse(0);
+        out.printf("✓ Streaming: %d turn(s), first token p50 %d ms / max %d ms, turn p50 %d ms / max %d ms, %.1f tokens/s on average%n",
+                turns.size(), ttfts.get(ttfts.size() / 2).toMillis(), ttfts.get(ttfts.size() - 1).toMillis(),
+                wallTimes.get(wallTimes.size() / 2).toMillis(), wallTimes.get(wallTimes.size() - 1).toMillis(),
+                meanTokensPerSecond);
+    }
+}
@@ -0,0 +1,242 @@
+package org.acme.client;
+
+import static java.lang.System.err;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.internal.JsonSchemaElementUtils;
+import dev.langchain4j.model.chat.request.json.JsonAnyOfSchema;
+import dev.langchain4j.model.chat.request.json.JsonArraySchema;
+import dev.langchain4j.model.chat.request.json.JsonBooleanSchema;
+import dev.langchain4j.model.chat.request.json.JsonEnumSchema;
+import dev.langchain4j.model.chat.request.json.JsonIntegerSchema;
+import dev.langchain4j.model.chat.request.json.JsonNullSchema;
+import dev.langchain4j.model.chat.request.json.JsonNumberSchema;
+import dev.langchain4j.model.chat.request.json.JsonObjectSchema;
+import dev.langchain4j.model.chat.request.json.JsonSchemaElement;
+import dev.langchain4j.model.chat.request.json.JsonStringSchema;
+
+/**
+ * On-disk cache of the tool specifications each MCP server advertised, keyed by server URL.
+ *
+ * Entries are stored in MCP {@code tools/list} format together with a SHA-256 hash of the
+ * catalog, so a background revalidation can tell whether anything actually changed. Entries
+ * younger than {@code revalidateAfter} are fresh and served as they are; older ones are still
+ * served until {@code ttl}, but are due for revalidation. The whole
+ * file is rewritten through a temporary file and an atomic move, so a concurrent reader never
+ * sees a half-written cache.
+ */
+public class ToolCatalogCache {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Path file;
+    private final Duration ttl;
+    private final Duration revalidateAfter;
+    private final Clock clock;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    public record Entry(String type, String hash, Instant fetchedAt, List<ToolSpecification> tools) {
+    }
+
+    public ToolCatalogCache(Path file, Duration ttl, Duration revalidateAfter) {
+        this(file, ttl, revalidateAfter, Clock.systemUTC());
+    }
+
+    ToolCatalogCache(Path file, Duration ttl, Duration revalidateAfter, Clock clock) {
+        this.file = file;
+        this.ttl = ttl;
+        this.revalidateAfter = revalidateAfter;
+        this.clock = clock;
+        load();
+    }
+
+    /**
+     * Cached tools for the server at {@code url}, if they were fetched over the same transport
+     * type and are younger than the configured TTL.
+     */
+    public synchronized Optional<Entry> get(String url, String type) {
+        var entry = entries.get(url);
+        if (entry == null || !entry.type().equals(type)
+                || Duration.between(entry.fetchedAt(), clock.instant()).compareTo(ttl) > 0) {
+            return Optional.empty();
+        }
+        return Optional.of(entry);
+    }
+
+    /**
+     * Whether a cached entry is old enough that its server should be asked for its current tools.
+     */
+    public boolean isDueForRevalidation(Entry entry) {
+        return Duration.between(entry.fetchedAt(), clock.instant()).compareTo(revalidateAfter) >= 0;
+    }
+
+    /**
+     * Stores a freshly listed catalog.
+     *
+     * @return true when the catalog differs from the cached one (or nothing was cached)
+     */
+    public synchronized boolean put(String url, String type, List<ToolSpecification> tools) {
+        var serialized = toJson(tools);
+        var hash = hash(serialized);
+        var previous = entries.put(url, new Entry(type, hash, clock.instant(), List.copyOf(tools)));
+        save();
+        return previous == null || !previous.hash().equals(hash);
+    }
+
+    /**
+     * Drops the cached catalog for {@code url}, e.g. after a {@code tools/list_changed} notification.
+     */
+    public synchronized boolean invalidate(String url) {
+        if (entries.remove(url) == null) {
+            return false;
+        }
+        save();
+        return true;
+    }
+
+    private void load() {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try {
+            var servers = objectMapper.readTree(file.toFile()).path("servers");
+            servers.fieldNames().forEachRemaining(url -> {
+                var node = servers.get(url);
+                var tools = new ArrayList<ToolSpecification>();
+                node.path("tools").forEach(tool -> tools.add(toToolSpecification(tool)));
+                entries.put(url, new Entry(node.path("type").asText(), node.path("hash").asText(),
+                        Instant.parse(node.path("fetchedAt").asText()), List.copyOf(tools)));
+            });
+        } catch (IOException | RuntimeException e) {
+            // A corrupt cache only costs one full discovery
+            err.printf("⚠ Ignoring unreadable tool cache %s: %s%n", file, e.getMessage());
+            entries.clear();
+        }
+    }
+
+    private void save() {
+        var root = objectMapper.createObjectNode();
+        var servers = root.putObject("servers");
+        entries.forEach((url, entry) -> {
+            var node = servers.putObject(url);
+            node.put("type", entry.type());
+            node.put("hash", entry.hash());
+            node.put("fetchedAt", entry.fetchedAt().toString());
+            node.set("tools", toJson(entry.tools()));
+        });
+
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            var tmp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+            try {
+                objectMapper.writerWithDefaultPrettyPrinter().writeValue(tmp.toFile(), root);
+                try {
+                    Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException e) {
+            err.printf("⚠ Failed to write tool cache %s: %s%n", file, e.getMessage());
+        }
+    }
+
+    private ArrayNode toJson(List<ToolSpecification> tools) {
+        var array = objectMapper.createArrayNode();
+        for (var tool : tools) {
+            ObjectNode node = array.addObject();
+            node.put("name", tool.name());
+            if (tool.description() != null) {
+                node.put("description", tool.description());
+            }
+            if (tool.parameters() != null) {
+                node.set("inputSchema", objectMapper.valueToTree(JsonSchemaElementUtils.toMap(tool.parameters())));
+            }
+        }
+        return array;
+    }
+
+    private static String hash(JsonNode tools) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(tools.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ToolSpecification toToolSpecification(JsonNode tool) {
+        var builder = ToolSpecification.builder().name(tool.path("name").asText());
+        if (tool.has("description")) {
+            builder.description(tool.get("description").asText());
+        }
+        if (tool.has("inputSchema") && toSchemaElement(tool.get("inputSchema")) instanceof JsonObjectSchema schema) {
+            builder.parameters(schema);
+        }
+        return builder.build();
+    }
+
+    // Mirrors the MCP client's own inputSchema mapping so cached and live tools compare equal
+    private static JsonSchemaElement toSchemaElement(JsonNode node) {
+        var description = node.has("description") ? node.get("description").asText() : null;
+        if (node.has("anyOf")) {
+            var anyOf = new ArrayList<JsonSchemaElement>();
+            node.get("anyOf").forEach(option -> anyOf.add(toSchemaElement(option)));
+            return JsonAnyOfSchema.builder().description(description).anyOf(anyOf).build();
+        }
+        if (node.has("enum")) {
+            var values = new ArrayList<String>();
+            node.get("enum").forEach(value -> values.add(value.asText()));
+            return JsonEnumSchema.builder().description(description).enumValues(values).build();
+        }
+        return switch (node.path("type").asText()) {
+            case "object" -> {
+                var builder = JsonObjectSchema.builder().description(description);
+                node.path("properties").fields()
+                        .forEachRemaining(property -> builder.addProperty(property.getKey(), toSchemaElement(property.getValue())));
+                if (node.has("required")) {
+                    var required = new ArrayList<String>();
+                    node.get("required").forEach(name -> required.add(name.asText()));
+                    builder.required(required);
+                }
+                if (node.has("additionalProperties")) {
+                    builder.additionalProperties(node.get("additionalProperties").asBoolean(false));
+                }
+                yield builder.build();
+            }
+            case "array" -> JsonArraySchema.builder().description(description)
+                    .items(toSchemaElement(node.path("items"))).build();
+            case "integer" -> JsonIntegerSchema.builder().description(description).build();
+            case "number" -> JsonNumberSchema.builder().description(description).build();
+            case "boolean" -> JsonBooleanSchema.builder().description(description).build();
+            case "null" -> new JsonNullSchema();
+            default -> JsonStringSchema.builder().description(description).build();
+        };
+    }
+}
@@ -0,0 +1,29 @@
+package org.acme.client;
+
+/**
+ * How DefaultMcpClient reports a failed tool call. Errors and timeouts come back as results
+ * starting with these texts rather than as exceptions.
+ */
+public final class ToolResults {
+
+    public static final String ERROR_PREFIX = "There was an error executing the tool";
+    public static final String TIMEOUT_PREFIX = "There was a timeout executing the tool";
+
+    private ToolResults() {
+    }
+
+    public static boolean isError(String result) {
+        return result != null && result.startsWith(ERROR_PREFIX);
+    }
+
+    public static boolean isTimeout(String result) {
+        return result != null && result.startsWith(TIMEOUT_PREFIX);
+    }
+
+    /**
+     * Whether a result reports an error or a timeout instead of an answer.
+     */
+    public static boolean isFailure(String result) {
+        return isError(result) || isTimeout(result);
+    }
+}
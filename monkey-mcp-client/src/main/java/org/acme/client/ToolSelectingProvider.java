@@ -0,0 +1,197 @@
+package org.acme.client;
+
+import static java.lang.System.out;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.acme.client.memory.CharacterTokenCountEstimator;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.internal.JsonSchemaElementUtils;
+import dev.langchain4j.service.tool.ToolExecutor;
+import dev.langchain4j.service.tool.ToolProvider;
+import dev.langchain4j.service.tool.ToolProviderRequest;
+import dev.langchain4j.service.tool.ToolProviderResult;
+
+/**
+ * Tool provider that offers the model only the tools most relevant to the user message.
+ *
+ * Tools are ranked with BM25 over their name, description and parameter names; the name
+ * counts twice, as it is the most specific text a tool has. The index is rebuilt only when
+ * the set of tools changes. With {@code maxTools} tools or fewer every tool is offered.
+ *
+ * A model may still call a tool it was not offered, for example one it used in an earlier
+ * turn. {@link #executeUnoffered} runs such calls against the full tool set.
+ */
+public class ToolSelectingProvider implements ToolProvider {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final Pattern CAMEL_CASE = Pattern.compile("(?<=[a-z0-9])(?=[A-Z])");
+    private static final Pattern NON_WORD = Pattern.compile("[^a-z0-9]+");
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "about", "can", "do", "does", "for", "from", "get", "give", "how", "i",
+            "in", "is", "it", "me", "of", "on", "or", "please", "tell", "that", "the", "this", "to", "what",
+            "which", "with", "you", "your");
+
+    private final ToolProvider delegate;
+    private final int maxTools;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CharacterTokenCountEstimator estimator = new CharacterTokenCountEstimator();
+
+    private Index index;
+    private volatile Map<ToolSpecification, ToolExecutor> allTools = Map.of();
+
+    public ToolSelectingProvider(ToolProvider delegate, int maxTools) {
+        this.delegate = delegate;
+        this.maxTools = maxTools;
+    }
+
+    @Override
+    public ToolProviderResult provideTools(ToolProviderRequest request) {
+        var result = delegate.provideTools(request);
+        var tools = result.tools();
+        allTools = tools;
+        if (maxTools <= 0 || tools.size() <= maxTools) {
+            return result;
+        }
+
+        var message = request.userMessage();
+        var query = message != null && message.hasSingleText() ? message.singleText() : "";
+        var selected = select(tools, query);
+
+        var totalTokens = tools.keySet().stream().mapToInt(this::schemaTokens).sum();
+        var selectedTokens = selected.keySet().stream().mapToInt(this::schemaTokens).sum();
+        out.printf("🧰 Offering %d of %d tool(s) to the model (≈%d instead of ≈%d schema tokens)%n",
+                selected.size(), tools.size(), selectedTokens, totalTokens);
+        return new ToolProviderResult(selected);
+    }
+
+    /**
+     * Runs a call to a tool that was not offered this turn, or reports that no such tool exists.
+     */
+    public ToolExecutionResultMessage executeUnoffered(ToolExecutionRequest request) {
+        for (var tool : allTools.entrySet()) {
+            if (tool.getKey().name().equals(request.name())) {
+                return ToolExecutionResultMessage.from(request, tool.getValue().execute(request, null));
+            }
+        }
+        return ToolExecutionResultMessage.from(request, "Error: there is no tool called " + request.name());
+    }
+
+    /**
+     * The {@code maxTools} best matches for the query, in registration order among equal scores.
+     */
+    Map<ToolSpecification, ToolExecutor> select(Map<ToolSpecification, ToolExecutor> tools, String query) {
+        var scores = index(tools.keySet()).score(terms(query));
+        var ranked = new ArrayList<>(tools.keySet());
+        ranked.sort(Comparator.comparingDouble((ToolSpecification tool) -> scores.getOrDefault(tool.name(), 0.0)).reversed());
+
+        var selected = new LinkedHashMap<ToolSpecification, ToolExecutor>();
+        for (var tool : ranked.subList(0, maxTools)) {
+            selected.put(tool, tools.get(tool));
+        }
+        return selected;
+    }
+
+    private synchronized Index index(Set<ToolSpecification> tools) {
+        if (index == null || !index.tools().equals(tools)) {
+            index = Index.of(Set.copyOf(tools));
+        }
+        return index;
+    }
+
+    private int schemaTokens(ToolSpecification tool) {
+        var text = new StringBuilder(tool.name());
+        if (tool.description() != null) {
+            text.append(tool.description());
+        }
+        if (tool.parameters() != null) {
+            try {
+                text.append(objectMapper.writeValueAsString(JsonSchemaElementUtils.toMap(tool.parameters())));
+            } catch (JsonProcessingException e) {
+                // Leave the parameters out of the estimate
+            }
+        }
+        return estimator.estimateTokenCountInText(text.toString());
+    }
+
+    /**
+     * Lower-cased words with camelCase and snake_case split apart and a plural "s" removed,
+     * so that "speciesName", "species_name" and "Species names" share their terms.
+     */
+    static List<String> terms(String text) {
+        var terms = new ArrayList<String>();
+        if (text == null) {
+            return terms;
+        }
+        for (var word : NON_WORD.split(CAMEL_CASE.matcher(text).replaceAll(" ").toLowerCase(Locale.ROOT))) {
+            if (word.isEmpty() || STOP_WORDS.contains(word)) {
+                continue;
+            }
+            terms.add(word.length() > 3 && word.endsWith("s") && !word.endsWith("ss")
+                    ? word.substring(0, word.length() - 1)
+                    : word);
+        }
+        return terms;
+    }
+
+    private record Index(Set<ToolSpecification> tools, Map<String, Map<String, Integer>> termFrequencies,
+            Map<String, Integer> lengths, Map<String, Integer> documentFrequencies, double averageLength) {
+
+        static Index of(Set<ToolSpecification> tools) {
+            var termFrequencies = new HashMap<String, Map<String, Integer>>();
+            var lengths = new HashMap<String, Integer>();
+            var documentFrequencies = new HashMap<String, Integer>();
+            for (var tool : tools) {
+                var terms = terms(tool.name());
+                terms.addAll(terms(tool.name()));
+                terms.addAll(terms(tool.description()));
+                if (tool.parameters() != null) {
+                    tool.parameters().properties().keySet().forEach(name -> terms.addAll(terms(name)));
+                }
+
+                var frequencies = new HashMap<String, Integer>();
+                terms.forEach(term -> frequencies.merge(term, 1, Integer::sum));
+                frequencies.keySet().forEach(term -> documentFrequencies.merge(term, 1, Integer::sum));
+                termFrequencies.put(tool.name(), frequencies);
+                lengths.put(tool.name(), terms.size());
+            }
+            var averageLength = lengths.values().stream().mapToInt(Integer::intValue).average().orElse(1);
+            return new Index(tools, termFrequencies, lengths, documentFrequencies, Math.max(averageLength, 1));
+        }
+
+        Map<String, Double> score(List<String> query) {
+            var scores = new HashMap<String, Double>();
+            var documents = termFrequencies.size();
+            for (var term : Set.copyOf(query)) {
+                var documentFrequency = documentFrequencies.getOrDefault(term, 0);
+                if (documentFrequency == 0) {
+                    continue;
+                }
+                var idf = Math.log(1 + (documents - documentFrequency + 0.5) / (documentFrequency + 0.5));
+                termFrequencies.forEach((tool, frequencies) -> {
+                    var frequency = frequencies.getOrDefault(term, 0);
+                    if (frequency > 0) {
+                        var norm = K1 * (1 - B + B * lengths.get(tool) / averageLength);
+                        scores.merge(tool, idf * frequency * (K1 + 1) / (frequency + norm), Double::sum);
+                    }
+                });
+            }
+            return scores;
+        }
+    }
+}
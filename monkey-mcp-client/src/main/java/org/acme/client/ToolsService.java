@@ -6,10 +6,25 @@ import static java.lang.System.out;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.acme.client.transport.StreamableHttpMcpTransport;
+import org.acme.client.transport.ToolListChangeAwareTransport;
+import org.acme.config.McpConfig;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -18,18 +33,39 @@ import dev.langchain4j.agent.tool.ToolSpecification;
 import dev.langchain4j.mcp.McpToolProvider;
 import dev.langchain4j.mcp.client.DefaultMcpClient;
 import dev.langchain4j.mcp.client.McpClient;
+import dev.langchain4j.mcp.client.transport.McpTransport;
 import dev.langchain4j.mcp.client.transport.http.HttpMcpTransport;
 
 public class ToolsService {
 
-    private final List<McpClient> mcpClients = new ArrayList<>();
+    private static final String SSE_PROTOCOL_VERSION = "2024-11-05";
+    private static final String STREAMABLE_HTTP_PROTOCOL_VERSION = "2025-03-26";
+
+    private final List<McpServer> mcpServers = new ArrayList<>();
+    private final Map<String, Duration> discoveryLatencies = new ConcurrentHashMap<>();
+    private final Map<String, Duration> connectLatencies = new ConcurrentHashMap<>();
+    private final Map<String, String> toolServers = new ConcurrentHashMap<>();
+    private final Map<String, AnswerCache.Settings> answerCacheSettings = new ConcurrentHashMap<>();
+    private final List<Runnable> toolListChangeListeners = new CopyOnWriteArrayList<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ToolCatalogCache toolCache = McpConfig.isToolCacheEnabled()
+            ? new ToolCatalogCache(McpConfig.getToolCacheFile(), McpConfig.getToolCacheTtl(),
+                    McpConfig.getToolCacheRevalidateAfter())
+            : null;
     private McpToolProvider toolProvider;
+    private volatile boolean shuttingDown;
+
+    /**
+     * A configured server whose client connects in the background, so cached tools can be
+     * served before the MCP handshake has finished.
+     */
+    private record McpServer(String name, String url, String type, CompletableFuture<McpClient> client) {
+    }
 
     public ToolsService() {
         out.println("→ Initializing MCP tools...");
         try {
             registerMCPServers();
-            initializeToolProvider();
             out.println("✓ MCP tools initialized successfully");
         } catch (Exception e) {
             err.printf("✗ Failed to initialize MCP tools: %s%n", e.getMessage());
@@ -59,21 +95,21 @@ public class ToolsService {
             });
 
             out.printf("✓ MCP server registration completed. %d server(s) registered%n",
-                    mcpClients.size());
+                    mcpServers.size());
         } catch (IOException e) {
             err.printf("✗ Failed to read mcp.json configuration: %s%n", e.getMessage());
         }
     }
 
     private InputStream getConfigurationFile() {
-        var workingDirConfig = Paths.get("mcp.json");
+        var workingDirConfig = McpConfig.getConfigFile();
         if (Files.exists(workingDirConfig)) {
             try {
-                out.printf("→ Loading mcp.json from working directory: %s%n", workingDirConfig.toAbsolutePath());
+                out.printf("→ Loading mcp.json from: %s%n", workingDirConfig.toAbsolutePath());
                 return Files.newInputStream(workingDirConfig);
             } catch (IOException e) {
-                err.printf("✗ Failed to read mcp.json from working directory, falling back to bundled resource: %s%n",
-                        e.getMessage());
+                err.printf("✗ Failed to read %s, falling back to bundled resource: %s%n",
+                        workingDirConfig, e.getMessage());
             }
         }
 
@@ -88,91 +124,328 @@ public class ToolsService {
         out.printf("→ Processing server registration: %s%n", serverName);
 
         try {
-            var url = serverConfig.get("url").asText();
+            var urls = new ArrayList<String>();
+            if (serverConfig.path("urls").isArray()) {
+                serverConfig.get("urls").forEach(url -> urls.add(url.asText()));
+            } else {
+                urls.add(serverConfig.get("url").asText());
+            }
             var type = serverConfig.get("type").asText();
 
-            out.printf("  URL: %s, Type: %s%n", url, type);
+            out.printf("  URL: %s, Type: %s%n", String.join(", ", urls), type);
 
-            if (!"sse".equals(type)) {
+            if (!"sse".equals(type) && !"http".equals(type)) {
                 err.printf("✗ Unsupported transport type '%s' for server: %s%n", type, serverName);
                 return;
             }
 
-            out.printf("→ Registering MCP server: %s with URL: %s%n", serverName, url);
+            out.printf("→ Registering MCP server: %s with URL: %s%n", serverName, String.join(", ", urls));
+
+            // Replicas share one catalog in the tool cache, keyed by all of their URLs
+            var cacheKey = String.join(",", urls);
+            var start = System.nanoTime();
+            CompletableFuture<McpClient> client;
+            if (urls.size() == 1) {
+                client = connect(serverName, urls.get(0), type, cacheKey, serverName);
+            } else {
+                var replicas = new LinkedHashMap<String, CompletableFuture<McpClient>>();
+                for (int i = 0; i < urls.size(); i++) {
+                    replicas.put(urls.get(i), connect(serverName, urls.get(i), type, cacheKey, serverName + "#" + (i + 1)));
+                }
+                client = ReplicatedMcpClient.connect(serverName, replicas,
+                        ReplicatedMcpClient.Settings.from(serverConfig.get("balancing")), executor);
+            }
 
+            answerCacheSettings.put(serverName, AnswerCache.Settings.from(serverConfig.get("answerCache")));
+            var cacheConfig = serverConfig.get("cache");
+            var connection = client.thenApply(connected -> {
+                connectLatencies.put(serverName, Duration.ofNanos(System.nanoTime() - start));
+                return MemoizingMcpClient.wrap(connected, cacheConfig);
+            });
+            connection.whenComplete((connected, e) -> {
+                if (e != null) {
+                    err.printf("✗ Failed to connect to MCP server: %s - %s%n", serverName, rootCause(e).getMessage());
+                }
+            });
+
+            mcpServers.add(new McpServer(serverName, cacheKey, type, connection));
+            out.printf("✓ Successfully registered MCP server: %s%n", serverName);
+        } catch (RuntimeException e) {
+            err.printf("✗ Failed to register MCP server: %s - %s%n", serverName, e.getMessage());
+        }
+    }
+
+    private CompletableFuture<McpClient> connect(String serverName, String url, String type, String cacheKey,
+            String clientKey) {
+        McpTransport mcpTransport = switch (type) {
             // Configure SSE transport with longer timeouts to prevent connection issues
-            var mcpTransport = new HttpMcpTransport.Builder()
+            case "sse" -> new HttpMcpTransport.Builder()
                     .sseUrl(url)
                     .timeout(Duration.ofSeconds(60)) // Increased timeout for SSE connections
                     .logRequests(false)
                     .logResponses(false)
                     .build();
-
-            var mcpClient = new DefaultMcpClient.Builder()
-                    .key(serverName)
-                    .transport(mcpTransport)
+            // Streamable HTTP: plain request/response, no long-lived stream per server
+            default -> new StreamableHttpMcpTransport.Builder()
+                    .url(url)
+                    .timeout(Duration.ofSeconds(60))
                     .build();
+        };
+
+        var transport = new ToolListChangeAwareTransport(mcpTransport, () -> onToolListChanged(serverName, cacheKey));
+        var protocolVersion = "http".equals(type) ? STREAMABLE_HTTP_PROTOCOL_VERSION : SSE_PROTOCOL_VERSION;
+        return CompletableFuture.supplyAsync(() -> new DefaultMcpClient.Builder()
+                .key(clientKey)
+                .transport(transport)
+                .protocolVersion(protocolVersion)
+                .build(), executor);
+    }
 
-            mcpClients.add(mcpClient);
-            out.printf("✓ Successfully registered MCP server: %s%n", serverName);
-        } catch (RuntimeException e) {
-            err.printf("✗ Failed to register MCP server: %s - %s%n", serverName, e.getMessage());
+    public List<ToolSpecification> getAvailableTools() {
+        var budget = McpConfig.getDiscoveryBudget();
+        var timeout = McpConfig.getDiscoveryTimeout();
+        var started = System.nanoTime();
+        var discoveries = new LinkedHashMap<McpServer, CompletableFuture<List<ToolSpecification>>>();
+
+        for (var server : mcpServers) {
+            var cached = toolCache != null
+                    ? toolCache.get(server.url(), server.type())
+                    : Optional.<ToolCatalogCache.Entry>empty();
+            if (cached.isPresent()) {
+                // Serve the cached catalog now; an older one is confirmed by the server while we carry on
+                out.printf("✓ Loaded %d tool(s) for MCP server %s from cache (fetched %s)%n",
+                        cached.get().tools().size(), server.name(), cached.get().fetchedAt());
+                discoveries.put(server, CompletableFuture.completedFuture(cached.get().tools()));
+                if (toolCache.isDueForRevalidation(cached.get())) {
+                    revalidate(server, timeout);
+                }
+                continue;
+            }
+
+            // Fan out to every server at once so one slow server only costs its own deadline
+            out.printf("→ Retrieving tools from MCP server: %s%n", server.name());
+            var discovery = server.client()
+                    .thenApplyAsync(this::discoverTools, executor)
+                    .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .whenComplete((tools, e) -> {
+                        reportDiscovery(server.name(), tools, e, started);
+                        if (e == null && toolCache != null) {
+                            toolCache.put(server.url(), server.type(), tools);
+                        }
+                    });
+            discoveries.put(server, discovery);
+        }
+
+        try {
+            CompletableFuture.allOf(discoveries.values().toArray(CompletableFuture[]::new))
+                    .get(budget.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            err.printf("⚠ Tool discovery budget of %d s exhausted, continuing with servers that responded%n",
+                    budget.getSeconds());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // Individual failures are reported per server
+        }
+
+        var allTools = new ArrayList<ToolSpecification>();
+        var respondedServers = 0;
+        for (var discovery : discoveries.values()) {
+            if (discovery.isDone() && !discovery.isCompletedExceptionally()) {
+                allTools.addAll(discovery.join());
+                respondedServers++;
+            }
+        }
+
+        out.printf("→ Retrieved %d total tool(s) from %d of %d MCP server(s) in %d ms%n",
+                allTools.size(), respondedServers, mcpServers.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return allTools;
+    }
+
+    /**
+     * Latency of the most recent tool discovery per server, for servers that responded.
+     */
+    public Map<String, Duration> getDiscoveryLatencies() {
+        return Map.copyOf(discoveryLatencies);
+    }
+
+    /**
+     * Time each server took to complete the MCP handshake, for servers that connected.
+     */
+    public Map<String, Duration> getConnectLatencies() {
+        return Map.copyOf(connectLatencies);
+    }
+
+    /**
+     * Asks the server for its current tools in the background. Nothing waits for this: if the
+     * process exits first, the entry stays due and the next start tries again.
+     */
+    private void revalidate(McpServer server, Duration timeout) {
+        server.client()
+                .thenApplyAsync(this::discoverTools, executor)
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((tools, e) -> {
+                    if (shuttingDown) {
+                        return;
+                    }
+                    if (e != null) {
+                        err.printf("⚠ Could not revalidate cached tools for MCP server %s: %s%n",
+                                server.name(), rootCause(e).getMessage());
+                    } else if (toolCache.put(server.url(), server.type(), tools)) {
+                        out.printf("↻ Refreshed cached tools for MCP server %s (%d tool(s))%n",
+                                server.name(), tools.size());
+                    }
+                });
+    }
+
+    private void onToolListChanged(String serverName, String url) {
+        if (toolCache != null && toolCache.invalidate(url)) {
+            out.printf("↻ MCP server %s reported a tool list change, cached tools invalidated%n", serverName);
         }
+        toolListChangeListeners.forEach(Runnable::run);
     }
 
-    private void initializeToolProvider() {
+    private List<ToolSpecification> discoverTools(McpClient client) {
+        var start = System.nanoTime();
+        var tools = client.listTools();
+        discoveryLatencies.put(client.key(), Duration.ofNanos(System.nanoTime() - start));
+        return tools;
+    }
+
+    private void reportDiscovery(String serverName, List<ToolSpecification> tools, Throwable e, long started) {
+        if (e == null) {
+            out.printf("✓ Retrieved %d tool(s) from MCP server: %s (%d ms)%n",
+                    tools.size(), serverName, discoveryLatencies.get(serverName).toMillis());
+            return;
+        }
+
+        var cause = rootCause(e);
+        if (cause instanceof TimeoutException) {
+            err.printf("⚠ MCP server %s did not list its tools within %d ms%n",
+                    serverName, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            return;
+        }
+        err.printf("⚠ Failed to get tools from MCP server: %s - %s%n", serverName, cause.getMessage());
+        // Don't print full stack trace for common connection issues
+        if (!(cause.getCause() instanceof java.net.SocketTimeoutException)) {
+            err.printf("  Full error details: %s%n", cause.toString());
+        }
+    }
+
+    private static Throwable rootCause(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    /**
+     * Name of the server offering a tool, as far as the tool lists fetched at startup tell.
+     */
+    public String serverOf(String toolName) {
+        return toolServers.getOrDefault(toolName, "unknown");
+    }
+
+    /**
+     * Answer cache settings of the server offering a tool, empty when it configures none.
+     */
+    public AnswerCache.Settings answerCacheSettingsOf(String toolName) {
+        return answerCacheSettings.getOrDefault(serverOf(toolName), AnswerCache.Settings.NONE);
+    }
+
+    /**
+     * Runs the listener whenever a server reports that its tool list changed.
+     */
+    public void onToolListChanged(Runnable listener) {
+        toolListChangeListeners.add(listener);
+    }
+
+    /**
+     * Tool provider over every server that finished connecting within the discovery budget.
+     */
+    public synchronized McpToolProvider getToolProvider() {
+        if (toolProvider != null) {
+            return toolProvider;
+        }
+
+        var mcpClients = connectedClients(McpConfig.getDiscoveryBudget());
         if (mcpClients.isEmpty()) {
             out.println("⚠ No MCP clients registered, tool provider will be empty");
-            return;
+            return null;
         }
 
+        primeToolLists(mcpClients);
         toolProvider = McpToolProvider.builder()
                 .mcpClients(mcpClients.toArray(new McpClient[mcpClients.size()]))
                 .build();
 
         out.printf("✓ Tool provider initialized with %d MCP client(s)%n",
                 mcpClients.size());
+        return toolProvider;
     }
 
-    public List<ToolSpecification> getAvailableTools() {
-        var allTools = new ArrayList<ToolSpecification>();
-
-        for (var client : mcpClients) {
-            try {
-                out.printf("→ Retrieving tools from MCP server: %s%n", client.key());
-                var clientTools = client.listTools();
-                allTools.addAll(clientTools);
-                out.printf("✓ Retrieved %d tool(s) from MCP server: %s%n",
-                        clientTools.size(), client.key());
-            } catch (Exception e) {
-                err.printf("⚠ Failed to get tools from MCP server: %s - %s%n", client.key(), e.getMessage());
-                // Don't print full stack trace for common connection issues
-                if (!(e.getCause() instanceof java.net.SocketTimeoutException)) {
-                    err.printf("  Full error details: %s%n", e.toString());
-                }
-            }
+    /**
+     * Fetches each client's tool list once before the clients are shared, noting which
+     * server offers each tool. DefaultMcpClient
+     * answers {@code listTools()} with {@code null} to callers that arrive while its first fetch
+     * is still in flight, which concurrent chat turns would otherwise run into.
+     */
+    private void primeToolLists(List<McpClient> clients) {
+        var fetches = clients.stream()
+                .map(client -> CompletableFuture.runAsync(() -> {
+                    var tools = client.listTools();
+                    if (tools != null) {
+                        tools.forEach(tool -> toolServers.put(tool.name(), client.key()));
+                    }
+                }, executor))
+                .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(fetches).get(McpConfig.getDiscoveryTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // The tool provider asks again on every turn
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
-
-        out.printf("→ Retrieved %d total tool(s) from %d MCP server(s)%n",
-                allTools.size(), mcpClients.size());
-        return allTools;
     }
 
-    public McpToolProvider getToolProvider() {
-        return toolProvider;
+    private List<McpClient> connectedClients(Duration wait) {
+        try {
+            CompletableFuture.allOf(mcpServers.stream().map(McpServer::client).toArray(CompletableFuture[]::new))
+                    .get(wait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // Servers that failed or are still connecting are left out
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        var clients = new ArrayList<McpClient>();
+        for (var server : mcpServers) {
+            if (server.client().isDone() && !server.client().isCompletedExceptionally()) {
+                clients.add(server.client().join());
+            }
+        }
+        return clients;
     }
 
     public void shutdown() {
         out.println("→ Shutting down MCP tools service...");
-        mcpClients.forEach(t -> {
+        shuttingDown = true;
+        mcpServers.forEach(server -> {
+            if (!server.client().isDone() || server.client().isCompletedExceptionally()) {
+                server.client().cancel(true);
+                return;
+            }
+            var client = server.client().join();
+            if (client instanceof MemoizingMcpClient memoizingClient) {
+                memoizingClient.reportHitRates();
+            }
             try {
-                t.close();
+                client.close();
             } catch (Exception e) {
-                err.printf("✗ Failed to close MCP client %s: %s%n", t.key(), e.getMessage());
+                err.printf("✗ Failed to close MCP client %s: %s%n", client.key(), e.getMessage());
             } finally {
-                out.printf("✓ MCP client %s closed%n", t.key());
+                out.printf("✓ MCP client %s closed%n", client.key());
             }
         });
+        executor.shutdownNow();
         out.println("✓ All MCP clients closed");
     }
 
@@ -0,0 +1,158 @@
+package org.acme.client.http;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+
+import dev.langchain4j.exception.HttpException;
+import dev.langchain4j.http.client.HttpClient;
+import dev.langchain4j.http.client.HttpClientBuilder;
+import dev.langchain4j.http.client.HttpRequest;
+import dev.langchain4j.http.client.SuccessfulHttpResponse;
+import dev.langchain4j.http.client.sse.ServerSentEventListener;
+import dev.langchain4j.http.client.sse.ServerSentEventListenerUtils;
+import dev.langchain4j.http.client.sse.ServerSentEventParser;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+/**
+ * LangChain4j HTTP client on top of {@link SharedHttpClient}, so the Ollama models use the
+ * same connection pool as the MCP transports.
+ */
+public class LangChainHttpClient implements HttpClient {
+
+    private final OkHttpClient httpClient;
+    private final Runnable onRequest;
+
+    public LangChainHttpClient(OkHttpClient httpClient) {
+        this(httpClient, () -> {
+        });
+    }
+
+    public LangChainHttpClient(OkHttpClient httpClient, Runnable onRequest) {
+        this.httpClient = httpClient;
+        this.onRequest = onRequest;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public SuccessfulHttpResponse execute(HttpRequest request) throws HttpException {
+        onRequest.run();
+        try (var response = httpClient.newCall(toOkHttpRequest(request)).execute()) {
+            var body = response.body() != null ? response.body().string() : "";
+            if (!response.isSuccessful()) {
+                throw new HttpException(response.code(), body);
+            }
+            return toResponse(response, body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void execute(HttpRequest request, ServerSentEventParser parser, ServerSentEventListener listener) {
+        onRequest.run();
+        httpClient.newCall(toOkHttpRequest(request)).enqueue(new Callback() {
+
+            @Override
+            public void onFailure(Call call, IOException e) {
+                ServerSentEventListenerUtils.ignoringExceptions(() -> listener.onError(e));
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (response) {
+                    if (!response.isSuccessful()) {
+                        var error = new HttpException(response.code(), response.body() != null ? response.body().string() : "");
+                        ServerSentEventListenerUtils.ignoringExceptions(() -> listener.onError(error));
+                        return;
+                    }
+                    ServerSentEventListenerUtils.ignoringExceptions(() -> listener.onOpen(toResponse(response, null)));
+                    try (var stream = response.body().byteStream()) {
+                        parser.parse(stream, listener);
+                    }
+                    ServerSentEventListenerUtils.ignoringExceptions(listener::onClose);
+                } catch (IOException | RuntimeException e) {
+                    ServerSentEventListenerUtils.ignoringExceptions(() -> listener.onError(e));
+                }
+            }
+        });
+    }
+
+    private static Request toOkHttpRequest(HttpRequest request) {
+        var builder = new Request.Builder().url(request.url());
+        request.headers().forEach((name, values) -> values.forEach(value -> builder.addHeader(name, value)));
+        RequestBody body = null;
+        if (request.body() != null) {
+            var contentType = request.headers().entrySet().stream()
+                    .filter(header -> header.getKey().equalsIgnoreCase("Content-Type") && !header.getValue().isEmpty())
+                    .map(header -> MediaType.parse(header.getValue().get(0)))
+                    .findFirst()
+                    .orElse(null);
+            body = RequestBody.create(request.body(), contentType);
+        }
+        return builder.method(request.method().name(), body).build();
+    }
+
+    private static SuccessfulHttpResponse toResponse(Response response, String body) {
+        return SuccessfulHttpResponse.builder()
+                .statusCode(response.code())
+                .headers(response.headers().toMultimap())
+                .body(body)
+                .build();
+    }
+
+    public static class Builder implements HttpClientBuilder {
+
+        private Duration connectTimeout;
+        private Duration readTimeout;
+        private Runnable onRequest = () -> {
+        };
+
+        /**
+         * Called on the calling thread before every request, including the ones LangChain4j retries.
+         */
+        public Builder onRequest(Runnable onRequest) {
+            this.onRequest = onRequest;
+            return this;
+        }
+
+        @Override
+        public Duration connectTimeout() {
+            return connectTimeout;
+        }
+
+        @Override
+        public Builder connectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        @Override
+        public Duration readTimeout() {
+            return readTimeout;
+        }
+
+        @Override
+        public Builder readTimeout(Duration readTimeout) {
+            this.readTimeout = readTimeout;
+            return this;
+        }
+
+        @Override
+        public LangChainHttpClient build() {
+            var defaults = SharedHttpClient.get();
+            return new LangChainHttpClient(SharedHttpClient.withTimeouts(
+                    connectTimeout != null ? connectTimeout : Duration.ofMillis(defaults.connectTimeoutMillis()),
+                    readTimeout != null ? readTimeout : Duration.ofMillis(defaults.readTimeoutMillis())), onRequest);
+        }
+    }
+}
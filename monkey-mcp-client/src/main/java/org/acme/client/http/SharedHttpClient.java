@@ -0,0 +1,164 @@
+package org.acme.client.http;
+
+import static java.lang.System.out;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.acme.config.McpConfig;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Connection;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.EventListener;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * The one HTTP client stack of the process.
+ *
+ * Ollama, the Streamable HTTP MCP transports and the Ollama warm-up all derive their clients
+ * from this one, so they share one connection pool and one dispatcher thread pool. Derived
+ * clients only differ in their timeouts. HTTP/2 is negotiated with servers that offer it over
+ * TLS; plain http:// servers are spoken to over HTTP/1.1 with pooled keep-alive connections.
+ */
+public final class SharedHttpClient {
+
+    private static final ConnectionStats STATS = new ConnectionStats();
+    private static volatile OkHttpClient client;
+
+    private SharedHttpClient() {
+    }
+
+    /**
+     * Counts connections opened and calls that picked up a connection, new or pooled.
+     */
+    public static final class ConnectionStats extends EventListener {
+
+        private final LongAdder opened = new LongAdder();
+        private final LongAdder openedHttp2 = new LongAdder();
+        private final LongAdder acquired = new LongAdder();
+
+        @Override
+        public void connectEnd(Call call, InetSocketAddress address, Proxy proxy, Protocol protocol) {
+            opened.increment();
+            if (protocol == Protocol.HTTP_2) {
+                openedHttp2.increment();
+            }
+        }
+
+        @Override
+        public void connectionAcquired(Call call, Connection connection) {
+            acquired.increment();
+        }
+
+        public long opened() {
+            return opened.sum();
+        }
+
+        public long openedHttp2() {
+            return openedHttp2.sum();
+        }
+
+        public long requests() {
+            return acquired.sum();
+        }
+
+        public long reused() {
+            return Math.max(0, acquired.sum() - opened.sum());
+        }
+    }
+
+    /**
+     * The shared client, created on first use from the {@code mcp.http.*} settings.
+     */
+    public static OkHttpClient get() {
+        var current = client;
+        if (current == null) {
+            synchronized (SharedHttpClient.class) {
+                current = client;
+                if (current == null) {
+                    current = create(McpConfig.getHttpMaxIdleConnections(), McpConfig.getHttpKeepAlive(),
+                            McpConfig.getHttpMaxRequestsPerHost(), McpConfig.isHttp2Enabled());
+                    client = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * A client sharing the pool and dispatcher, with its own timeouts.
+     */
+    public static OkHttpClient withTimeouts(Duration connectTimeout, Duration readTimeout) {
+        return get().newBuilder()
+                .connectTimeout(connectTimeout)
+                .readTimeout(readTimeout)
+                .writeTimeout(readTimeout)
+                .build();
+    }
+
+    static OkHttpClient create(int maxIdleConnections, Duration keepAlive, int maxRequestsPerHost, boolean http2) {
+        // Calls run on platform threads: OkHttp blocks inside synchronized code, which would pin
+        // virtual threads to their carriers
+        var dispatcher = new Dispatcher(Executors.newCachedThreadPool(
+                Thread.ofPlatform().name("okhttp-dispatcher-", 0).daemon().factory()));
+        dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+        dispatcher.setMaxRequests(Math.max(dispatcher.getMaxRequests(), maxRequestsPerHost));
+        return new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(maxIdleConnections, keepAlive.toMillis(), TimeUnit.MILLISECONDS))
+                .dispatcher(dispatcher)
+                .protocols(http2 ? List.of(Protocol.HTTP_2, Protocol.HTTP_1_1) : List.of(Protocol.HTTP_1_1))
+                .eventListener(STATS)
+                .build();
+    }
+
+    /**
+     * Sends a request on the dispatcher. The caller must close the response.
+     */
+    public static CompletableFuture<Response> send(OkHttpClient httpClient, Request request) {
+        var future = new CompletableFuture<Response>();
+        httpClient.newCall(request).enqueue(new Callback() {
+
+            @Override
+            public void onFailure(Call call, IOException e) {
+                future.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                if (!future.complete(response)) {
+                    response.close();
+                }
+            }
+        });
+        return future;
+    }
+
+    public static ConnectionStats stats() {
+        return STATS;
+    }
+
+    /**
+     * Prints how many requests were served over new and reused connections, if any were made.
+     */
+    public static void reportStats() {
+        if (client == null || STATS.requests() == 0) {
+            return;
+        }
+        out.printf("✓ HTTP: %d request(s) over %d connection(s), %d reused (%.0f%%)%s%n",
+                STATS.requests(), STATS.opened(), STATS.reused(), 100.0 * STATS.reused() / STATS.requests(),
+                STATS.openedHttp2() > 0 ? String.format(", %d over HTTP/2", STATS.openedHttp2()) : "");
+    }
+}
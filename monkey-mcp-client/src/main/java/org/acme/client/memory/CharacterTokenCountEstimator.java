@@ -0,0 +1,54 @@
+package org.acme.client.memory;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.TokenCountEstimator;
+
+/**
+ * Token estimate for models without a tokenizer on the client side, such as local Ollama
+ * models: about four characters per token plus a small overhead per message for the role
+ * markers of the chat template. Good enough to budget memory; the exact prompt size is
+ * reported by Ollama after each turn.
+ */
+public class CharacterTokenCountEstimator implements TokenCountEstimator {
+
+    static final int CHARACTERS_PER_TOKEN = 4;
+    static final int TOKENS_PER_MESSAGE = 4;
+
+    @Override
+    public int estimateTokenCountInText(String text) {
+        return text == null ? 0 : (text.length() + CHARACTERS_PER_TOKEN - 1) / CHARACTERS_PER_TOKEN;
+    }
+
+    @Override
+    public int estimateTokenCountInMessage(ChatMessage message) {
+        var tokens = TOKENS_PER_MESSAGE;
+        if (message instanceof SystemMessage system) {
+            tokens += estimateTokenCountInText(system.text());
+        } else if (message instanceof UserMessage user) {
+            tokens += estimateTokenCountInText(user.hasSingleText() ? user.singleText() : user.contents().toString());
+        } else if (message instanceof AiMessage ai) {
+            tokens += estimateTokenCountInText(ai.text());
+            if (ai.hasToolExecutionRequests()) {
+                for (var request : ai.toolExecutionRequests()) {
+                    tokens += estimateTokenCountInText(request.name()) + estimateTokenCountInText(request.arguments());
+                }
+            }
+        } else if (message instanceof ToolExecutionResultMessage result) {
+            tokens += estimateTokenCountInText(result.text());
+        }
+        return tokens;
+    }
+
+    @Override
+    public int estimateTokenCountInMessages(Iterable<ChatMessage> messages) {
+        var tokens = 0;
+        for (var message : messages) {
+            tokens += estimateTokenCountInMessage(message);
+        }
+        return tokens;
+    }
+}
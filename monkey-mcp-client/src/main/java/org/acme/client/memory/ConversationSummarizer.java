@@ -0,0 +1,55 @@
+package org.acme.client.memory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.ChatModel;
+
+/**
+ * Folds turns that no longer fit the memory budget into a rolling summary.
+ */
+@FunctionalInterface
+public interface ConversationSummarizer {
+
+    /**
+     * @param previousSummary the current summary, or {@code null} if nothing was folded yet
+     * @param messages        the oldest turn(s), in order, to merge into it
+     * @return the new summary
+     */
+    String summarize(String previousSummary, List<ChatMessage> messages);
+
+    /**
+     * Summarizer that asks the chat model itself for a short, fact-preserving summary.
+     */
+    static ConversationSummarizer using(ChatModel chatModel) {
+        return (previousSummary, messages) -> {
+            var transcript = new StringBuilder();
+            if (previousSummary != null) {
+                transcript.append("Summary so far: ").append(previousSummary).append("\n\n");
+            }
+            for (var message : messages) {
+                if (message instanceof UserMessage user && user.hasSingleText()) {
+                    transcript.append("User: ").append(user.singleText()).append('\n');
+                } else if (message instanceof AiMessage ai && ai.text() != null) {
+                    transcript.append("Assistant: ").append(ai.text()).append('\n');
+                } else if (message instanceof ToolExecutionResultMessage result) {
+                    transcript.append("Tool ").append(result.toolName()).append(" returned: ")
+                            .append(result.text()).append('\n');
+                }
+            }
+
+            var request = new ArrayList<ChatMessage>();
+            request.add(SystemMessage.from("""
+                    Summarize the conversation below in at most five sentences for your own later reference.
+                    Keep names, numbers and facts the user asked about or was told; drop pleasantries.
+                    Reply with the summary only."""));
+            request.add(UserMessage.from(transcript.toString()));
+            return chatModel.chat(request).aiMessage().text();
+        };
+    }
+}
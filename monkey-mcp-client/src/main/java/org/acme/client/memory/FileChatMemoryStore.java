@@ -0,0 +1,314 @@
+package org.acme.client.memory;
+
+import static java.lang.System.err;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.ChatMessageDeserializer;
+import dev.langchain4j.data.message.ChatMessageSerializer;
+import dev.langchain4j.store.memory.chat.ChatMemoryStore;
+
+/**
+ * Chat memory store that keeps one append-only log file per session.
+ *
+ * Each update is written as the difference to the previous window: new messages are
+ * appended and messages evicted by the chat memory are recorded as a removal, so a turn
+ * costs a few small writes instead of rewriting the history. Once a log has grown to a
+ * multiple of its window it is compacted into a plain list of the current messages.
+ *
+ * The current window of a session in use is cached in memory, so reads are O(window).
+ * At most {@code maxCachedSessions} windows are cached; the least recently used ones are
+ * dropped and replayed from their log when used again, and a deleted session is dropped
+ * at once. Sessions lock independently; there is no store-wide lock.
+ */
+public class FileChatMemoryStore implements ChatMemoryStore {
+
+    static final int MIN_RECORDS_BEFORE_COMPACTION = 64;
+    static final int COMPACTION_FACTOR = 4;
+    static final int DEFAULT_MAX_CACHED_SESSIONS = 256;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Path directory;
+    private final int maxCachedSessions;
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+    private static final class Session {
+
+        final String name;
+        final Path file;
+        List<ChatMessage> messages;
+        int records;
+        // Set, under the session's lock, once it has left the map; holders must look it up again
+        boolean dropped;
+        volatile long lastUsed = System.nanoTime();
+
+        Session(String name, Path file) {
+            this.name = name;
+            this.file = file;
+        }
+    }
+
+    public FileChatMemoryStore(Path directory) {
+        this(directory, DEFAULT_MAX_CACHED_SESSIONS);
+    }
+
+    public FileChatMemoryStore(Path directory, int maxCachedSessions) {
+        this.directory = directory;
+        this.maxCachedSessions = maxCachedSessions;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create chat memory directory " + directory, e);
+        }
+    }
+
+    @Override
+    public List<ChatMessage> getMessages(Object memoryId) {
+        return withSession(memoryId, session -> List.copyOf(loaded(session)));
+    }
+
+    @Override
+    public void updateMessages(Object memoryId, List<ChatMessage> messages) {
+        withSession(memoryId, session -> {
+            var current = loaded(session);
+            var records = diff(current, messages);
+            if (records.isEmpty()) {
+                return null;
+            }
+
+            session.messages = new ArrayList<>(messages);
+            if (session.records + records.size() > compactionThreshold(messages.size())) {
+                compact(session);
+            } else {
+                append(session, records);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void deleteMessages(Object memoryId) {
+        withSession(memoryId, session -> {
+            try {
+                Files.deleteIfExists(session.file);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot delete chat memory " + session.file, e);
+            }
+            drop(session);
+            return null;
+        });
+    }
+
+    int cachedSessions() {
+        return sessions.size();
+    }
+
+    /**
+     * Runs an action holding the session's lock, then drops idle sessions over the bound.
+     */
+    private <T> T withSession(Object memoryId, Function<Session, T> action) {
+        var name = URLEncoder.encode(String.valueOf(memoryId), StandardCharsets.UTF_8) + ".jsonl";
+        T result;
+        while (true) {
+            var session = sessions.computeIfAbsent(name, key -> new Session(key, directory.resolve(key)));
+            synchronized (session) {
+                if (!session.dropped) {
+                    session.lastUsed = System.nanoTime();
+                    result = action.apply(session);
+                    break;
+                }
+            }
+            // Dropped between the lookup and the lock; the next lookup creates a fresh entry
+        }
+        evictIdle();
+        return result;
+    }
+
+    private void evictIdle() {
+        while (sessions.size() > maxCachedSessions) {
+            var eldest = sessions.values().stream().min(Comparator.comparingLong(session -> session.lastUsed));
+            if (eldest.isEmpty()) {
+                return;
+            }
+            synchronized (eldest.get()) {
+                drop(eldest.get());
+            }
+        }
+    }
+
+    /**
+     * Removes a session from the map. Must be called holding its lock.
+     */
+    private void drop(Session session) {
+        session.dropped = true;
+        sessions.remove(session.name, session);
+    }
+
+    /**
+     * Returns the cached window, replaying the log on first access.
+     */
+    private List<ChatMessage> loaded(Session session) {
+        if (session.messages != null) {
+            return session.messages;
+        }
+
+        var messages = new ArrayList<ChatMessage>();
+        var records = 0;
+        if (Files.exists(session.file)) {
+            try {
+                var lines = Files.readAllLines(session.file, StandardCharsets.UTF_8);
+                for (int i = 0; i < lines.size(); i++) {
+                    if (lines.get(i).isBlank()) {
+                        continue;
+                    }
+                    try {
+                        replay(messages, lines.get(i));
+                        records++;
+                    } catch (JsonProcessingException | RuntimeException e) {
+                        // Only the last write can be torn by a crash; anything earlier is real corruption
+                        if (i < lines.size() - 1) {
+                            throw new IllegalStateException("Corrupt chat memory " + session.file + " at line " + (i + 1), e);
+                        }
+                        err.printf("⚠ Ignoring incomplete last record in %s%n", session.file);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read chat memory " + session.file, e);
+            }
+        }
+
+        session.messages = messages;
+        session.records = records;
+        if (records > compactionThreshold(messages.size())) {
+            compact(session);
+        }
+        return messages;
+    }
+
+    private void replay(List<ChatMessage> messages, String line) throws JsonProcessingException {
+        var record = objectMapper.readTree(line);
+        switch (record.path("op").asText()) {
+            case "append" -> messages.add(ChatMessageDeserializer.messageFromJson(record.get("message").toString()));
+            case "remove" -> {
+                var at = record.get("at").asInt();
+                messages.subList(at, at + record.get("count").asInt()).clear();
+            }
+            default -> throw new IllegalArgumentException("Unknown chat memory record: " + line);
+        }
+    }
+
+    /**
+     * Log records turning {@code current} into {@code next}: a removal of the messages the
+     * window evicted after the longest common prefix, then appends. Anything else (e.g. an
+     * edited message) is expressed as removing everything after the prefix.
+     */
+    private List<String> diff(List<ChatMessage> current, List<ChatMessage> next) {
+        int prefix = 0;
+        while (prefix < current.size() && prefix < next.size() && current.get(prefix).equals(next.get(prefix))) {
+            prefix++;
+        }
+
+        int removed = current.size() - prefix;
+        for (int k = 0; k <= current.size() - prefix; k++) {
+            if (startsWith(next, prefix, current.subList(prefix + k, current.size()))) {
+                removed = k;
+                break;
+            }
+        }
+
+        var records = new ArrayList<String>();
+        if (removed > 0) {
+            records.add(objectMapper.createObjectNode()
+                    .put("op", "remove").put("at", prefix).put("count", removed).toString());
+        }
+        for (int i = prefix + (current.size() - prefix - removed); i < next.size(); i++) {
+            records.add(appendRecord(next.get(i)));
+        }
+        return records;
+    }
+
+    private static boolean startsWith(List<ChatMessage> list, int offset, List<ChatMessage> expected) {
+        if (list.size() - offset < expected.size()) {
+            return false;
+        }
+        return list.subList(offset, offset + expected.size()).equals(expected);
+    }
+
+    private String appendRecord(ChatMessage message) {
+        try {
+            ObjectNode record = objectMapper.createObjectNode().put("op", "append");
+            record.set("message", objectMapper.readTree(ChatMessageSerializer.messageToJson(message)));
+            return record.toString();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize chat message", e);
+        }
+    }
+
+    private void append(Session session, List<String> records) {
+        try (var channel = FileChannel.open(session.file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            write(channel, records);
+            session.records += records.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot append to chat memory " + session.file, e);
+        }
+    }
+
+    private void compact(Session session) {
+        var records = session.messages.stream().map(this::appendRecord).toList();
+        try {
+            var tmp = Files.createTempFile(directory, session.file.getFileName().toString(), ".tmp");
+            try {
+                try (var channel = FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    write(channel, records);
+                }
+                try {
+                    Files.move(tmp, session.file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tmp, session.file, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+            session.records = records.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot compact chat memory " + session.file, e);
+        }
+    }
+
+    private static void write(FileChannel channel, List<String> records) throws IOException {
+        var text = new StringBuilder();
+        records.forEach(record -> text.append(record).append('\n'));
+        var buffer = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        // The turn is only remembered once it is on disk
+        channel.force(false);
+    }
+
+    private static int compactionThreshold(int windowSize) {
+        return Math.max(MIN_RECORDS_BEFORE_COMPACTION, COMPACTION_FACTOR * windowSize);
+    }
+}
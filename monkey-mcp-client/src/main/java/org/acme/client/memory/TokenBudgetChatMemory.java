@@ -0,0 +1,268 @@
+package org.acme.client.memory;
+
+import static java.lang.System.err;
+import static java.lang.System.out;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.memory.ChatMemory;
+import dev.langchain4j.model.TokenCountEstimator;
+import dev.langchain4j.store.memory.chat.ChatMemoryStore;
+import dev.langchain4j.store.memory.chat.InMemoryChatMemoryStore;
+
+/**
+ * Chat memory bounded by an estimated token count instead of a message count.
+ *
+ * When a new message pushes the conversation over the budget, the memory first shrinks
+ * tool results of earlier turns, which are usually the largest and least reused messages,
+ * and then folds the oldest whole turns into a rolling summary kept right after the system
+ * message. The turn in progress is never shrunk or folded, so the model always sees the
+ * current question with its complete tool results.
+ */
+public class TokenBudgetChatMemory implements ChatMemory {
+
+    static final String SUMMARY_PREFIX = "[Summary of the earlier conversation] ";
+
+    private final Object id;
+    private final ChatMemoryStore store;
+    private final TokenCountEstimator estimator;
+    private final int maxTokens;
+    private final int toolResultMaxTokens;
+    private final ConversationSummarizer summarizer;
+
+    private TokenBudgetChatMemory(Builder builder) {
+        this.id = Objects.requireNonNull(builder.id, "id");
+        this.store = builder.store;
+        this.estimator = builder.estimator;
+        this.maxTokens = builder.maxTokens;
+        this.toolResultMaxTokens = builder.toolResultMaxTokens;
+        this.summarizer = builder.summarizer;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public Object id() {
+        return id;
+    }
+
+    @Override
+    public void add(ChatMessage message) {
+        var messages = new ArrayList<>(store.getMessages(id));
+        if (message instanceof SystemMessage) {
+            var existing = messages.stream().filter(SystemMessage.class::isInstance).findFirst();
+            if (existing.isPresent()) {
+                if (existing.get().equals(message)) {
+                    return;
+                }
+                messages.remove(existing.get());
+            }
+            messages.addFirst(message);
+        } else {
+            messages.add(message);
+        }
+
+        enforceBudget(messages);
+        store.updateMessages(id, messages);
+    }
+
+    @Override
+    public List<ChatMessage> messages() {
+        return store.getMessages(id);
+    }
+
+    @Override
+    public void clear() {
+        store.deleteMessages(id);
+    }
+
+    /**
+     * Estimated size of the messages currently remembered, in tokens.
+     */
+    public int estimatedTokens() {
+        return estimator.estimateTokenCountInMessages(messages());
+    }
+
+    private void enforceBudget(List<ChatMessage> messages) {
+        var before = estimator.estimateTokenCountInMessages(messages);
+        if (before <= maxTokens) {
+            return;
+        }
+
+        truncateEarlierToolResults(messages);
+
+        var foldedMessages = 0;
+        while (estimator.estimateTokenCountInMessages(messages) > maxTokens) {
+            var folded = foldOldestTurns(messages);
+            if (folded == 0) {
+                break;
+            }
+            foldedMessages += folded;
+        }
+
+        if (foldedMessages > 0) {
+            out.printf("↻ Folded %d earlier message(s) out of the chat memory (%d → %d tokens)%n",
+                    foldedMessages, before, estimator.estimateTokenCountInMessages(messages));
+        }
+    }
+
+    private void truncateEarlierToolResults(List<ChatMessage> messages) {
+        var maxCharacters = (int) Math.min(Integer.MAX_VALUE,
+                (long) toolResultMaxTokens * CharacterTokenCountEstimator.CHARACTERS_PER_TOKEN);
+        var currentTurn = currentTurnStart(messages);
+        for (int i = 0; i < currentTurn; i++) {
+            if (messages.get(i) instanceof ToolExecutionResultMessage result && result.text().length() > maxCharacters) {
+                var kept = result.text().substring(0, maxCharacters);
+                var dropped = estimator.estimateTokenCountInText(result.text()) - estimator.estimateTokenCountInText(kept);
+                messages.set(i, ToolExecutionResultMessage.from(result.id(), result.toolName(),
+                        kept + "… [truncated, " + dropped + " more tokens]"));
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest turns that together bring the conversation under budget and merges
+     * them into the summary. Returns the number of messages removed, 0 if only the current
+     * turn is left.
+     */
+    private int foldOldestTurns(List<ChatMessage> messages) {
+        var summaryIndex = summaryIndex(messages);
+        var firstTurn = summaryIndex >= 0 ? summaryIndex + 1 : firstNonSystem(messages);
+        var currentTurn = currentTurnStart(messages);
+        if (firstTurn >= currentTurn) {
+            return 0;
+        }
+
+        var excess = estimator.estimateTokenCountInMessages(messages) - maxTokens;
+        var end = firstTurn;
+        var freed = 0;
+        do {
+            var next = nextTurnStart(messages, end, currentTurn);
+            freed += estimator.estimateTokenCountInMessages(messages.subList(end, next));
+            end = next;
+        } while (freed < excess && end < currentTurn);
+
+        var turns = new ArrayList<>(messages.subList(firstTurn, end));
+        messages.subList(firstTurn, end).clear();
+
+        var previousSummary = summaryIndex >= 0 ? summaryText(messages.get(summaryIndex)) : null;
+        String summary;
+        try {
+            summary = summarizer.summarize(previousSummary, turns);
+        } catch (RuntimeException e) {
+            err.printf("⚠ Could not summarize earlier turns, dropping them: %s%n", e.getMessage());
+            return turns.size();
+        }
+
+        if (summary == null || summary.isBlank()) {
+            return turns.size();
+        }
+        var summaryMessage = UserMessage.from(SUMMARY_PREFIX + summary.strip());
+        if (summaryIndex >= 0) {
+            messages.set(summaryIndex, summaryMessage);
+        } else {
+            messages.add(firstTurn, summaryMessage);
+        }
+        return turns.size();
+    }
+
+    private static int firstNonSystem(List<ChatMessage> messages) {
+        return !messages.isEmpty() && messages.getFirst() instanceof SystemMessage ? 1 : 0;
+    }
+
+    /**
+     * Index of the user message that opened the turn in progress.
+     */
+    private static int currentTurnStart(List<ChatMessage> messages) {
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            if (isQuestion(messages.get(i))) {
+                return i;
+            }
+        }
+        return messages.size();
+    }
+
+    private static int nextTurnStart(List<ChatMessage> messages, int from, int limit) {
+        for (int i = from + 1; i < limit; i++) {
+            if (isQuestion(messages.get(i))) {
+                return i;
+            }
+        }
+        return limit;
+    }
+
+    private static int summaryIndex(List<ChatMessage> messages) {
+        for (int i = 0; i < messages.size(); i++) {
+            if (summaryText(messages.get(i)) != null) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isQuestion(ChatMessage message) {
+        return message instanceof UserMessage && summaryText(message) == null;
+    }
+
+    private static String summaryText(ChatMessage message) {
+        if (message instanceof UserMessage user && user.hasSingleText() && user.singleText().startsWith(SUMMARY_PREFIX)) {
+            return user.singleText().substring(SUMMARY_PREFIX.length());
+        }
+        return null;
+    }
+
+    public static class Builder {
+
+        private Object id;
+        private ChatMemoryStore store = new InMemoryChatMemoryStore();
+        private TokenCountEstimator estimator = new CharacterTokenCountEstimator();
+        private int maxTokens;
+        private int toolResultMaxTokens = Integer.MAX_VALUE;
+        private ConversationSummarizer summarizer = (previousSummary, messages) -> previousSummary;
+
+        public Builder id(Object id) {
+            this.id = id;
+            return this;
+        }
+
+        public Builder chatMemoryStore(ChatMemoryStore store) {
+            this.store = store;
+            return this;
+        }
+
+        public Builder tokenCountEstimator(TokenCountEstimator estimator) {
+            this.estimator = estimator;
+            return this;
+        }
+
+        public Builder maxTokens(int maxTokens) {
+            this.maxTokens = maxTokens;
+            return this;
+        }
+
+        public Builder toolResultMaxTokens(int toolResultMaxTokens) {
+            this.toolResultMaxTokens = toolResultMaxTokens;
+            return this;
+        }
+
+        public Builder summarizer(ConversationSummarizer summarizer) {
+            this.summarizer = summarizer;
+            return this;
+        }
+
+        public TokenBudgetChatMemory build() {
+            if (maxTokens <= 0) {
+                throw new IllegalArgumentException("maxTokens must be positive: " + maxTokens);
+            }
+            return new TokenBudgetChatMemory(this);
+        }
+    }
+}
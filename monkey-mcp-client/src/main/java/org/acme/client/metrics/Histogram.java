@@ -0,0 +1,84 @@
+package org.acme.client.metrics;
+
+import java.util.Arrays;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Fixed-bucket histogram of non-negative values, such as milliseconds or token counts.
+ *
+ * Buckets follow a 1-2-5 series up to 500,000 plus an overflow bucket, so memory stays
+ * constant however many values are recorded. Percentiles are interpolated linearly within
+ * the bucket they fall in and kept between the smallest and largest value seen.
+ */
+public class Histogram {
+
+    static final long[] BOUNDS = {
+            1, 2, 5, 10, 20, 50, 100, 200, 500, 1_000, 2_000, 5_000, 10_000, 20_000, 50_000,
+            100_000, 200_000, 500_000 };
+
+    private final long[] counts = new long[BOUNDS.length + 1];
+    private long count;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    public synchronized void record(long value) {
+        var index = Arrays.binarySearch(BOUNDS, Math.max(0, value));
+        counts[index >= 0 ? index : -index - 1]++;
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    public synchronized long count() {
+        return count;
+    }
+
+    public synchronized long max() {
+        return max;
+    }
+
+    public synchronized double mean() {
+        return count > 0 ? (double) sum / count : 0;
+    }
+
+    public synchronized long percentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        var rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+        var seen = 0L;
+        for (int i = 0; i < counts.length; i++) {
+            if (seen + counts[i] >= rank) {
+                var lower = i > 0 ? BOUNDS[i - 1] : 0;
+                var upper = i < BOUNDS.length ? BOUNDS[i] : max;
+                var value = lower + Math.round((double) (upper - lower) * (rank - seen) / counts[i]);
+                return Math.max(min, Math.min(max, value));
+            }
+            seen += counts[i];
+        }
+        return max;
+    }
+
+    public synchronized ObjectNode toJson(ObjectMapper objectMapper) {
+        var json = objectMapper.createObjectNode()
+                .put("count", count)
+                .put("mean", mean())
+                .put("p50", percentile(50))
+                .put("p95", percentile(95))
+                .put("p99", percentile(99))
+                .put("max", max);
+        var buckets = json.putArray("buckets");
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                buckets.addObject()
+                        .put("le", i < BOUNDS.length ? String.valueOf(BOUNDS[i]) : "+Inf")
+                        .put("count", counts[i]);
+            }
+        }
+        return json;
+    }
+}
@@ -0,0 +1,220 @@
+package org.acme.client.metrics;
+
+import static java.lang.System.err;
+import static java.lang.System.out;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.acme.client.ToolResults;
+import org.acme.client.http.SharedHttpClient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import dev.langchain4j.model.chat.listener.ChatModelErrorContext;
+import dev.langchain4j.model.chat.listener.ChatModelListener;
+import dev.langchain4j.model.chat.listener.ChatModelRequestContext;
+import dev.langchain4j.model.chat.listener.ChatModelResponseContext;
+import dev.langchain4j.service.tool.ToolProvider;
+import dev.langchain4j.service.tool.ToolProviderResult;
+
+/**
+ * Breaks each chat turn down into model time, tool time per server and tool, tokens and
+ * retries, and keeps histograms of them over the session.
+ *
+ * A turn is bound to the thread that runs it between {@link #begin} and {@link #end}. Threads
+ * started from it, such as the ones running concurrent tool calls, inherit the turn. Streamed
+ * turns continue on HTTP client threads, so the one streamed turn in progress is also kept
+ * aside for them.
+ */
+public class PerformanceRecorder implements ChatModelListener {
+
+    private static final String TURN = PerformanceRecorder.class.getName() + ".turn";
+    private static final String STARTED = PerformanceRecorder.class.getName() + ".started";
+    private static final int MAX_EXPORTED_TURNS = 1000;
+
+    private final InheritableThreadLocal<TurnMetrics> current = new InheritableThreadLocal<>();
+    private volatile TurnMetrics streamed;
+    private final Deque<TurnMetrics> turns = new ArrayDeque<>();
+    private final Histogram turnMillis = new Histogram();
+    private final Histogram modelMillis = new Histogram();
+    private final Histogram promptTokens = new Histogram();
+    private final Histogram completionTokens = new Histogram();
+    private final Map<String, Histogram> toolMillis = new ConcurrentHashMap<>();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder toolFailures = new LongAdder();
+
+    /**
+     * Starts a turn on the calling thread.
+     */
+    public TurnMetrics begin(String kind, boolean streaming) {
+        var turn = new TurnMetrics(kind, SharedHttpClient.stats().opened());
+        current.set(turn);
+        if (streaming) {
+            streamed = turn;
+        }
+        return turn;
+    }
+
+    /**
+     * Ends a turn begun on the calling thread and adds it to the session's histograms.
+     */
+    public void end(TurnMetrics turn) {
+        turn.finish(SharedHttpClient.stats().opened());
+        if (current.get() == turn) {
+            current.remove();
+        }
+        if (streamed == turn) {
+            streamed = null;
+        }
+        turnMillis.record(turn.wallTime().toMillis());
+        promptTokens.record(turn.promptTokens());
+        completionTokens.record(turn.completionTokens());
+        retries.add(turn.retries());
+        synchronized (turns) {
+            turns.addLast(turn);
+            if (turns.size() > MAX_EXPORTED_TURNS) {
+                turns.removeFirst();
+            }
+        }
+    }
+
+    private TurnMetrics current() {
+        var turn = current.get();
+        if (turn != null && !turn.isFinished()) {
+            return turn;
+        }
+        var fallback = streamed;
+        return fallback != null && !fallback.isFinished() ? fallback : null;
+    }
+
+    /**
+     * Counts an HTTP request to the model, including the ones LangChain4j retries.
+     */
+    public void modelRequestSent() {
+        var turn = current();
+        if (turn != null) {
+            turn.modelRequestSent();
+        }
+    }
+
+    @Override
+    public void onRequest(ChatModelRequestContext context) {
+        context.attributes().put(STARTED, System.nanoTime());
+        var turn = current();
+        if (turn != null) {
+            context.attributes().put(TURN, turn);
+        }
+    }
+
+    @Override
+    public void onResponse(ChatModelResponseContext context) {
+        var nanos = elapsed(context.attributes());
+        modelMillis.record(TurnMetrics.millis(nanos));
+        if (context.attributes().get(TURN) instanceof TurnMetrics turn) {
+            var usage = context.chatResponse().tokenUsage();
+            turn.modelCall(nanos, usage != null ? usage.inputTokenCount() : null,
+                    usage != null ? usage.outputTokenCount() : null);
+        }
+    }
+
+    @Override
+    public void onError(ChatModelErrorContext context) {
+        var nanos = elapsed(context.attributes());
+        if (context.attributes().get(TURN) instanceof TurnMetrics turn) {
+            turn.modelError(nanos);
+        }
+    }
+
+    private static long elapsed(Map<Object, Object> attributes) {
+        return attributes.get(STARTED) instanceof Long started ? System.nanoTime() - started : 0;
+    }
+
+    /**
+     * Tool provider whose executors time each call under the server that offers the tool.
+     */
+    public ToolProvider wrap(ToolProvider delegate, Function<String, String> serverOf) {
+        return request -> {
+            var tools = new LinkedHashMap<>(delegate.provideTools(request).tools());
+            tools.replaceAll((tool, toolExecutor) -> (toolRequest, memoryId) -> {
+                var turn = current();
+                var started = System.nanoTime();
+                var failed = true;
+                try {
+                    var result = toolExecutor.execute(toolRequest, memoryId);
+                    failed = ToolResults.isFailure(result);
+                    return result;
+                } finally {
+                    var call = new TurnMetrics.ToolCall(serverOf.apply(tool.name()), tool.name(),
+                            System.nanoTime() - started, failed);
+                    toolMillis.computeIfAbsent(call.name(), name -> new Histogram()).record(TurnMetrics.millis(call.nanos()));
+                    if (failed) {
+                        toolFailures.increment();
+                    }
+                    if (turn != null) {
+                        turn.toolCall(call);
+                    }
+                }
+            });
+            return new ToolProviderResult(tools);
+        };
+    }
+
+    /**
+     * Prints percentiles of turn, model and tool times over the session, if any turn was recorded.
+     */
+    public void printSummary() {
+        if (turnMillis.count() == 0) {
+            return;
+        }
+        out.printf("✓ Latency: %d turn(s), turn p50 %d ms / p95 %d ms · model p50 %d ms / p95 %d ms over %d call(s) · %d retr%s%n",
+                turnMillis.count(), turnMillis.percentile(50), turnMillis.percentile(95),
+                modelMillis.percentile(50), modelMillis.percentile(95), modelMillis.count(),
+                retries.sum(), retries.sum() == 1 ? "y" : "ies");
+        new TreeMap<>(toolMillis).forEach((tool, histogram) ->
+                out.printf("   🔧 %-40s %4d call(s), p50 %d ms / p95 %d ms / max %d ms%n", tool,
+                        histogram.count(), histogram.percentile(50), histogram.percentile(95), histogram.max()));
+        if (toolFailures.sum() > 0) {
+            out.printf("   ⚠ %d tool call(s) failed%n", toolFailures.sum());
+        }
+    }
+
+    /**
+     * Writes the session's histograms and its most recent turns to a JSON file.
+     */
+    public void export(Path file) {
+        var objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        var json = objectMapper.createObjectNode();
+        var histograms = json.putObject("histograms");
+        histograms.set("turnMs", turnMillis.toJson(objectMapper));
+        histograms.set("modelMs", modelMillis.toJson(objectMapper));
+        histograms.set("promptTokens", promptTokens.toJson(objectMapper));
+        histograms.set("completionTokens", completionTokens.toJson(objectMapper));
+        var tools = histograms.putObject("toolMs");
+        new TreeMap<>(toolMillis).forEach((tool, histogram) -> tools.set(tool, histogram.toJson(objectMapper)));
+        var exported = json.putArray("turns");
+        synchronized (turns) {
+            turns.forEach(turn -> exported.add(turn.toJson(objectMapper)));
+        }
+
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            objectMapper.writeValue(file.toFile(), json);
+            out.printf("✓ Latency metrics written to %s%n", file);
+        } catch (IOException e) {
+            err.printf("⚠ Failed to write latency metrics to %s: %s%n", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package org.acme.client.metrics;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Where the time of one chat turn went: model calls, tool calls and HTTP retries.
+ *
+ * Filled in from the thread running the turn and from the threads its tool calls run on.
+ */
+public class TurnMetrics {
+
+    private final String kind;
+    private final long started = System.nanoTime();
+    private final long connectionsAtStart;
+    private final List<ToolCall> toolCalls = new ArrayList<>();
+    private long modelNanos;
+    private int modelCalls;
+    private int modelErrors;
+    private int modelRequests;
+    private long promptTokens;
+    private long completionTokens;
+    private long wallNanos;
+    private long connectionsOpened;
+
+    /**
+     * One tool call, timed where it ran, so calls that ran concurrently overlap.
+     */
+    public record ToolCall(String server, String tool, long nanos, boolean failed) {
+
+        public String name() {
+            return server + "/" + tool;
+        }
+    }
+
+    TurnMetrics(String kind, long connectionsAtStart) {
+        this.kind = kind;
+        this.connectionsAtStart = connectionsAtStart;
+    }
+
+    synchronized void modelCall(long nanos, Integer promptTokens, Integer completionTokens) {
+        modelCalls++;
+        modelNanos += nanos;
+        this.promptTokens += promptTokens != null ? promptTokens : 0;
+        this.completionTokens += completionTokens != null ? completionTokens : 0;
+    }
+
+    synchronized void modelError(long nanos) {
+        modelErrors++;
+        modelNanos += nanos;
+    }
+
+    synchronized void modelRequestSent() {
+        modelRequests++;
+    }
+
+    synchronized void toolCall(ToolCall call) {
+        toolCalls.add(call);
+    }
+
+    synchronized void finish(long connectionsAtEnd) {
+        wallNanos = System.nanoTime() - started;
+        connectionsOpened = connectionsAtEnd - connectionsAtStart;
+    }
+
+    synchronized boolean isFinished() {
+        return wallNanos > 0;
+    }
+
+    public String kind() {
+        return kind;
+    }
+
+    public synchronized Duration wallTime() {
+        return Duration.ofNanos(wallNanos);
+    }
+
+    public synchronized Duration modelTime() {
+        return Duration.ofNanos(modelNanos);
+    }
+
+    public synchronized int modelCalls() {
+        return modelCalls + modelErrors;
+    }
+
+    /**
+     * HTTP requests to the model beyond one per call, i.e. attempts LangChain4j retried.
+     */
+    public synchronized int retries() {
+        return Math.max(0, modelRequests - modelCalls - modelErrors);
+    }
+
+    public synchronized long promptTokens() {
+        return promptTokens;
+    }
+
+    public synchronized long completionTokens() {
+        return completionTokens;
+    }
+
+    public synchronized long connectionsOpened() {
+        return connectionsOpened;
+    }
+
+    public synchronized List<ToolCall> toolCalls() {
+        return List.copyOf(toolCalls);
+    }
+
+    /**
+     * One line saying where the turn's time went, e.g.
+     * {@code model 850 ms in 2 call(s) · monkeymcp/get_monkey 3× max 120 ms · 0 retries}.
+     * Tools called several times show their slowest call, since calls of one reply overlap.
+     */
+    public synchronized String breakdown() {
+        var line = new StringBuilder()
+                .append("model ").append(millis(modelNanos)).append(" ms in ").append(modelCalls()).append(" call(s)");
+        toolCalls.stream()
+                .collect(Collectors.groupingBy(ToolCall::name, LinkedHashMap::new, Collectors.toList()))
+                .forEach((tool, calls) -> {
+                    var slowest = calls.stream().mapToLong(ToolCall::nanos).max().orElse(0);
+                    line.append(" · ").append(tool).append(' ');
+                    if (calls.size() > 1) {
+                        line.append(calls.size()).append("× max ");
+                    }
+                    line.append(millis(slowest)).append(" ms");
+                });
+        line.append(" · ").append(retries()).append(" retr").append(retries() == 1 ? "y" : "ies");
+        if (connectionsOpened > 0) {
+            line.append(" · ").append(connectionsOpened).append(" new connection(s)");
+        }
+        return line.toString();
+    }
+
+    synchronized ObjectNode toJson(ObjectMapper objectMapper) {
+        var json = objectMapper.createObjectNode()
+                .put("kind", kind)
+                .put("wallMs", millis(wallNanos))
+                .put("modelMs", millis(modelNanos))
+                .put("modelCalls", modelCalls())
+                .put("modelErrors", modelErrors)
+                .put("retries", retries())
+                .put("promptTokens", promptTokens)
+                .put("completionTokens", completionTokens)
+                .put("connectionsOpened", connectionsOpened);
+        var tools = json.putArray("toolCalls");
+        for (var call : toolCalls) {
+            tools.addObject()
+                    .put("server", call.server())
+                    .put("tool", call.tool())
+                    .put("ms", millis(call.nanos()))
+                    .put("failed", call.failed());
+        }
+        return json;
+    }
+
+    static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
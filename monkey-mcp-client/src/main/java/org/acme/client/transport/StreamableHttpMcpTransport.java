@@ -0,0 +1,327 @@
+package org.acme.client.transport;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import org.acme.client.http.SharedHttpClient;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.langchain4j.mcp.client.protocol.InitializationNotification;
+import dev.langchain4j.mcp.client.protocol.McpClientMessage;
+import dev.langchain4j.mcp.client.protocol.McpInitializeRequest;
+import dev.langchain4j.mcp.client.transport.McpOperationHandler;
+import dev.langchain4j.mcp.client.transport.McpTransport;
+import okhttp3.Call;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.BufferedSource;
+
+/**
+ * MCP transport for the Streamable HTTP protocol (spec 2025-03-26).
+ * Every message is a plain POST to a single endpoint and the server answers on
+ * the same response, either as JSON or as a short-lived SSE stream. Requests go
+ * through the pooled {@link SharedHttpClient}, so consecutive calls reuse a
+ * kept-alive connection.
+ *
+ * Once initialized, the transport also opens the GET stream on which the server
+ * sends messages of its own, such as {@code notifications/tools/list_changed}.
+ * A server that offers no such stream answers 405 and is not asked again; a
+ * stream the server ends is reopened after {@link #STREAM_REOPEN_DELAY}.
+ */
+public class StreamableHttpMcpTransport implements McpTransport {
+
+    private static final String SESSION_HEADER = "Mcp-Session-Id";
+    private static final MediaType JSON = MediaType.get("application/json");
+    static final Duration STREAM_REOPEN_DELAY = Duration.ofSeconds(1);
+
+    /**
+     * Receives the data of one server-sent event.
+     */
+    @FunctionalInterface
+    interface EventHandler {
+        void handle(String data) throws IOException;
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpUrl url;
+    private final OkHttpClient httpClient;
+    // Same pool, but no read timeout: the notification stream may stay quiet for any time
+    private final OkHttpClient streamClient;
+    private volatile McpOperationHandler operationHandler;
+    private volatile String sessionId;
+    private volatile Thread listener;
+    private volatile Call notificationStream;
+    private volatile boolean closed;
+    private volatile Runnable onFailure = () -> {
+    };
+
+    public StreamableHttpMcpTransport(Builder builder) {
+        if (builder.url == null) {
+            throw new IllegalArgumentException("Missing MCP endpoint URL");
+        }
+        this.url = HttpUrl.get(builder.url);
+        var timeout = builder.timeout != null ? builder.timeout : Duration.ofSeconds(60);
+        this.httpClient = SharedHttpClient.withTimeouts(timeout, timeout);
+        this.streamClient = SharedHttpClient.withTimeouts(timeout, Duration.ZERO);
+    }
+
+    @Override
+    public void start(McpOperationHandler operationHandler) {
+        this.operationHandler = operationHandler;
+    }
+
+    @Override
+    public CompletableFuture<JsonNode> initialize(McpInitializeRequest request) {
+        return execute(request, request.getId())
+                .thenCompose(response -> execute(new InitializationNotification(), null)
+                        .thenApply(ignored -> {
+                            openNotificationStream();
+                            return response;
+                        }));
+    }
+
+    @Override
+    public CompletableFuture<JsonNode> executeOperationWithResponse(McpClientMessage request) {
+        return execute(request, request.getId());
+    }
+
+    @Override
+    public void executeOperationWithoutResponse(McpClientMessage request) {
+        execute(request, null);
+    }
+
+    @Override
+    public void checkHealth() {
+        // Nothing to check: there is no long-lived channel, every call opens its own exchange
+    }
+
+    @Override
+    public void onFailure(Runnable actionOnFailure) {
+        this.onFailure = actionOnFailure;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        var stream = notificationStream;
+        if (stream != null) {
+            stream.cancel();
+        }
+        var currentSession = sessionId;
+        if (currentSession == null) {
+            return;
+        }
+        var request = new Request.Builder()
+                .url(url)
+                .header(SESSION_HEADER, currentSession)
+                .delete()
+                .build();
+        try {
+            httpClient.newCall(request).execute().close();
+        } finally {
+            sessionId = null;
+        }
+    }
+
+    private CompletableFuture<JsonNode> execute(McpClientMessage message, Long id) {
+        var future = new CompletableFuture<JsonNode>();
+        Request request;
+        try {
+            request = createRequest(message);
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (id != null) {
+            operationHandler.startOperation(id, future);
+        }
+
+        SharedHttpClient.send(httpClient, request)
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        future.completeExceptionally(error);
+                        return;
+                    }
+                    try (response) {
+                        handleResponse(response, id, future);
+                    }
+                });
+        return future;
+    }
+
+    private void handleResponse(Response response, Long id, CompletableFuture<JsonNode> future) {
+        int status = response.code();
+        if (status == 404 && sessionId != null) {
+            // The server dropped our session; let the client re-initialize
+            sessionId = null;
+            future.completeExceptionally(new IllegalStateException("MCP session expired"));
+            onFailure.run();
+            return;
+        }
+        if (status < 200 || status >= 300) {
+            future.completeExceptionally(new IllegalStateException("Unexpected status code: " + status));
+            return;
+        }
+
+        var session = response.header(SESSION_HEADER);
+        if (session != null) {
+            sessionId = session;
+        }
+
+        try {
+            var contentType = response.header("Content-Type", "");
+            if (contentType.startsWith("text/event-stream")) {
+                readEvents(response.body().source(), this::handleMessage);
+            } else {
+                handleMessage(response.body() != null ? response.body().string() : "");
+            }
+        } catch (IOException e) {
+            future.completeExceptionally(e);
+            return;
+        }
+
+        if (id == null) {
+            future.complete(null);
+        } else if (!future.isDone()) {
+            future.completeExceptionally(new IllegalStateException("No response received for request " + id));
+        }
+    }
+
+    private void handleMessage(String message) throws IOException {
+        if (!message.isBlank()) {
+            operationHandler.handle(objectMapper.readTree(message));
+        }
+    }
+
+    /**
+     * Opens the server's notification stream on a thread of its own, replacing any stream
+     * of an earlier session. The stream does not hold a slot of the shared dispatcher.
+     */
+    private void openNotificationStream() {
+        var thread = new Thread(this::listen, "mcp-notifications-" + url.host() + ":" + url.port());
+        thread.setDaemon(true);
+        listener = thread;
+        var previous = notificationStream;
+        if (previous != null) {
+            previous.cancel();
+        }
+        thread.start();
+    }
+
+    private boolean listening() {
+        return !closed && listener == Thread.currentThread();
+    }
+
+    private void listen() {
+        while (listening()) {
+            var builder = new Request.Builder()
+                    .url(url)
+                    .header("Accept", "text/event-stream")
+                    .get();
+            var currentSession = sessionId;
+            if (currentSession != null) {
+                builder.header(SESSION_HEADER, currentSession);
+            }
+            var call = streamClient.newCall(builder.build());
+            notificationStream = call;
+            if (!listening()) {
+                return;
+            }
+
+            try (var response = call.execute()) {
+                // 405 is how a server says it offers no stream; other failures end it for this session
+                if (!response.isSuccessful()
+                        || !response.header("Content-Type", "").startsWith("text/event-stream")) {
+                    return;
+                }
+                readEvents(response.body().source(), this::handleMessage);
+            } catch (IOException e) {
+                // Cancelled on close, or the server went away; the next call finds out which
+                return;
+            }
+
+            if (call.isCanceled() || !listening()) {
+                return;
+            }
+            try {
+                Thread.sleep(STREAM_REOPEN_DELAY);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Reads server-sent events until the stream ends and passes the data of each on. As the
+     * SSE spec requires, the {@code data} lines of one event are joined with newlines, an
+     * event ends at an empty line, comments and other fields are skipped, and an event the
+     * stream ends in the middle of is dropped.
+     */
+    static void readEvents(BufferedSource source, EventHandler handler) throws IOException {
+        var data = new StringBuilder();
+        var hasData = false;
+        String line;
+        while ((line = source.readUtf8Line()) != null) {
+            if (line.isEmpty()) {
+                if (hasData) {
+                    handler.handle(data.toString());
+                }
+                data.setLength(0);
+                hasData = false;
+                continue;
+            }
+            var colon = line.indexOf(':');
+            if (colon == 0 || !"data".equals(colon < 0 ? line : line.substring(0, colon))) {
+                continue;
+            }
+            var value = colon < 0 ? "" : line.substring(colon + 1);
+            if (hasData) {
+                data.append('\n');
+            }
+            data.append(value.startsWith(" ") ? value.substring(1) : value);
+            hasData = true;
+        }
+    }
+
+    private Request createRequest(McpClientMessage message) throws JsonProcessingException {
+        var builder = new Request.Builder()
+                .url(url)
+                .header("Accept", "application/json, text/event-stream")
+                .post(RequestBody.create(objectMapper.writeValueAsBytes(message), JSON));
+        var currentSession = sessionId;
+        if (currentSession != null) {
+            builder.header(SESSION_HEADER, currentSession);
+        }
+        return builder.build();
+    }
+
+    public static class Builder {
+
+        private String url;
+        private Duration timeout;
+
+        /**
+         * The MCP endpoint, for example http://localhost:8080/mcp
+         */
+        public Builder url(String url) {
+            this.url = url;
+            return this;
+        }
+
+        public Builder timeout(Duration timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+
+        public StreamableHttpMcpTransport build() {
+            return new StreamableHttpMcpTransport(this);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package org.acme.client.transport;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import dev.langchain4j.mcp.client.protocol.McpClientMessage;
+import dev.langchain4j.mcp.client.protocol.McpInitializeRequest;
+import dev.langchain4j.mcp.client.transport.McpOperationHandler;
+import dev.langchain4j.mcp.client.transport.McpTransport;
+
+/**
+ * Decorates any MCP transport to report {@code notifications/tools/list_changed} from the
+ * server. The MCP client only uses that notification to refresh its own in-memory tool list,
+ * so this is how state kept outside the client (like the on-disk tool cache) hears about it.
+ */
+public class ToolListChangeAwareTransport implements McpTransport {
+
+    private static final String TOOLS_LIST_CHANGED = "notifications/tools/list_changed";
+
+    private final McpTransport delegate;
+    private final Runnable onToolListChanged;
+
+    public ToolListChangeAwareTransport(McpTransport delegate, Runnable onToolListChanged) {
+        this.delegate = delegate;
+        this.onToolListChanged = onToolListChanged;
+    }
+
+    @Override
+    public void start(McpOperationHandler operationHandler) {
+        delegate.start(new NotifyingOperationHandler(operationHandler, this, onToolListChanged));
+    }
+
+    @Override
+    public CompletableFuture<JsonNode> initialize(McpInitializeRequest request) {
+        return delegate.initialize(request);
+    }
+
+    @Override
+    public CompletableFuture<JsonNode> executeOperationWithResponse(McpClientMessage request) {
+        return delegate.executeOperationWithResponse(request);
+    }
+
+    @Override
+    public void executeOperationWithoutResponse(McpClientMessage request) {
+        delegate.executeOperationWithoutResponse(request);
+    }
+
+    @Override
+    public void checkHealth() {
+        delegate.checkHealth();
+    }
+
+    @Override
+    public void onFailure(Runnable actionOnFailure) {
+        delegate.onFailure(actionOnFailure);
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+    private static class NotifyingOperationHandler extends McpOperationHandler {
+
+        private final McpOperationHandler delegate;
+        private final Runnable onToolListChanged;
+
+        NotifyingOperationHandler(McpOperationHandler delegate, McpTransport transport, Runnable onToolListChanged) {
+            super(Map.of(), transport, message -> {
+            }, onToolListChanged);
+            this.delegate = delegate;
+            this.onToolListChanged = onToolListChanged;
+        }
+
+        @Override
+        public void handle(JsonNode message) {
+            if (TOOLS_LIST_CHANGED.equals(message.path("method").asText())) {
+                onToolListChanged.run();
+            }
+            delegate.handle(message);
+        }
+
+        @Override
+        public void startOperation(Long id, CompletableFuture<JsonNode> future) {
+            delegate.startOperation(id, future);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package org.acme.command;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.acme.McpClientApplication;
+import org.acme.client.ChatService;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.ParentCommand;
+
+@Command(name = "ask", mixinStandardHelpOptions = true,
+         description = "Answer questions from a file or stdin without a chat session and write the results as JSON lines")
+public class AskCommand implements Runnable {
+
+    @ParentCommand
+    McpClientApplication app;
+
+    @Option(names = {"-i", "--input"},
+            description = "File with one question per line, as plain text or JSON with \"prompt\" and optional \"id\" (default: stdin)")
+    Path input;
+
+    @Option(names = {"-o", "--output"}, description = "File the JSON lines results are written to (default: stdout)")
+    Path output;
+
+    @Option(names = {"-p", "--parallelism"}, defaultValue = "4",
+            description = "Number of questions answered at the same time (default: ${DEFAULT-VALUE})")
+    int parallelism;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private record Question(int index, String id, String prompt) {
+    }
+
+    @Override
+    public void run() {
+        if (parallelism < 1) {
+            System.err.println("✗ --parallelism must be at least 1");
+            return;
+        }
+
+        // Results own stdout; everything the services print goes to stderr
+        var stdout = System.out;
+        System.setOut(System.err);
+        PrintStream results = null;
+        try {
+            results = output != null
+                    ? new PrintStream(Files.newOutputStream(output), false, StandardCharsets.UTF_8)
+                    : stdout;
+            var chatService = app.context().chat();
+            if (!chatService.isAvailable()) {
+                System.err.println("✗ Chat service is not available. Please check the Ollama model connection.");
+                return;
+            }
+            answerAll(chatService, results);
+        } catch (IOException e) {
+            System.err.println("✗ Cannot write results: " + e.getMessage());
+        } finally {
+            if (results != null && results != stdout) {
+                results.close();
+            }
+            // Shut down while stdout still points at stderr, so the results stay clean
+            app.context().close();
+            System.setOut(stdout);
+        }
+    }
+
+    private void answerAll(ChatService chatService, PrintStream results) throws IOException {
+        var started = System.nanoTime();
+        var latencies = Collections.synchronizedList(new ArrayList<Long>());
+        var failed = new AtomicInteger();
+        var permits = new Semaphore(parallelism);
+        var count = 0;
+
+        try (var reader = open();
+                var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                var question = parse(++count, line);
+                permits.acquireUninterruptibly();
+                executor.submit(() -> {
+                    try {
+                        var result = answer(chatService, question);
+                        latencies.add(result.get("latencyMs").asLong());
+                        if (result.has("error")) {
+                            failed.incrementAndGet();
+                        }
+                        synchronized (results) {
+                            results.println(result);
+                            results.flush();
+                        }
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+
+        var sorted = latencies.stream().sorted().toList();
+        System.err.printf("✓ Answered %d of %d question(s) in %.1f s with parallelism %d%s%n",
+                count - failed.get(), count, (System.nanoTime() - started) / 1e9, parallelism,
+                sorted.isEmpty() ? "" : String.format(" (latency p50 %d ms, p95 %d ms)",
+                        percentile(sorted, 50), percentile(sorted, 95)));
+    }
+
+    private ObjectNode answer(ChatService chatService, Question question) {
+        var result = objectMapper.createObjectNode()
+                .put("index", question.index())
+                .put("id", question.id())
+                .put("prompt", question.prompt());
+        var started = System.nanoTime();
+        try {
+            var answer = chatService.ask(question.prompt());
+            result.put("answer", answer.text())
+                    .put("latencyMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started))
+                    .put("toolCalls", answer.toolCalls());
+            if (answer.tokenUsage() != null) {
+                result.put("inputTokens", answer.tokenUsage().inputTokenCount())
+                        .put("outputTokens", answer.tokenUsage().outputTokenCount());
+            }
+            if (answer.cached()) {
+                result.put("cached", true);
+            }
+        } catch (RuntimeException e) {
+            result.put("error", String.valueOf(e.getMessage()))
+                    .put("latencyMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        }
+        return result;
+    }
+
+    private BufferedReader open() throws IOException {
+        return input != null
+                ? Files.newBufferedReader(input, StandardCharsets.UTF_8)
+                : new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+    }
+
+    private Question parse(int index, String line) {
+        var trimmed = line.strip();
+        if (trimmed.startsWith("{")) {
+            try {
+                var json = objectMapper.readTree(trimmed);
+                var prompt = json.path("prompt").asText(json.path("question").asText(null));
+                if (prompt != null) {
+                    return new Question(index, json.path("id").asText(String.valueOf(index)), prompt);
+                }
+            } catch (JsonProcessingException e) {
+                // Not JSON after all; ask the line as it is
+            }
+        }
+        return new Question(index, String.valueOf(index), trimmed);
+    }
+
+    private static long percentile(List<Long> sorted, int percentile) {
+        return sorted.get(Math.min(sorted.size() - 1, sorted.size() * percentile / 100));
+    }
+}
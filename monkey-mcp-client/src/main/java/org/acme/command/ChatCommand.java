@@ -1,18 +1,25 @@
 package org.acme.command;
 
-import org.acme.client.ChatService;
+import org.acme.McpClientApplication;
 
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.ParentCommand;
 
-@Command(name = "chat", description = "Start a chat session")
+@Command(name = "chat", mixinStandardHelpOptions = true, description = "Start a chat session")
 public class ChatCommand implements Runnable {
 
-    ChatService chatService = new ChatService();
+    @ParentCommand
+    McpClientApplication app;
+
+    @Option(names = "--session", description = "Resume (or start) the chat session with this id")
+    String session;
 
     @Override
     public void run() {
+        var chatService = app.context().chat();
         if (chatService.isAvailable()) {
-            chatService.startInteractiveChat();
+            chatService.startInteractiveChat(session);
         } else {
             System.err.println("✗ Chat service is not available. Please check the Ollama model connection.");
         }
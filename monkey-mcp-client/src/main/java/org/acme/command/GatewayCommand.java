@@ -0,0 +1,90 @@
+package org.acme.command;
+
+import static java.lang.System.out;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CountDownLatch;
+
+import org.acme.McpClientApplication;
+import org.acme.client.ChatGateway;
+import org.acme.client.ChatService;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.ParentCommand;
+
+@Command(name = "gateway", mixinStandardHelpOptions = true,
+         description = "Serve many chat sessions over a local HTTP endpoint")
+public class GatewayCommand implements Runnable {
+
+    @ParentCommand
+    McpClientApplication app;
+
+    @Option(names = "--port", defaultValue = "8090", description = "Port to listen on, on localhost (default: ${DEFAULT-VALUE})")
+    int port;
+
+    @Option(names = "--max-concurrent", defaultValue = "1",
+            description = "Turns sent to the model at the same time; match OLLAMA_NUM_PARALLEL (default: ${DEFAULT-VALUE})")
+    int maxConcurrent;
+
+    @Option(names = "--max-queued", defaultValue = "64",
+            description = "Turns allowed to wait for the model before new ones are rejected (default: ${DEFAULT-VALUE})")
+    int maxQueued;
+
+    @Override
+    public void run() {
+        if (maxConcurrent < 1 || maxQueued < 0) {
+            System.err.println("✗ --max-concurrent must be at least 1 and --max-queued at least 0");
+            return;
+        }
+
+        var chatService = app.context().chat();
+        if (!chatService.isAvailable()) {
+            System.err.println("✗ Chat service is not available. Please check the Ollama model connection.");
+            return;
+        }
+
+        ChatGateway gateway;
+        try {
+            gateway = new ChatGateway(sessions(chatService),
+                    new InetSocketAddress(InetAddress.getLoopbackAddress(), port), maxConcurrent, maxQueued);
+        } catch (IOException e) {
+            System.err.println("✗ Cannot listen on port " + port + ": " + e.getMessage());
+            return;
+        }
+
+        var stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            out.println("→ Stopping chat gateway...");
+            gateway.close();
+            app.context().close();
+            stopped.countDown();
+        }));
+
+        gateway.start();
+        out.printf("✓ Chat gateway listening on http://localhost:%d (POST /sessions/{id}/messages, Ctrl+C to stop)%n",
+                gateway.port());
+        try {
+            stopped.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ChatGateway.Sessions sessions(ChatService chatService) {
+        return new ChatGateway.Sessions() {
+
+            @Override
+            public ChatService.Answer reply(String sessionId, String message) {
+                return chatService.reply(sessionId, message);
+            }
+
+            @Override
+            public void forget(String sessionId) {
+                chatService.forgetSession(sessionId);
+            }
+        };
+    }
+}
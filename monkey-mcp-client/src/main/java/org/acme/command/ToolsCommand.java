@@ -4,20 +4,22 @@ import static java.lang.System.out;
 
 import java.util.function.Consumer;
 
-import org.acme.client.ToolsService;
+import org.acme.McpClientApplication;
 
 import dev.langchain4j.agent.tool.ToolSpecification;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.ParentCommand;
 
-@Command(name = "tools", description = "List available MCP tools from registered servers")
+@Command(name = "tools", mixinStandardHelpOptions = true, description = "List available MCP tools from registered servers")
 public class ToolsCommand implements Runnable {
 
-    ToolsService toolsService = new ToolsService();
+    @ParentCommand
+    McpClientApplication app;
 
     @Override
     public void run() {
 
-        var tools = toolsService.getAvailableTools();
+        var tools = app.context().tools().getAvailableTools();
 
         out.println();
         out.println("═════ MCP Tools ═════");
@@ -44,8 +46,6 @@ public class ToolsCommand implements Runnable {
         tools.stream().forEach(printFunction);
         out.println("───────────────────────────────────");
         out.println("Total: " + tools.size() + " tool" + (tools.size() == 1 ? "" : "s") + " available");
-
-        toolsService.shutdown();
     }
 
 }
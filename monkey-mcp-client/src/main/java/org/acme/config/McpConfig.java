@@ -0,0 +1,236 @@
+package org.acme.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration class for MCP client settings
+ */
+public class McpConfig {
+    
+    // Default configuration values
+    public static final Duration DEFAULT_DISCOVERY_TIMEOUT = Duration.ofSeconds(10);
+    public static final Duration DEFAULT_DISCOVERY_BUDGET = Duration.ofSeconds(15);
+    public static final Duration DEFAULT_TOOL_CACHE_TTL = Duration.ofHours(24);
+    public static final Duration DEFAULT_TOOL_CACHE_REVALIDATE_AFTER = Duration.ofHours(1);
+    public static final int DEFAULT_CHAT_MEMORY_MAX_TOKENS = 2000;
+    public static final int DEFAULT_CHAT_MEMORY_TOOL_RESULT_MAX_TOKENS = 400;
+    public static final int DEFAULT_TOOL_SELECTION_MAX_TOOLS = 8;
+    public static final int DEFAULT_TOOL_CALLS_MAX_CONCURRENT = 4;
+    public static final Duration DEFAULT_TOOL_CALL_TIMEOUT = Duration.ofSeconds(60);
+    public static final int DEFAULT_HTTP_MAX_IDLE_CONNECTIONS = 16;
+    public static final Duration DEFAULT_HTTP_KEEP_ALIVE = Duration.ofMinutes(5);
+    public static final int DEFAULT_HTTP_MAX_REQUESTS_PER_HOST = 64;
+    public static final int DEFAULT_ANSWER_CACHE_MAX_ENTRIES = 256;
+    public static final Duration DEFAULT_ANSWER_CACHE_TTL = Duration.ofMinutes(10);
+    public static final double DEFAULT_ANSWER_CACHE_SIMILARITY = 1.0;
+    
+    /**
+     * Get the server configuration file from system properties or default (mcp.json in the working directory)
+     */
+    public static Path getConfigFile() {
+        return Path.of(System.getProperty("mcp.config.file", "mcp.json"));
+    }
+    
+    /**
+     * Get the per-server tool discovery deadline from system properties or default
+     */
+    public static Duration getDiscoveryTimeout() {
+        return getDuration("mcp.discovery.timeout", DEFAULT_DISCOVERY_TIMEOUT);
+    }
+    
+    /**
+     * Get the overall tool discovery budget across all servers from system properties or default
+     */
+    public static Duration getDiscoveryBudget() {
+        return getDuration("mcp.discovery.budget", DEFAULT_DISCOVERY_BUDGET);
+    }
+    
+    /**
+     * Whether discovered tools are cached on disk between runs
+     */
+    public static boolean isToolCacheEnabled() {
+        return Boolean.parseBoolean(System.getProperty("mcp.toolCache.enabled", "true"));
+    }
+    
+    /**
+     * Get the tool cache file from system properties or default (~/.mcp-client/tool-cache.json)
+     */
+    public static Path getToolCacheFile() {
+        var file = System.getProperty("mcp.toolCache.file");
+        if (file != null) {
+            return Path.of(file);
+        }
+        return Path.of(System.getProperty("user.home"), ".mcp-client", "tool-cache.json");
+    }
+    
+    /**
+     * Get how long cached tools are served before a full discovery is required, from system properties or default
+     */
+    public static Duration getToolCacheTtl() {
+        return getDuration("mcp.toolCache.ttl", DEFAULT_TOOL_CACHE_TTL);
+    }
+    
+    /**
+     * Get the age after which cached tools are confirmed with their server in the background, from system properties or default
+     */
+    public static Duration getToolCacheRevalidateAfter() {
+        return getDuration("mcp.toolCache.revalidateAfter", DEFAULT_TOOL_CACHE_REVALIDATE_AFTER);
+    }
+    
+    /**
+     * Whether a breakdown of startup timings is printed before the chat starts
+     */
+    public static boolean isStartupTimingsEnabled() {
+        return Boolean.parseBoolean(System.getProperty("mcp.startup.timings", "false"));
+    }
+    
+    /**
+     * Whether chat sessions are kept on disk so they can be resumed
+     */
+    public static boolean isChatMemoryPersistent() {
+        return Boolean.parseBoolean(System.getProperty("mcp.chatMemory.persistent", "true"));
+    }
+    
+    /**
+     * Get the chat memory directory from system properties or default (~/.mcp-client/sessions)
+     */
+    public static Path getChatMemoryDir() {
+        var dir = System.getProperty("mcp.chatMemory.dir");
+        if (dir != null) {
+            return Path.of(dir);
+        }
+        return Path.of(System.getProperty("user.home"), ".mcp-client", "sessions");
+    }
+    
+    /**
+     * Get the token budget of a session's chat memory from system properties or default
+     */
+    public static int getChatMemoryMaxTokens() {
+        return getInt("mcp.chatMemory.maxTokens", DEFAULT_CHAT_MEMORY_MAX_TOKENS);
+    }
+    
+    /**
+     * Get the size tool results from earlier turns are truncated to, from system properties or default
+     */
+    public static int getChatMemoryToolResultMaxTokens() {
+        return getInt("mcp.chatMemory.toolResultMaxTokens", DEFAULT_CHAT_MEMORY_TOOL_RESULT_MAX_TOKENS);
+    }
+    
+    /**
+     * Get the number of tools offered to the model per turn from system properties or default (0 offers all)
+     */
+    public static int getToolSelectionMaxTools() {
+        return getInt("mcp.toolSelection.maxTools", DEFAULT_TOOL_SELECTION_MAX_TOOLS);
+    }
+    
+    /**
+     * Get the number of tool calls run at the same time from system properties or default
+     */
+    public static int getToolCallsMaxConcurrent() {
+        return getInt("mcp.toolCalls.maxConcurrent", DEFAULT_TOOL_CALLS_MAX_CONCURRENT);
+    }
+    
+    /**
+     * Get the deadline of a single tool call from system properties or default
+     */
+    public static Duration getToolCallTimeout() {
+        return getDuration("mcp.toolCalls.timeout", DEFAULT_TOOL_CALL_TIMEOUT);
+    }
+    
+    /**
+     * Get the number of idle connections kept in the shared HTTP pool from system properties or default
+     */
+    public static int getHttpMaxIdleConnections() {
+        return getInt("mcp.http.maxIdleConnections", DEFAULT_HTTP_MAX_IDLE_CONNECTIONS);
+    }
+    
+    /**
+     * Get how long an idle pooled HTTP connection is kept open from system properties or default
+     */
+    public static Duration getHttpKeepAlive() {
+        return getDuration("mcp.http.keepAlive", DEFAULT_HTTP_KEEP_ALIVE);
+    }
+    
+    /**
+     * Get the number of concurrent HTTP requests per host from system properties or default
+     */
+    public static int getHttpMaxRequestsPerHost() {
+        return getInt("mcp.http.maxRequestsPerHost", DEFAULT_HTTP_MAX_REQUESTS_PER_HOST);
+    }
+    
+    /**
+     * Whether HTTP/2 is offered to servers that support it, from system properties or default (true)
+     */
+    public static boolean isHttp2Enabled() {
+        return Boolean.parseBoolean(System.getProperty("mcp.http.http2", "true"));
+    }
+    
+    /**
+     * Get the file the session's latency metrics are written to as JSON, or null when not exported
+     */
+    public static Path getMetricsFile() {
+        var file = System.getProperty("mcp.metrics.file");
+        return file != null && !file.isBlank() ? Path.of(file) : null;
+    }
+    
+    /**
+     * Whether answers to repeated questions are served from the answer cache
+     */
+    public static boolean isAnswerCacheEnabled() {
+        return Boolean.parseBoolean(System.getProperty("mcp.answerCache.enabled", "false"));
+    }
+    
+    /**
+     * Get the number of answers kept in the answer cache from system properties or default
+     */
+    public static int getAnswerCacheMaxEntries() {
+        return getInt("mcp.answerCache.maxEntries", DEFAULT_ANSWER_CACHE_MAX_ENTRIES);
+    }
+    
+    /**
+     * Get how long a cached answer is served from system properties or default
+     */
+    public static Duration getAnswerCacheTtl() {
+        return getDuration("mcp.answerCache.ttl", DEFAULT_ANSWER_CACHE_TTL);
+    }
+    
+    /**
+     * Get how similar a question must be to a cached one to share its answer, from system properties or default (1 matches only equal questions)
+     */
+    public static double getAnswerCacheSimilarity() {
+        String valueStr = System.getProperty("mcp.answerCache.similarity");
+        if (valueStr != null) {
+            try {
+                return Double.parseDouble(valueStr);
+            } catch (NumberFormatException e) {
+                System.err.println("Invalid mcp.answerCache.similarity value: " + valueStr + ". Using default.");
+            }
+        }
+        return DEFAULT_ANSWER_CACHE_SIMILARITY;
+    }
+    
+    private static int getInt(String property, int defaultValue) {
+        String valueStr = System.getProperty(property);
+        if (valueStr != null) {
+            try {
+                return Integer.parseInt(valueStr);
+            } catch (NumberFormatException e) {
+                System.err.println("Invalid " + property + " value: " + valueStr + ". Using default.");
+            }
+        }
+        return defaultValue;
+    }
+    
+    private static Duration getDuration(String property, Duration defaultValue) {
+        String secondsStr = System.getProperty(property);
+        if (secondsStr != null) {
+            try {
+                return Duration.ofSeconds(Long.parseLong(secondsStr));
+            } catch (NumberFormatException e) {
+                System.err.println("Invalid " + property + " value: " + secondsStr + ". Using default.");
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -72,4 +72,11 @@ public class OllamaConfig {
         }
         return DEFAULT_TEMPERATURE;
     }
+    
+    /**
+     * Whether chat replies are streamed token by token, from system properties or default (true)
+     */
+    public static boolean isStreaming() {
+        return Boolean.parseBoolean(System.getProperty("ollama.streaming", "true"));
+    }
 }
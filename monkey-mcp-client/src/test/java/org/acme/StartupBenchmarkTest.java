@@ -0,0 +1,218 @@
+package org.acme;
+
+import org.acme.client.FakeMcpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Launches the client in a fresh JVM per run, the way scripts do, to check which services each
+ * subcommand starts and how long it takes to get there. Ollama is stood in for by a socket that
+ * accepts connections but never answers, so any subcommand that touches it would hang.
+ * The benchmark runs only with -Dbenchmark=true, e.g. {@code ./mvnw test -Dbenchmark=true -Dtest=StartupBenchmarkTest}.
+ * Comparing the packaged JVM, AppCDS and native builds needs them built first, see the README.
+ */
+class StartupBenchmarkTest {
+
+    private static final int RUNS = Integer.getInteger("benchmark.runs", 10);
+    private static final long PROCESS_TIMEOUT_SECONDS = 60;
+
+    @TempDir
+    static Path workDir;
+
+    private static ServerSocket silentOllama;
+
+    private static final Path JAR = Path.of("target", "cli-mcp-client.jar").toAbsolutePath();
+    private static final Path CDS_ARCHIVE = Path.of("target", "cli-mcp-client.jsa").toAbsolutePath();
+    private static final Path NATIVE_EXECUTABLE = Path.of("target", "cli-mcp-client").toAbsolutePath();
+
+    record Run(int exitCode, String output, long millis, long peakRssKb) {
+    }
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        silentOllama = new ServerSocket(0);
+        Files.writeString(workDir.resolve("mcp.json"), """
+                {
+                  "servers": {}
+                }
+                """);
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        silentOllama.close();
+    }
+
+    @Test
+    void testHelpStartsNoServices() throws Exception {
+        for (var args : List.of(List.of("--help"), List.of("tools", "--help"), List.of("chat", "--help"),
+                List.of("ask", "--help"), List.of("gateway", "--help"))) {
+            Run run = launch(args);
+
+            assertEquals(0, run.exitCode(), String.join(" ", args));
+            assertTrue(run.output().contains("Usage:"), run.output());
+            assertFalse(run.output().contains("Initializing MCP tools"), run.output());
+            assertFalse(run.output().contains("Warming up Ollama"), run.output());
+        }
+    }
+
+    @Test
+    void testToolsDoesNotWaitOnOllama() throws Exception {
+        Run run = launch(List.of("tools"));
+
+        assertEquals(0, run.exitCode(), run.output());
+        assertTrue(run.output().contains("Initializing MCP tools"), run.output());
+        assertFalse(run.output().contains("Warming up Ollama"), run.output());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkSubcommandStartup() throws Exception {
+        System.out.printf("%nClient startup benchmark (%d runs per command, fresh JVM each)%n", RUNS);
+        System.out.printf("%-16s %10s %10s %10s%n", "command", "p50 (ms)", "min (ms)", "max (ms)");
+
+        for (var args : List.of(List.of("--help"), List.of("tools", "--help"), List.of("chat", "--help"), List.of("tools"))) {
+            long[] millis = new long[RUNS];
+            for (int i = 0; i < RUNS; i++) {
+                Run run = launch(args);
+                assertEquals(0, run.exitCode(), run.output());
+                millis[i] = run.millis();
+            }
+            Arrays.sort(millis);
+            System.out.printf("%-16s %10d %10d %10d%n",
+                    String.join(" ", args), millis[RUNS / 2], millis[0], millis[RUNS - 1]);
+        }
+    }
+
+    /**
+     * Compares the packaged builds on {@code tools} against a local MCP stand-in. The builds
+     * are taken from target/, so package them before running this.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkToolsStartupAndFootprint() throws Exception {
+        assumeTrue(Files.exists(JAR), "package the client first: ./mvnw package -DskipTests");
+        String java = ProcessHandle.current().info().command().orElse("java");
+
+        try (var mcpServer = new FakeMcpServer()) {
+            Path config = workDir.resolve("tools-mcp.json");
+            Files.writeString(config, """
+                    {
+                      "servers": {
+                        "species": {
+                          "type": "http",
+                          "url": "%s"
+                        }
+                      }
+                    }
+                    """.formatted(mcpServer.url()));
+            List<String> settings = List.of("-Dmcp.config.file=" + config, "-Dmcp.toolCache.enabled=false");
+
+            System.out.printf("%n'tools' startup and footprint (%d runs per build, fresh process each)%n", RUNS);
+            System.out.printf("%-16s %10s %10s %10s %14s%n", "build", "p50 (ms)", "min (ms)", "max (ms)", "peak RSS (MB)");
+            benchmarkTools("jvm", java, settings, List.of("-jar", JAR.toString()));
+            if (Files.exists(CDS_ARCHIVE)) {
+                benchmarkTools("jvm + AppCDS", java, settings,
+                        List.of("-XX:SharedArchiveFile=" + CDS_ARCHIVE, "-Xlog:cds=off", "-jar", JAR.toString()));
+            } else {
+                System.out.printf("%-16s not built, run ./mvnw package -Pappcds%n", "jvm + AppCDS");
+            }
+            if (Files.isExecutable(NATIVE_EXECUTABLE)) {
+                benchmarkTools("native", NATIVE_EXECUTABLE.toString(), settings, List.of());
+            } else {
+                System.out.printf("%-16s not built, run ./mvnw package -Pnative on GraalVM%n", "native");
+            }
+        }
+    }
+
+    private void benchmarkTools(String build, String executable, List<String> settings, List<String> launch)
+            throws Exception {
+        List<String> command = new ArrayList<>(List.of(executable));
+        command.addAll(settings);
+        command.addAll(launch);
+        command.add("tools");
+
+        long[] millis = new long[RUNS];
+        long[] rssKb = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            Run run = run(command);
+            assertEquals(0, run.exitCode(), run.output());
+            assertTrue(run.output().contains("lookup_species"), run.output());
+            millis[i] = run.millis();
+            rssKb[i] = run.peakRssKb();
+        }
+        Arrays.sort(millis);
+        Arrays.sort(rssKb);
+        System.out.printf("%-16s %10d %10d %10d %14.1f%n",
+                build, millis[RUNS / 2], millis[0], millis[RUNS - 1], rssKb[RUNS / 2] / 1024.0);
+    }
+
+    private Run launch(List<String> args) throws Exception {
+        List<String> command = new ArrayList<>(List.of(
+                ProcessHandle.current().info().command().orElse("java"),
+                "-cp", System.getProperty("java.class.path"),
+                "-Dollama.baseUrl=http://127.0.0.1:" + silentOllama.getLocalPort(),
+                "-Dmcp.toolCache.file=" + workDir.resolve("tool-cache.json"),
+                McpClientApplication.class.getName()));
+        command.addAll(args);
+        return run(command);
+    }
+
+    /**
+     * Runs a command to completion. Its peak resident set size is sampled from /proc while it
+     * runs, and is 0 where /proc is not available.
+     */
+    private Run run(List<String> command) throws Exception {
+        // Output goes to a file so a hung process cannot block the test on a full pipe
+        Path log = Files.createTempFile(workDir, "run", ".log");
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(workDir.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        long deadline = start + TimeUnit.SECONDS.toNanos(PROCESS_TIMEOUT_SECONDS);
+        long peakRssKb = 0;
+        boolean exited = false;
+        while (!exited && System.nanoTime() < deadline) {
+            peakRssKb = Math.max(peakRssKb, peakRssKb(process.pid()));
+            exited = process.waitFor(5, TimeUnit.MILLISECONDS);
+        }
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        String output = Files.readString(log, StandardCharsets.UTF_8);
+        if (!exited) {
+            process.destroyForcibly();
+            fail("'" + String.join(" ", command) + "' did not exit within " + PROCESS_TIMEOUT_SECONDS + " s:\n" + output);
+        }
+        return new Run(process.exitValue(), output, millis, peakRssKb);
+    }
+
+    private static long peakRssKb(long pid) {
+        try {
+            for (var line : Files.readAllLines(Path.of("/proc", String.valueOf(pid), "status"))) {
+                if (line.startsWith("VmHWM:")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Not on Linux, or the process has just exited
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,162 @@
+package org.acme.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.service.tool.ToolExecution;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnswerCacheTest {
+
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    @Test
+    void testRepeatedQuestionIsServedAfterNormalization() {
+        var cache = new AnswerCache(16, TTL, 1.0, tool -> AnswerCache.Settings.NONE);
+        assertNull(cache.get("Tell me about Mandrill"));
+
+        cache.put("Tell me about Mandrill", "Mandrills live in Africa.", List.of(details("Mandrill", "Africa")), 2_000_000);
+
+        var hit = cache.get("  tell me about mandrill? ");
+        assertNotNull(hit);
+        assertEquals("Mandrills live in Africa.", hit.answer());
+        assertFalse(hit.similar());
+        assertNull(cache.get("Tell me about Howler"));
+    }
+
+    @Test
+    void testSimilarQuestionIsServedOnlyAboveThreshold() {
+        var cache = new AnswerCache(16, TTL, 0.8, tool -> AnswerCache.Settings.NONE);
+        cache.put("Where do mandrills live?", "In Africa.", List.of(), 1);
+
+        var hit = cache.get("Where does the mandrill live");
+        assertNotNull(hit);
+        assertTrue(hit.similar());
+        assertNull(cache.get("Where do howlers live?"));
+    }
+
+    @Test
+    void testChangedToolResultInvalidatesDependentAnswers() {
+        var cache = new AnswerCache(16, TTL, 1.0, tool -> AnswerCache.Settings.NONE);
+        cache.put("Tell me about Mandrill", "In Africa.", List.of(details("Mandrill", "Africa")), 1);
+        cache.put("Where is Howler from?", "The Americas.", List.of(details("Howler", "Americas")), 1);
+
+        // Same call, same result: nothing changes
+        cache.put("Is Mandrill real?", "Yes.", List.of(details("Mandrill", "Africa")), 1);
+        assertNotNull(cache.get("Tell me about Mandrill"));
+
+        cache.put("Is Mandrill big?", "Yes.", List.of(details("Mandrill", "Gabon")), 1);
+        assertNull(cache.get("Tell me about Mandrill"));
+        assertNull(cache.get("Is Mandrill real?"));
+        assertNotNull(cache.get("Where is Howler from?"));
+        assertNotNull(cache.get("Is Mandrill big?"));
+    }
+
+    @Test
+    void testResultsDifferingOnlyInVolatilePartsStillHit() throws Exception {
+        var settings = monkeySettings();
+        var cache = new AnswerCache(16, TTL, 1.0, tool -> settings);
+        cache.put("Tell me about Mandrill", "In Africa.", List.of(execution("get_monkey_species_details",
+                "{\"speciesName\":\"Mandrill\"}", "Species Name: Mandrill\nLocation: Africa\nAccessed: 3 times")), 1);
+        cache.put("Mandrill in short?", "Africa.", List.of(execution("get_monkey_species_details",
+                "{\"speciesName\":\"Mandrill\",\"format\":\"compact\"}",
+                "Mandrill | Africa | pop 800000 | 0.42,9.47 | accessed 4 | details\n[60 bytes, ~15 tokens]")), 1);
+        cache.put("Mandrill as JSON?", "{}", List.of(execution("get_monkey_species_details",
+                "{\"speciesName\":\"Mandrill\",\"format\":\"json\"}",
+                "{\"name\":\"Mandrill\",\"accessed\":5,\"size\":{\"bytes\":40,\"tokens\":10}}")), 1);
+        cache.put("Which monkey is most popular?", "Mandrill.", List.of(execution("get_monkey_species_stats", "{}",
+                "• Total Species: 11\n• Most Accessed: Mandrill (6 times)\n")), 1);
+
+        cache.put("Does Mandrill exist?", "Yes.", List.of(
+                execution("get_monkey_species_details", "{\"speciesName\":\"Mandrill\"}",
+                        "Species Name: Mandrill\nLocation: Africa\nAccessed: 13 times"),
+                execution("get_monkey_species_details", "{\"format\":\"compact\",\"speciesName\":\"Mandrill\"}",
+                        "Mandrill | Africa | pop 800000 | 0.42,9.47 | accessed 14 | details\n[61 bytes, ~16 tokens]"),
+                execution("get_monkey_species_details", "{\"speciesName\":\"Mandrill\",\"format\":\"json\"}",
+                        "{\"name\":\"Mandrill\",\"accessed\":15,\"size\":{\"bytes\":41,\"tokens\":11}}"),
+                execution("get_monkey_species_stats", "{}", "• Total Species: 11\n• Most Accessed: Mandrill (16 times)\n")), 1);
+
+        assertNotNull(cache.get("Tell me about Mandrill"));
+        assertNotNull(cache.get("Mandrill in short?"));
+        assertNotNull(cache.get("Mandrill as JSON?"));
+        assertNotNull(cache.get("Which monkey is most popular?"));
+
+        // A change outside the volatile fields still invalidates
+        cache.put("Where is Mandrill?", "Gabon.", List.of(execution("get_monkey_species_details",
+                "{\"speciesName\":\"Mandrill\"}", "Species Name: Mandrill\nLocation: Gabon\nAccessed: 17 times")), 1);
+        assertNull(cache.get("Tell me about Mandrill"));
+    }
+
+    @Test
+    void testAnswersFromUncacheableOrFailedToolsAreNotStored() throws Exception {
+        var settings = monkeySettings();
+        var cache = new AnswerCache(16, TTL, 1.0, tool -> settings);
+
+        cache.put("Tell me about a random monkey", "Meet the Mandrill.", List.of(execution("get_random_monkey_species", "{}", "Mandrill")), 1);
+        cache.put("Tell me about Howler", "Sorry.", List.of(execution("get_monkey_species_details",
+                "{\"speciesName\":\"Howler\"}", "There was an error executing the tool. The tool returned: boom")), 1);
+
+        assertNull(cache.get("Tell me about a random monkey"));
+        assertNull(cache.get("Tell me about Howler"));
+    }
+
+    @Test
+    void testWithoutSettingsEveryToolIsCacheableAndEveryChangeCounts() {
+        var settings = AnswerCache.Settings.from(null);
+        assertTrue(settings.uncacheableTools().isEmpty());
+        assertTrue(settings.volatileResults().isEmpty());
+
+        var cache = new AnswerCache(16, TTL, 1.0, tool -> settings);
+        cache.put("Tell me about a random monkey", "Meet the Mandrill.", List.of(execution("get_random_monkey_species", "{}", "Mandrill")), 1);
+        cache.put("Tell me about Mandrill", "In Africa.", List.of(execution("get_monkey_species_details",
+                "{\"speciesName\":\"Mandrill\"}", "Species Name: Mandrill\nAccessed: 3 times")), 1);
+        assertNotNull(cache.get("Tell me about a random monkey"));
+
+        cache.put("Does Mandrill exist?", "Yes.", List.of(execution("get_monkey_species_details",
+                "{\"speciesName\":\"Mandrill\"}", "Species Name: Mandrill\nAccessed: 4 times")), 1);
+        assertNull(cache.get("Tell me about Mandrill"));
+    }
+
+    @Test
+    void testLeastRecentlyUsedAnswerIsEvictedAndExpiredAnswersAreNotServed() {
+        var cache = new AnswerCache(2, TTL, 1.0, tool -> AnswerCache.Settings.NONE);
+        cache.put("one", "1", List.of(), 1);
+        cache.put("two", "2", List.of(), 1);
+        cache.get("one");
+        cache.put("three", "3", List.of(), 1);
+
+        assertNotNull(cache.get("one"));
+        assertNull(cache.get("two"));
+        assertNotNull(cache.get("three"));
+
+        var expiring = new AnswerCache(2, Duration.ZERO, 1.0, tool -> AnswerCache.Settings.NONE);
+        expiring.put("one", "1", List.of(), 1);
+        assertNull(expiring.get("one"));
+    }
+
+    /**
+     * The answerCache block of the monkey server in this module's mcp.json.
+     */
+    private static AnswerCache.Settings monkeySettings() throws IOException {
+        var config = new ObjectMapper().readTree(Path.of("mcp.json").toFile());
+        return AnswerCache.Settings.from(config.path("servers").path("monkeymcp").get("answerCache"));
+    }
+
+    private static ToolExecution details(String species, String location) {
+        return execution("get_monkey_species_details", "{\"speciesName\":\"" + species + "\"}",
+                "Species Name: " + species + "\nLocation: " + location);
+    }
+
+    private static ToolExecution execution(String tool, String arguments, String result) {
+        return ToolExecution.builder()
+                .request(ToolExecutionRequest.builder().name(tool).arguments(arguments).build())
+                .result(result)
+                .build();
+    }
+}
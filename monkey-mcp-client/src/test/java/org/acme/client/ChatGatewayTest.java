@@ -0,0 +1,255 @@
+package org.acme.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChatGatewayTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newHttpClient();
+    private ChatGateway gateway;
+
+    /**
+     * Stands in for the chat service: remembers messages per session and records how many
+     * turns overlap, overall and within a session.
+     */
+    private static class FakeSessions implements ChatGateway.Sessions {
+
+        final Map<String, List<String>> history = new ConcurrentHashMap<>();
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicInteger maxActive = new AtomicInteger();
+        final Map<String, AtomicInteger> activePerSession = new ConcurrentHashMap<>();
+        final List<String> overlappingSessions = new CopyOnWriteArrayList<>();
+        volatile CountDownLatch release = new CountDownLatch(0);
+
+        @Override
+        public ChatService.Answer reply(String sessionId, String message) {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            var inSession = activePerSession.computeIfAbsent(sessionId, id -> new AtomicInteger());
+            if (inSession.incrementAndGet() > 1) {
+                overlappingSessions.add(sessionId);
+            }
+            try {
+                release.await(10, TimeUnit.SECONDS);
+                Thread.sleep(20);
+                var messages = history.computeIfAbsent(sessionId, id -> new CopyOnWriteArrayList<>());
+                messages.add(message);
+                return new ChatService.Answer(sessionId + " has said " + messages, 0, null);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                inSession.decrementAndGet();
+                active.decrementAndGet();
+            }
+        }
+
+        @Override
+        public void forget(String sessionId) {
+            history.remove(sessionId);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (gateway != null) {
+            gateway.close();
+        }
+    }
+
+    @Test
+    void testSessionsKeepSeparateMemories() throws Exception {
+        start(new FakeSessions(), 2, 16);
+
+        assertEquals("alice has said [hi]", post("alice", "hi").body().get("reply").asText());
+        assertEquals("bob has said [hello]", post("bob", "hello").body().get("reply").asText());
+        assertEquals("alice has said [hi, again]", post("alice", "again").body().get("reply").asText());
+    }
+
+    @Test
+    void testModelConcurrencyIsBoundedAndSessionTurnsDoNotOverlap() throws Exception {
+        var sessions = new FakeSessions();
+        start(sessions, 2, 64);
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var responses = new ArrayList<Future<Response>>();
+            for (int i = 0; i < 24; i++) {
+                var session = "s" + (i % 6);
+                var message = "m" + i;
+                responses.add(executor.submit(() -> post(session, message)));
+            }
+            for (var response : responses) {
+                assertEquals(200, response.get().status(), response.get().body().toString());
+            }
+        }
+
+        assertEquals(2, sessions.maxActive.get());
+        assertEquals(List.of(), sessions.overlappingSessions);
+        sessions.history.values().forEach(messages -> assertEquals(4, messages.size()));
+    }
+
+    @Test
+    void testFullQueueRejectsNewTurns() throws Exception {
+        var sessions = new FakeSessions();
+        sessions.release = new CountDownLatch(1);
+        start(sessions, 1, 1);
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var running = executor.submit(() -> post("a", "first"));
+            awaitHealth("freeModelSlots", 0);
+            var queued = executor.submit(() -> post("b", "second"));
+            awaitHealth("queuedTurns", 1);
+
+            var rejected = post("c", "third");
+            assertEquals(503, rejected.status());
+
+            sessions.release.countDown();
+            assertEquals(200, running.get().status());
+            assertEquals(200, queued.get().status());
+        }
+    }
+
+    @Test
+    void testFloodPastTheQueueIsTurnedAway() throws Exception {
+        var sessions = new FakeSessions();
+        sessions.release = new CountDownLatch(1);
+        start(sessions, 1, 2);
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var responses = new ArrayList<Future<Response>>();
+            for (int i = 0; i < 20; i++) {
+                var session = "flood-" + i;
+                responses.add(executor.submit(() -> post(session, "hi")));
+            }
+            // Only the running turn and the queued ones are left waiting
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (responses.stream().filter(Future::isDone).count() < 17) {
+                assertTrue(System.nanoTime() < deadline, "Flooding turns were not turned away");
+                Thread.sleep(10);
+            }
+            assertEquals(2, send(HttpRequest.newBuilder(uri("/health")).GET()).body().get("queuedTurns").asInt());
+
+            sessions.release.countDown();
+            var statuses = new ArrayList<Integer>();
+            for (var response : responses) {
+                statuses.add(response.get().status());
+            }
+            assertEquals(3, statuses.stream().filter(status -> status == 200).count(), statuses.toString());
+            assertEquals(17, statuses.stream().filter(status -> status == 503).count(), statuses.toString());
+        }
+        awaitHealth("queuedTurns", 0);
+    }
+
+    @Test
+    void testInvalidRequestsAndForgetting() throws Exception {
+        var sessions = new FakeSessions();
+        start(sessions, 1, 4);
+
+        assertEquals(400, post("bad id!", "hi").status());
+        assertEquals(400, send(HttpRequest.newBuilder(uri("/sessions/a/messages"))
+                .POST(HttpRequest.BodyPublishers.ofString("{\"text\":\"hi\"}"))).status());
+        assertEquals(405, send(HttpRequest.newBuilder(uri("/sessions/a/messages")).GET()).status());
+
+        post("a", "remember me");
+        assertEquals(200, send(HttpRequest.newBuilder(uri("/sessions/a")).DELETE()).status());
+        assertEquals("a has said [fresh]", post("a", "fresh").body().get("reply").asText());
+    }
+
+    @Test
+    void testForgettingWaitsForTheRunningTurn() throws Exception {
+        var sessions = new FakeSessions();
+        sessions.release = new CountDownLatch(1);
+        start(sessions, 2, 4);
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var running = executor.submit(() -> post("a", "first"));
+            awaitHealth("freeModelSlots", 1);
+            var forgetting = executor.submit(() -> send(HttpRequest.newBuilder(uri("/sessions/a")).DELETE()));
+            Thread.sleep(100);
+            assertFalse(forgetting.isDone());
+
+            sessions.release.countDown();
+            assertEquals("a has said [first]", running.get().body().get("reply").asText());
+            assertEquals(200, forgetting.get().status());
+        }
+
+        awaitHealth("sessions", 0);
+        assertEquals("a has said [fresh]", post("a", "fresh").body().get("reply").asText());
+    }
+
+    @Test
+    void testTurnsDoNotOverlapWhileTheSessionIsForgotten() throws Exception {
+        var sessions = new FakeSessions();
+        start(sessions, 4, 64);
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var responses = new ArrayList<Future<Response>>();
+            for (int i = 0; i < 16; i++) {
+                var message = "m" + i;
+                responses.add(executor.submit(() -> post("a", message)));
+                if (i % 4 == 0) {
+                    responses.add(executor.submit(() -> send(HttpRequest.newBuilder(uri("/sessions/a")).DELETE())));
+                }
+            }
+            for (var response : responses) {
+                assertEquals(200, response.get().status(), response.get().body().toString());
+            }
+        }
+
+        assertEquals(List.of(), sessions.overlappingSessions);
+    }
+
+    private record Response(int status, JsonNode body) {
+    }
+
+    private void start(FakeSessions sessions, int maxConcurrentTurns, int maxQueued) throws Exception {
+        gateway = new ChatGateway(sessions, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                maxConcurrentTurns, maxQueued);
+        gateway.start();
+    }
+
+    private Response post(String session, String message) throws Exception {
+        var body = objectMapper.createObjectNode().put("message", message).toString();
+        return send(HttpRequest.newBuilder(uri("/sessions/" + session.replace(" ", "%20") + "/messages"))
+                .POST(HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    private Response send(HttpRequest.Builder request) throws Exception {
+        var response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        return new Response(response.statusCode(), objectMapper.readTree(response.body()));
+    }
+
+    private void awaitHealth(String field, int expected) throws Exception {
+        for (int i = 0; i < 200; i++) {
+            if (send(HttpRequest.newBuilder(uri("/health")).GET()).body().get(field).asInt() == expected) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        fail(field + " never reached " + expected);
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + gateway.port() + path);
+    }
+}
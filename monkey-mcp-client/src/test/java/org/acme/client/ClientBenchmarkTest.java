@@ -0,0 +1,212 @@
+package org.acme.client;
+
+import org.acme.client.metrics.Histogram;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives {@link ChatService} and {@link ToolsService} end to end without a network: Ollama and
+ * the MCP server are stood in for by {@link FakeOllama} and {@link FakeMcpServer} on local
+ * ports, so everything between the chat API and the sockets is the real client.
+ * The benchmark runs only with -Dbenchmark=true, e.g. {@code ./mvnw test -Dbenchmark=true -Dtest=ClientBenchmarkTest}.
+ */
+class ClientBenchmarkTest {
+
+    private static final int SESSIONS = Integer.getInteger("benchmark.sessions", 24);
+    private static final Duration PROMPT_LATENCY = Duration.ofMillis(Long.getLong("benchmark.promptLatency", 50));
+    private static final int TOKENS_PER_SECOND = Integer.getInteger("benchmark.tokensPerSecond", 400);
+    private static final Duration TOOL_LATENCY = Duration.ofMillis(Long.getLong("benchmark.toolLatency", 20));
+
+    /**
+     * One conversation: a comparison needing two concurrent lookups, a follow-up answered
+     * from memory, a single lookup and a closing question over the whole history.
+     */
+    private static final List<String> SCRIPT = List.of(
+            "Compare Howler and Capuchin for me",
+            "Which of them lives longer?",
+            "Tell me about Mandrill too",
+            "Thanks, please sum up what we discussed");
+
+    @TempDir
+    static Path workDir;
+
+    private static final Map<String, String> savedProperties = new HashMap<>();
+    private static FakeOllama ollama;
+    private static FakeMcpServer mcpServer;
+    private static ToolsService toolsService;
+    private static ChatService chatService;
+
+    record Round(int turns, double turnsPerSecond, Histogram latency, double modelCallsPerTurn, long clientBytesPerTurn,
+            long totalBytesPerTurn) {
+    }
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        ollama = new FakeOllama();
+        mcpServer = new FakeMcpServer();
+        Files.writeString(workDir.resolve("mcp.json"), """
+                {
+                  "servers": {
+                    "species": {
+                      "type": "http",
+                      "url": "%s"
+                    }
+                  }
+                }
+                """.formatted(mcpServer.url()));
+
+        setProperty("ollama.baseUrl", ollama.baseUrl());
+        setProperty("ollama.model", FakeOllama.MODEL);
+        setProperty("mcp.config.file", workDir.resolve("mcp.json").toString());
+        setProperty("mcp.toolCache.enabled", "false");
+        setProperty("mcp.chatMemory.persistent", "false");
+
+        toolsService = new ToolsService();
+        chatService = new ChatService(toolsService);
+        assertTrue(chatService.isAvailable());
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (toolsService != null) {
+            chatService.reportPerformance();
+            toolsService.shutdown();
+        }
+        savedProperties.forEach((key, value) -> {
+            if (value != null) {
+                System.setProperty(key, value);
+            } else {
+                System.clearProperty(key);
+            }
+        });
+        mcpServer.close();
+        ollama.close();
+    }
+
+    private static void setProperty(String key, String value) {
+        savedProperties.putIfAbsent(key, System.getProperty(key));
+        System.setProperty(key, value);
+    }
+
+    @Test
+    void testScriptedSessionCallsToolsAndRemembersEarlierTurns() {
+        var toolCalls = mcpServer.toolCalls.get();
+
+        var comparison = chatService.reply("scripted", SCRIPT.get(0));
+        assertEquals(2, comparison.toolCalls());
+        assertTrue(comparison.text().contains("[Details of Howler]"), comparison.text());
+        assertTrue(comparison.text().contains("[Details of Capuchin]"), comparison.text());
+        assertEquals(toolCalls + 2, mcpServer.toolCalls.get());
+        var firstTurnMessages = ollama.lastMessageCount;
+
+        var followUp = chatService.reply("scripted", SCRIPT.get(1));
+        assertEquals(0, followUp.toolCalls());
+        assertTrue(ollama.lastMessageCount > firstTurnMessages,
+                ollama.lastMessageCount + " message(s) after " + firstTurnMessages);
+        assertNotNull(followUp.tokenUsage());
+        assertTrue(followUp.tokenUsage().inputTokenCount() > 0);
+    }
+
+    @Test
+    void testAskedQuestionsDoNotShareHistory() {
+        chatService.ask("Tell me about Mandrill");
+        var messages = ollama.lastMessageCount;
+
+        var answer = chatService.ask("Tell me about Mandrill");
+
+        assertEquals(1, answer.toolCalls());
+        assertEquals(messages, ollama.lastMessageCount);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkScriptedSessions() throws Exception {
+        ollama.promptLatency = PROMPT_LATENCY;
+        ollama.tokensPerSecond = TOKENS_PER_SECOND;
+        mcpServer.toolLatency = TOOL_LATENCY;
+        try {
+            // Warms the JIT, the connection pool and the tool lists up before anything is measured
+            runSessions("warmup", 4, 4);
+
+            System.out.printf("%nClient chat benchmark (%d sessions × %d turns, prompt latency %d ms, %d tokens/s, tool latency %d ms)%n",
+                    SESSIONS, SCRIPT.size(), PROMPT_LATENCY.toMillis(), TOKENS_PER_SECOND, TOOL_LATENCY.toMillis());
+            System.out.printf("%-12s %10s %10s %10s %10s %12s %16s %16s%n", "parallelism", "turns/s", "p50 (ms)",
+                    "p95 (ms)", "p99 (ms)", "model/turn", "client KB/turn", "total KB/turn");
+            for (var parallelism : List.of(1, 4, 16)) {
+                var round = runSessions("bench-" + parallelism, SESSIONS, parallelism);
+                assertEquals(SESSIONS * SCRIPT.size(), round.turns());
+                System.out.printf("%-12d %10.1f %10d %10d %10d %12.2f %16d %16d%n", parallelism, round.turnsPerSecond(),
+                        round.latency().percentile(50), round.latency().percentile(95), round.latency().percentile(99),
+                        round.modelCallsPerTurn(), round.clientBytesPerTurn() / 1024, round.totalBytesPerTurn() / 1024);
+            }
+        } finally {
+            ollama.promptLatency = Duration.ZERO;
+            ollama.tokensPerSecond = 0;
+            mcpServer.toolLatency = Duration.ZERO;
+        }
+    }
+
+    /**
+     * Runs the script once per session, with {@code parallelism} sessions at a time. Client
+     * allocation is what the threads running the turns allocated; total allocation also counts
+     * the stand-ins and the HTTP and tool threads of the client.
+     */
+    private static Round runSessions(String prefix, int sessions, int parallelism) throws Exception {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        var latency = new Histogram();
+        var clientBytes = new LongAdder();
+        var executor = Executors.newFixedThreadPool(parallelism);
+        var modelCallsBefore = ollama.chatRequests.get();
+        var totalBefore = threads.getTotalThreadAllocatedBytes();
+        var started = System.nanoTime();
+        try {
+            var runs = new ArrayList<Future<?>>();
+            for (int i = 0; i < sessions; i++) {
+                var sessionId = prefix + "-" + i;
+                runs.add(executor.submit(() -> {
+                    try {
+                        for (var message : SCRIPT) {
+                            var allocated = threads.getCurrentThreadAllocatedBytes();
+                            var turnStarted = System.nanoTime();
+                            var answer = chatService.reply(sessionId, message);
+                            latency.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - turnStarted));
+                            clientBytes.add(threads.getCurrentThreadAllocatedBytes() - allocated);
+                            assertTrue(answer.text().startsWith("Answer:"), answer.text());
+                        }
+                    } finally {
+                        chatService.forgetSession(sessionId);
+                    }
+                    return null;
+                }));
+            }
+            for (var run : runs) {
+                run.get(5, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        var elapsed = System.nanoTime() - started;
+        var turns = (int) latency.count();
+        return new Round(turns, turns / (elapsed / 1e9), latency,
+                (double) (ollama.chatRequests.get() - modelCallsBefore) / Math.max(1, turns), clientBytes.sum() / Math.max(1, turns),
+                (threads.getTotalThreadAllocatedBytes() - totalBefore) / Math.max(1, turns));
+    }
+}
@@ -0,0 +1,160 @@
+package org.acme.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stands in for an MCP server over the Streamable HTTP transport, answering with plain JSON.
+ *
+ * It offers one tool, {@code lookup_species}, which answers {@code Details of <name>} after
+ * {@code toolLatency}. With {@code eventStream} it answers as SSE instead, spreading each
+ * message over several {@code data} lines. With {@code notificationStream} it serves the GET
+ * stream, on which {@link #notifyToolListChanged()} sends; otherwise GET is answered 405.
+ */
+public class FakeMcpServer implements AutoCloseable {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    final AtomicInteger toolCalls = new AtomicInteger();
+    volatile Duration toolLatency = Duration.ZERO;
+    public volatile boolean eventStream;
+    public volatile boolean notificationStream;
+    public final AtomicInteger notificationStreamRequests = new AtomicInteger();
+    private volatile HttpExchange openStream;
+
+    public FakeMcpServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        // Platform threads: the client pins virtual threads while it waits, which on a small
+        // machine could leave none to run the stand-in's handlers in the same JVM
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/mcp", this::handle);
+        server.start();
+    }
+
+    public String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/mcp";
+    }
+
+    /**
+     * Sends {@code notifications/tools/list_changed} on the open GET stream.
+     *
+     * @return false if no stream is open
+     */
+    public boolean notifyToolListChanged() throws IOException {
+        var stream = openStream;
+        if (stream == null) {
+            return false;
+        }
+        var body = stream.getResponseBody();
+        body.write(": keep-alive\n\ndata: {\"jsonrpc\": \"2.0\",\ndata: \"method\": \"notifications/tools/list_changed\"}\n\n"
+                .getBytes(StandardCharsets.UTF_8));
+        body.flush();
+        return true;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        if ("GET".equals(exchange.getRequestMethod())) {
+            notificationStreamRequests.incrementAndGet();
+            if (!notificationStream) {
+                exchange.sendResponseHeaders(405, -1);
+                exchange.close();
+                return;
+            }
+            // Left open until the server stops or the client goes away
+            exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, 0);
+            exchange.getResponseBody().flush();
+            openStream = exchange;
+            return;
+        }
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+            return;
+        }
+        var request = objectMapper.readTree(exchange.getRequestBody());
+        if (!request.has("id")) {
+            // Notifications are accepted without a body
+            exchange.sendResponseHeaders(202, -1);
+            exchange.close();
+            return;
+        }
+
+        var result = switch (request.path("method").asText()) {
+            case "initialize" -> objectMapper.readTree("""
+                    {"protocolVersion": "2025-03-26",
+                     "capabilities": {"tools": {}},
+                     "serverInfo": {"name": "species", "version": "1"}}
+                    """);
+            case "tools/list" -> objectMapper.readTree("""
+                    {"tools": [{
+                      "name": "lookup_species",
+                      "description": "Looks a monkey species up by name",
+                      "inputSchema": {"type": "object",
+                                      "properties": {"speciesName": {"type": "string"}},
+                                      "required": ["speciesName"]}
+                    }]}
+                    """);
+            case "tools/call" -> callTool(request.path("params"));
+            default -> objectMapper.createObjectNode();
+        };
+
+        var response = objectMapper.createObjectNode().put("jsonrpc", "2.0");
+        response.set("id", request.get("id"));
+        response.set("result", result);
+        exchange.getResponseHeaders().set("Mcp-Session-Id", "bench");
+        if (eventStream) {
+            var event = new StringBuilder(": response follows\nevent: message\n");
+            for (var line : objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(response).split("\n")) {
+                event.append("data: ").append(line).append('\n');
+            }
+            send(exchange, "text/event-stream", event.append('\n').toString().getBytes(StandardCharsets.UTF_8));
+        } else {
+            send(exchange, "application/json", objectMapper.writeValueAsBytes(response));
+        }
+    }
+
+    private static void send(HttpExchange exchange, String contentType, byte[] bytes) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private JsonNode callTool(JsonNode params) {
+        toolCalls.incrementAndGet();
+        try {
+            if (!toolLatency.isZero()) {
+                Thread.sleep(toolLatency);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        var result = objectMapper.createObjectNode().put("isError", false);
+        result.putArray("content").addObject()
+                .put("type", "text")
+                .put("text", "Details of " + params.path("arguments").path("speciesName").asText("?"));
+        return result;
+    }
+
+    @Override
+    public void close() {
+        var stream = openStream;
+        if (stream != null) {
+            stream.close();
+        }
+        server.stop(0);
+    }
+}
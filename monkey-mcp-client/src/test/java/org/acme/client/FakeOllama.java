@@ -0,0 +1,151 @@
+package org.acme.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stands in for Ollama on a local port, speaking the parts of its HTTP API the client uses.
+ *
+ * Replies are scripted from the last message: a user message offered tools gets one
+ * {@code lookup_species} call per capitalized word after the first, anything else gets an
+ * answer of {@code answerTokens} words that quotes the tool results it was given. Every reply
+ * waits {@code promptLatency} before its first token and then produces tokens at
+ * {@code tokensPerSecond}. Replies are never streamed, which is how {@code ask} and the
+ * gateway call the model.
+ */
+class FakeOllama implements AutoCloseable {
+
+    static final String MODEL = "llama3.2";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    final AtomicInteger chatRequests = new AtomicInteger();
+    volatile Duration promptLatency = Duration.ZERO;
+    volatile double tokensPerSecond = 0;
+    volatile int answerTokens = 20;
+    volatile int lastMessageCount;
+
+    FakeOllama() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        // Platform threads: the client pins virtual threads while it waits, which on a small
+        // machine could leave none to run the stand-in's handlers in the same JVM
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/api/tags", exchange -> respond(exchange, objectMapper.createObjectNode()
+                .set("models", objectMapper.createArrayNode().add(objectMapper.createObjectNode().put("name", MODEL + ":latest")))));
+        server.createContext("/api/generate", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            respond(exchange, objectMapper.createObjectNode().put("model", MODEL).put("response", "")
+                    .put("done", true).put("done_reason", "load"));
+        });
+        server.createContext("/api/chat", this::chat);
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private void chat(HttpExchange exchange) throws IOException {
+        var request = objectMapper.readTree(exchange.getRequestBody());
+        chatRequests.incrementAndGet();
+        var messages = request.path("messages");
+        lastMessageCount = messages.size();
+        var last = messages.get(messages.size() - 1);
+
+        var message = objectMapper.createObjectNode().put("role", "assistant").put("content", "");
+        var words = new ArrayList<String>();
+        var lookups = "user".equals(last.path("role").asText()) && request.path("tools").size() > 0
+                ? lookups(last.path("content").asText())
+                : List.<String>of();
+        if (!lookups.isEmpty()) {
+            var toolCalls = message.putArray("tool_calls");
+            lookups.forEach(name -> toolCalls.addObject().putObject("function")
+                    .put("name", "lookup_species")
+                    .putObject("arguments").put("speciesName", name));
+        } else {
+            words.addAll(answer(messages));
+        }
+        var promptTokens = messages.toString().length() / 4;
+
+        sleep(promptLatency);
+        sleep(tokenTime(words.size()));
+        message.put("content", String.join(" ", words));
+        respond(exchange, done(promptTokens, words.size()).set("message", message));
+    }
+
+    private static List<String> lookups(String content) {
+        var words = content.replaceAll("[^\\p{L}\\s]", " ").trim().split("\\s+");
+        var names = new ArrayList<String>();
+        for (int i = 1; i < words.length; i++) {
+            if (!words[i].isEmpty() && Character.isUpperCase(words[i].charAt(0))) {
+                names.add(words[i]);
+            }
+        }
+        return names;
+    }
+
+    private List<String> answer(JsonNode messages) {
+        var words = new ArrayList<String>();
+        words.add("Answer:");
+        for (var message : messages) {
+            if ("tool".equals(message.path("role").asText())) {
+                words.add("[" + message.path("content").asText() + "]");
+            }
+        }
+        while (words.size() < answerTokens) {
+            words.add("word" + words.size());
+        }
+        return words;
+    }
+
+    private ObjectNode done(int promptTokens, int outputTokens) {
+        return objectMapper.createObjectNode()
+                .put("model", MODEL)
+                .put("done", true)
+                .put("done_reason", "stop")
+                .put("prompt_eval_count", promptTokens)
+                .put("eval_count", Math.max(1, outputTokens));
+    }
+
+    private Duration tokenTime(int tokens) {
+        var rate = tokensPerSecond;
+        return rate > 0 ? Duration.ofNanos((long) (tokens * 1e9 / rate)) : Duration.ZERO;
+    }
+
+    private void respond(HttpExchange exchange, JsonNode json) throws IOException {
+        var bytes = objectMapper.writeValueAsBytes(json);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (var out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        if (duration.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,212 @@
+package org.acme.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.mcp.client.McpClient;
+import dev.langchain4j.mcp.client.McpGetPromptResult;
+import dev.langchain4j.mcp.client.McpPrompt;
+import dev.langchain4j.mcp.client.McpReadResourceResult;
+import dev.langchain4j.mcp.client.McpResource;
+import dev.langchain4j.mcp.client.McpResourceTemplate;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemoizingMcpClientTest {
+
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    /**
+     * Stands in for a server: answers each call with the tool, arguments and call number, so
+     * a repeated answer can only have come from the cache.
+     */
+    private static class StubClient implements McpClient {
+
+        final List<String> calls = new ArrayList<>();
+        volatile String nextResult;
+        volatile RuntimeException nextFailure;
+
+        @Override
+        public String executeTool(ToolExecutionRequest request) {
+            calls.add(request.name() + " " + request.arguments());
+            if (nextFailure != null) {
+                var failure = nextFailure;
+                nextFailure = null;
+                throw failure;
+            }
+            if (nextResult != null) {
+                var result = nextResult;
+                nextResult = null;
+                return result;
+            }
+            return request.name() + " " + request.arguments() + " #" + calls.size();
+        }
+
+        @Override
+        public String key() {
+            return "stub";
+        }
+
+        @Override
+        public List<ToolSpecification> listTools() {
+            return List.of();
+        }
+
+        @Override
+        public List<McpResource> listResources() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<McpResourceTemplate> listResourceTemplates() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public McpReadResourceResult readResource(String uri) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<McpPrompt> listPrompts() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public McpGetPromptResult getPrompt(String name, Map<String, Object> arguments) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void checkHealth() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    @Test
+    void testCacheableToolsAreServedFromCacheAndOthersAreNot() {
+        var stub = new StubClient();
+        var client = new MemoizingMcpClient(stub, Map.of("list_monkey_species", TTL), 16);
+
+        var first = client.executeTool(request("list_monkey_species", "{}"));
+        assertEquals(first, client.executeTool(request("list_monkey_species", "{}")));
+        assertEquals(1, stub.calls.size());
+
+        var random = client.executeTool(request("get_random_monkey_species", "{}"));
+        assertNotEquals(random, client.executeTool(request("get_random_monkey_species", "{}")));
+        assertEquals(3, stub.calls.size());
+    }
+
+    @Test
+    void testEquivalentArgumentsShareOneEntry() {
+        var stub = new StubClient();
+        var client = new MemoizingMcpClient(stub, Map.of("get_monkey_species_details", TTL), 16);
+
+        var first = client.executeTool(request("get_monkey_species_details", "{\"speciesName\":\"Mandrill\",\"format\":\"compact\"}"));
+        assertEquals(first, client.executeTool(request("get_monkey_species_details",
+                "{ \"format\": \"compact\", \"speciesName\": \"Mandrill\" }")));
+        assertNotEquals(first, client.executeTool(request("get_monkey_species_details", "{\"speciesName\":\"Howler Monkey\"}")));
+        assertEquals(2, stub.calls.size());
+
+        assertEquals("{\"a\":{\"b\":2,\"c\":1},\"d\":[3,1]}", MemoizingMcpClient.canonicalArguments("{\"d\":[3,1],\"a\":{\"c\":1,\"b\":2}}"));
+        assertEquals("{}", MemoizingMcpClient.canonicalArguments(null));
+        assertEquals("{}", MemoizingMcpClient.canonicalArguments(" "));
+        assertEquals("not json", MemoizingMcpClient.canonicalArguments("not json"));
+    }
+
+    @Test
+    void testEntriesExpireAfterTheirToolsTtl() throws Exception {
+        var stub = new StubClient();
+        var client = new MemoizingMcpClient(stub, Map.of(
+                "list_monkey_species", Duration.ofMillis(50),
+                "get_monkey_species_stats", TTL), 16);
+
+        var list = client.executeTool(request("list_monkey_species", "{}"));
+        var stats = client.executeTool(request("get_monkey_species_stats", "{}"));
+        Thread.sleep(100);
+
+        assertNotEquals(list, client.executeTool(request("list_monkey_species", "{}")));
+        assertEquals(stats, client.executeTool(request("get_monkey_species_stats", "{}")));
+        assertEquals(3, stub.calls.size());
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvictedAtTheBound() {
+        var stub = new StubClient();
+        var client = new MemoizingMcpClient(stub, Map.of("get_monkey_species_details", TTL), 2);
+
+        var mandrill = client.executeTool(details("Mandrill"));
+        var howler = client.executeTool(details("Howler Monkey"));
+        assertEquals(mandrill, client.executeTool(details("Mandrill")));
+        client.executeTool(details("Spider Monkey"));
+        assertEquals(3, stub.calls.size());
+
+        assertEquals(mandrill, client.executeTool(details("Mandrill")));
+        assertNotEquals(howler, client.executeTool(details("Howler Monkey")));
+        assertEquals(4, stub.calls.size());
+    }
+
+    @Test
+    void testErrorsAreNotCached() {
+        var stub = new StubClient();
+        var client = new MemoizingMcpClient(stub, Map.of("list_monkey_species", TTL), 16);
+
+        stub.nextResult = "There was an error executing the tool. The tool returned: boom";
+        assertTrue(client.executeTool(request("list_monkey_species", "{}")).startsWith("There was an error"));
+        stub.nextFailure = new IllegalStateException("connection refused");
+        assertThrows(IllegalStateException.class, () -> client.executeTool(request("list_monkey_species", "{}")));
+
+        var result = client.executeTool(request("list_monkey_species", "{}"));
+        assertFalse(result.startsWith("There was an error"), result);
+        assertEquals(result, client.executeTool(request("list_monkey_species", "{}")));
+        assertEquals(3, stub.calls.size());
+    }
+
+    @Test
+    void testTimeoutsAreNotCached() {
+        var stub = new StubClient();
+        var client = new MemoizingMcpClient(stub, Map.of("list_monkey_species", TTL), 16);
+
+        stub.nextResult = ToolResults.TIMEOUT_PREFIX + ". The tool did not return within 60 seconds";
+        assertTrue(ToolResults.isTimeout(client.executeTool(request("list_monkey_species", "{}"))));
+
+        // The next call goes to the server again and its answer is the one cached
+        var result = client.executeTool(request("list_monkey_species", "{}"));
+        assertFalse(ToolResults.isFailure(result), result);
+        assertEquals(2, stub.calls.size());
+        assertEquals(result, client.executeTool(request("list_monkey_species", "{}")));
+        assertEquals(2, stub.calls.size());
+    }
+
+    @Test
+    void testWrapOnlyMemoizesWhenSomeToolIsCacheable() throws Exception {
+        var mapper = new ObjectMapper();
+        var stub = new StubClient();
+
+        assertSame(stub, MemoizingMcpClient.wrap(stub, null));
+        assertSame(stub, MemoizingMcpClient.wrap(stub, mapper.readTree("{\"tools\": {\"list_monkey_species\": 0}}")));
+
+        var client = MemoizingMcpClient.wrap(stub, mapper.readTree("{\"maxEntries\": 1, \"tools\": {\"list_monkey_species\": 300}}"));
+        assertInstanceOf(MemoizingMcpClient.class, client);
+        var first = client.executeTool(request("list_monkey_species", "{}"));
+        assertEquals(first, client.executeTool(request("list_monkey_species", "{}")));
+        assertEquals(1, stub.calls.size());
+    }
+
+    private static ToolExecutionRequest details(String speciesName) {
+        return request("get_monkey_species_details", "{\"speciesName\":\"" + speciesName + "\"}");
+    }
+
+    private static ToolExecutionRequest request(String tool, String arguments) {
+        return ToolExecutionRequest.builder().name(tool).arguments(arguments).build();
+    }
+}
@@ -0,0 +1,134 @@
+package org.acme.client;
+
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.ModelProvider;
+import dev.langchain4j.model.chat.listener.ChatModelResponseContext;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.service.tool.ToolExecutor;
+import dev.langchain4j.service.tool.ToolProviderRequest;
+import dev.langchain4j.service.tool.ToolProviderResult;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelToolCallsTest {
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger maxActive = new AtomicInteger();
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private final ToolSpecification lookup = ToolSpecification.builder()
+            .name("lookup")
+            .description("Looks a species up")
+            .build();
+
+    /**
+     * Sleeps for the number of milliseconds given as arguments and echoes them back.
+     */
+    private final ToolExecutor sleepy = (request, memoryId) -> {
+        executions.incrementAndGet();
+        maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(Long.parseLong(request.arguments()));
+            return "slept " + request.arguments();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            active.decrementAndGet();
+        }
+    };
+
+    @Test
+    void testCallsOfOneResponseRunConcurrentlyAndReturnInOrder() {
+        var parallel = new ParallelToolCalls(4, Duration.ofSeconds(5));
+        var toolExecutor = wrapped(parallel);
+        var requests = requests("300", "100", "200");
+
+        var started = System.nanoTime();
+        parallel.onResponse(response(requests));
+        var results = new ArrayList<String>();
+        for (var request : requests) {
+            results.add(toolExecutor.execute(request, "memory"));
+        }
+        var elapsed = Duration.ofNanos(System.nanoTime() - started);
+
+        assertEquals(List.of("slept 300", "slept 100", "slept 200"), results);
+        assertEquals(3, executions.get());
+        assertEquals(3, maxActive.get());
+        assertTrue(elapsed.toMillis() < 550, "took " + elapsed.toMillis() + " ms");
+    }
+
+    @Test
+    void testConcurrencyIsCapped() {
+        var parallel = new ParallelToolCalls(2, Duration.ofSeconds(5));
+        var toolExecutor = wrapped(parallel);
+        var requests = requests("100", "100", "100", "100", "100");
+
+        parallel.onResponse(response(requests));
+        requests.forEach(request -> assertEquals("slept 100", toolExecutor.execute(request, "memory")));
+
+        assertEquals(5, executions.get());
+        assertEquals(2, maxActive.get());
+    }
+
+    @Test
+    void testSlowCallTimesOutWithoutHoldingUpTheOthers() {
+        var parallel = new ParallelToolCalls(4, Duration.ofMillis(200));
+        var toolExecutor = wrapped(parallel);
+        var requests = requests("50", "5000", "50");
+
+        var started = System.nanoTime();
+        parallel.onResponse(response(requests));
+        var results = requests.stream().map(request -> toolExecutor.execute(request, "memory")).toList();
+
+        assertEquals("slept 50", results.get(0));
+        assertTrue(results.get(1).startsWith("Error: tool lookup did not answer"), results.get(1));
+        assertEquals("slept 50", results.get(2));
+        assertTrue(Duration.ofNanos(System.nanoTime() - started).toMillis() < 2000);
+    }
+
+    @Test
+    void testSingleCallsRunWithoutPrefetching() {
+        var parallel = new ParallelToolCalls(4, Duration.ofSeconds(5));
+        var toolExecutor = wrapped(parallel);
+        var requests = requests("10");
+
+        parallel.onResponse(response(requests));
+        assertEquals(0, executions.get());
+        assertEquals("slept 10", toolExecutor.execute(requests.get(0), "memory"));
+        assertEquals(1, executions.get());
+    }
+
+    private ToolExecutor wrapped(ParallelToolCalls parallel) {
+        var provider = parallel.wrap(request -> new ToolProviderResult(Map.of(lookup, sleepy)));
+        return provider.provideTools(new ToolProviderRequest("memory", UserMessage.from("compare"))).tools().get(lookup);
+    }
+
+    private static List<ToolExecutionRequest> requests(String... arguments) {
+        var requests = new ArrayList<ToolExecutionRequest>();
+        for (int i = 0; i < arguments.length; i++) {
+            requests.add(ToolExecutionRequest.builder().id(String.valueOf(i)).name("lookup").arguments(arguments[i]).build());
+        }
+        return requests;
+    }
+
+    private ChatModelResponseContext response(List<ToolExecutionRequest> requests) {
+        var request = ChatRequest.builder()
+                .messages(UserMessage.from("compare"))
+                .toolSpecifications(lookup)
+                .build();
+        var response = ChatResponse.builder().aiMessage(AiMessage.from(requests)).build();
+        return new ChatModelResponseContext(response, request, ModelProvider.OLLAMA, new HashMap<>());
+    }
+}
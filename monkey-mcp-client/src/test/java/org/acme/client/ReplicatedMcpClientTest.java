@@ -0,0 +1,263 @@
+package org.acme.client;
+
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.mcp.client.McpClient;
+import dev.langchain4j.mcp.client.McpGetPromptResult;
+import dev.langchain4j.mcp.client.McpPrompt;
+import dev.langchain4j.mcp.client.McpReadResourceResult;
+import dev.langchain4j.mcp.client.McpResource;
+import dev.langchain4j.mcp.client.McpResourceTemplate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicatedMcpClientTest {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Stands in for one replica: answers with its own name after a configurable delay, or fails.
+     */
+    private static class FakeReplica implements McpClient {
+
+        final String name;
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicInteger maxActive = new AtomicInteger();
+        volatile long delayMillis;
+        volatile boolean failing;
+
+        FakeReplica(String name, long delayMillis) {
+            this.name = name;
+            this.delayMillis = delayMillis;
+        }
+
+        @Override
+        public String executeTool(ToolExecutionRequest request) {
+            calls.incrementAndGet();
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(delayMillis);
+                if (failing) {
+                    throw new IllegalStateException(name + " is down");
+                }
+                return name;
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                active.decrementAndGet();
+            }
+        }
+
+        @Override
+        public String key() {
+            return name;
+        }
+
+        @Override
+        public List<ToolSpecification> listTools() {
+            if (failing) {
+                throw new IllegalStateException(name + " is down");
+            }
+            return List.of(ToolSpecification.builder().name("lookup").build());
+        }
+
+        @Override
+        public List<McpResource> listResources() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<McpResourceTemplate> listResourceTemplates() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public McpReadResourceResult readResource(String uri) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<McpPrompt> listPrompts() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public McpGetPromptResult getPrompt(String name, Map<String, Object> arguments) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void checkHealth() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testCallsGoToTheReplicaWithFewestInFlight() throws Exception {
+        var a = new FakeReplica("a", 100);
+        var b = new FakeReplica("b", 100);
+        var client = client(settings(false, 3, Duration.ofSeconds(30)), a, b);
+
+        var results = new ArrayList<Future<String>>();
+        for (int i = 0; i < 10; i++) {
+            results.add(executor.submit(() -> client.executeTool(request())));
+        }
+        for (var result : results) {
+            assertNotNull(result.get());
+        }
+
+        assertEquals(10, a.calls.get() + b.calls.get());
+        assertTrue(Math.abs(a.calls.get() - b.calls.get()) <= 2, a.calls + " vs " + b.calls);
+    }
+
+    @Test
+    void testSlowReplicaIsHedged() {
+        var a = new FakeReplica("a", 5);
+        var b = new FakeReplica("b", 5);
+        var client = client(settings(true, 3, Duration.ofSeconds(30)), a, b);
+        for (int i = 0; i < 30; i++) {
+            client.executeTool(request());
+        }
+        assertTrue(client.hedgeDelay("lookup").isPresent());
+
+        a.delayMillis = 2000;
+        for (int i = 0; i < 4; i++) {
+            var started = System.nanoTime();
+            assertEquals("b", client.executeTool(request()));
+            assertTrue(Duration.ofNanos(System.nanoTime() - started).toMillis() < 1000);
+        }
+    }
+
+    @Test
+    void testToolsNotListedAsIdempotentRunOnExactlyOneReplica() {
+        var a = new FakeReplica("a", 5);
+        var b = new FakeReplica("b", 5);
+        var client = client(settings(true, 3, Duration.ofSeconds(30)), a, b);
+        for (int i = 0; i < 30; i++) {
+            client.executeTool(request("get_random_monkey_species"));
+        }
+        a.calls.set(0);
+        b.calls.set(0);
+
+        a.delayMillis = 500;
+        b.delayMillis = 500;
+        assertNotNull(client.executeTool(request("get_random_monkey_species")));
+        assertEquals(1, a.calls.get() + b.calls.get());
+
+        a.failing = true;
+        b.failing = true;
+        assertThrows(IllegalStateException.class, () -> client.executeTool(request("get_random_monkey_species")));
+        assertEquals(2, a.calls.get() + b.calls.get());
+    }
+
+    @Test
+    void testNoHedgingBeforeLatenciesAreKnown() {
+        var client = client(settings(true, 3, Duration.ofSeconds(30)), new FakeReplica("a", 1));
+        assertTrue(client.hedgeDelay("lookup").isEmpty());
+    }
+
+    @Test
+    void testFailingReplicaIsFailedOverAndSkipped() {
+        var a = new FakeReplica("a", 1);
+        var b = new FakeReplica("b", 1);
+        a.failing = true;
+        var client = client(settings(false, 2, Duration.ofSeconds(30)), a, b);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("b", client.executeTool(request()));
+        }
+        assertEquals(2, a.calls.get());
+        assertEquals(10, b.calls.get());
+    }
+
+    @Test
+    void testOpenBreakerIsProbedAfterItsOpenDuration() throws Exception {
+        var a = new FakeReplica("a", 1);
+        var b = new FakeReplica("b", 1);
+        a.failing = true;
+        var client = client(settings(false, 1, Duration.ofMillis(100)), a, b);
+
+        for (int i = 0; i < 4; i++) {
+            client.executeTool(request());
+        }
+        assertEquals(1, a.calls.get());
+
+        a.failing = false;
+        Thread.sleep(150);
+        var answers = new ArrayList<String>();
+        for (int i = 0; i < 4; i++) {
+            answers.add(client.executeTool(request()));
+        }
+        assertTrue(answers.contains("a"), answers.toString());
+    }
+
+    @Test
+    void testAllReplicasFailing() {
+        var a = new FakeReplica("a", 1);
+        var b = new FakeReplica("b", 1);
+        a.failing = true;
+        b.failing = true;
+        var client = client(settings(false, 1, Duration.ofSeconds(30)), a, b);
+
+        assertThrows(IllegalStateException.class, () -> client.executeTool(request()));
+        assertThrows(IllegalStateException.class, () -> client.executeTool(request()));
+        assertThrows(IllegalStateException.class, client::listTools);
+    }
+
+    @Test
+    void testClientIsReadyOnceOneReplicaConnects() throws Exception {
+        var connections = Map.<String, CompletableFuture<McpClient>>of(
+                "http://down/mcp", CompletableFuture.failedFuture(new IllegalStateException("refused")),
+                "http://up/mcp", CompletableFuture.completedFuture(new FakeReplica("up", 1)));
+        var client = ReplicatedMcpClient.connect("monkeymcp", connections,
+                settings(true, 3, Duration.ofSeconds(30)), executor).get();
+
+        assertEquals("monkeymcp", client.key());
+        assertEquals("up", client.executeTool(request()));
+        assertEquals(1, client.listTools().size());
+    }
+
+    private static ReplicatedMcpClient.Settings settings(boolean hedge, int failureThreshold, Duration openDuration) {
+        return new ReplicatedMcpClient.Settings(hedge, 95, Duration.ofMillis(20), failureThreshold, openDuration,
+                Set.of("lookup"));
+    }
+
+    private ReplicatedMcpClient client(ReplicatedMcpClient.Settings settings, FakeReplica... fakes) {
+        var replicas = new ArrayList<ReplicatedMcpClient.Replica>();
+        for (var fake : fakes) {
+            replicas.add(new ReplicatedMcpClient.Replica("http://" + fake.name + "/mcp",
+                    CompletableFuture.completedFuture(fake)));
+        }
+        return new ReplicatedMcpClient("monkeymcp", replicas, settings, executor);
+    }
+
+    private static ToolExecutionRequest request() {
+        return request("lookup");
+    }
+
+    private static ToolExecutionRequest request(String tool) {
+        return ToolExecutionRequest.builder().id("1").name(tool).arguments("{}").build();
+    }
+}
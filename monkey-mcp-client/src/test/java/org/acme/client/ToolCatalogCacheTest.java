@@ -0,0 +1,146 @@
+package org.acme.client;
+
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.model.chat.request.json.JsonObjectSchema;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ToolCatalogCacheTest {
+
+    private static final String URL = "http://localhost:8080/mcp/sse";
+    private static final Duration TTL = Duration.ofHours(24);
+    private static final Duration REVALIDATE_AFTER = Duration.ofHours(1);
+
+    @TempDir
+    Path dir;
+
+    private final MutableClock clock = new MutableClock();
+
+    @Test
+    void testEntriesAreKeyedByUrlAndTransportType() {
+        var cache = cache();
+        assertTrue(cache.put(URL, "sse", List.of(details())));
+
+        assertEquals(List.of(details()), cache.get(URL, "sse").orElseThrow().tools());
+        assertTrue(cache.get(URL, "http").isEmpty());
+        assertTrue(cache.get("http://localhost:8081/mcp/sse", "sse").isEmpty());
+    }
+
+    @Test
+    void testHashTellsWhetherTheCatalogChanged() {
+        var cache = cache();
+        cache.put(URL, "sse", List.of(details()));
+        var hash = cache.get(URL, "sse").orElseThrow().hash();
+
+        assertFalse(cache.put(URL, "sse", List.of(details())));
+        assertEquals(hash, cache.get(URL, "sse").orElseThrow().hash());
+
+        assertTrue(cache.put(URL, "sse", List.of(details(), stats())));
+        assertNotEquals(hash, cache.get(URL, "sse").orElseThrow().hash());
+    }
+
+    @Test
+    void testEntriesAreRevalidatedWhenDueAndDroppedWhenExpired() {
+        var cache = cache();
+        cache.put(URL, "sse", List.of(details()));
+        assertFalse(cache.isDueForRevalidation(cache.get(URL, "sse").orElseThrow()));
+
+        clock.advance(REVALIDATE_AFTER);
+        assertTrue(cache.isDueForRevalidation(cache.get(URL, "sse").orElseThrow()));
+
+        clock.advance(TTL);
+        assertTrue(cache.get(URL, "sse").isEmpty());
+
+        // Refreshing the entry makes it fresh again
+        cache.put(URL, "sse", List.of(details()));
+        assertFalse(cache.isDueForRevalidation(cache.get(URL, "sse").orElseThrow()));
+    }
+
+    @Test
+    void testCorruptFileIsIgnored() throws Exception {
+        var file = dir.resolve("tool-cache.json");
+        Files.writeString(file, "{\"servers\": {\"" + URL + "\": {\"type\": \"sse\", \"fetchedAt\": \"yesterday\"");
+
+        var cache = new ToolCatalogCache(file, TTL, REVALIDATE_AFTER, clock);
+        assertTrue(cache.get(URL, "sse").isEmpty());
+
+        assertTrue(cache.put(URL, "sse", List.of(details())));
+        assertEquals(List.of(details()), reopen().get(URL, "sse").orElseThrow().tools());
+    }
+
+    @Test
+    void testWritesReplaceTheFileWholeAndLeaveNoTemporaryFiles() throws Exception {
+        var cache = cache();
+        cache.put(URL, "sse", List.of(details(), stats()));
+        cache.put("http://localhost:8080/mcp", "http", List.of(stats()));
+        cache.invalidate(URL);
+
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(List.of(dir.resolve("tool-cache.json")), files.toList());
+        }
+        var reopened = reopen();
+        assertTrue(reopened.get(URL, "sse").isEmpty());
+        assertEquals(List.of(stats()), reopened.get("http://localhost:8080/mcp", "http").orElseThrow().tools());
+        assertEquals(cache.get("http://localhost:8080/mcp", "http").orElseThrow().hash(),
+                reopened.get("http://localhost:8080/mcp", "http").orElseThrow().hash());
+    }
+
+    private ToolCatalogCache cache() {
+        return new ToolCatalogCache(dir.resolve("tool-cache.json"), TTL, REVALIDATE_AFTER, clock);
+    }
+
+    private ToolCatalogCache reopen() {
+        return cache();
+    }
+
+    private static ToolSpecification details() {
+        return ToolSpecification.builder()
+                .name("get_monkey_species_details")
+                .description("Get detailed information for a specific monkey species by name")
+                .parameters(JsonObjectSchema.builder().addStringProperty("speciesName").required("speciesName").build())
+                .build();
+    }
+
+    private static ToolSpecification stats() {
+        return ToolSpecification.builder()
+                .name("get_monkey_species_stats")
+                .description("Get statistics about the monkey species database")
+                .parameters(JsonObjectSchema.builder().build())
+                .build();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
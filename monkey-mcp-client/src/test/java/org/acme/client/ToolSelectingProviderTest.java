@@ -0,0 +1,79 @@
+package org.acme.client;
+
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.request.json.JsonObjectSchema;
+import dev.langchain4j.service.tool.ToolExecutor;
+import dev.langchain4j.service.tool.ToolProviderRequest;
+import dev.langchain4j.service.tool.ToolProviderResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ToolSelectingProviderTest {
+
+    private final Map<ToolSpecification, ToolExecutor> tools = new LinkedHashMap<>();
+
+    ToolSelectingProviderTest() {
+        tool("list_monkey_species", "Lists all monkey species with their location and population", null);
+        tool("get_monkey_species_details", "Gets the details of one monkey species",
+                JsonObjectSchema.builder().addStringProperty("speciesName").build());
+        tool("get_random_monkey_species", "Picks a random monkey species", null);
+        tool("get_weather_forecast", "Returns the weather forecast for a city",
+                JsonObjectSchema.builder().addStringProperty("city").build());
+        tool("search_issues", "Searches the issue tracker for open bugs",
+                JsonObjectSchema.builder().addStringProperty("query").build());
+    }
+
+    @Test
+    void testMostRelevantToolsAreOffered() {
+        var provider = new ToolSelectingProvider(request -> new ToolProviderResult(tools), 2);
+
+        assertEquals(List.of("get_weather_forecast", "list_monkey_species"),
+                offered(provider, "What is the weather forecast in Lisbon?"));
+        assertEquals("get_random_monkey_species", offered(provider, "Tell me about a random monkey").getFirst());
+        assertEquals("get_monkey_species_details", offered(provider, "Details for the species named Mandrill").getFirst());
+        assertEquals("search_issues", offered(provider, "Are there open bugs?").getFirst());
+    }
+
+    @Test
+    void testAllToolsAreOfferedWhenFewerThanTheLimit() {
+        var result = new ToolProviderResult(tools);
+        var provider = new ToolSelectingProvider(request -> result, 5);
+
+        assertSame(result, provider.provideTools(new ToolProviderRequest("id", UserMessage.from("hello"))));
+        assertSame(result, new ToolSelectingProvider(request -> result, 0)
+                .provideTools(new ToolProviderRequest("id", UserMessage.from("hello"))));
+    }
+
+    @Test
+    void testUnmatchedQueryKeepsRegistrationOrder() {
+        var provider = new ToolSelectingProvider(request -> new ToolProviderResult(tools), 3);
+
+        assertEquals(List.of("list_monkey_species", "get_monkey_species_details", "get_random_monkey_species"),
+                offered(provider, "hello there"));
+    }
+
+    @Test
+    void testTermsSplitIdentifiersAndPlurals() {
+        assertEquals(List.of("specie", "name", "monkey", "specie"),
+                ToolSelectingProvider.terms("speciesName of the monkey_species"));
+    }
+
+    private List<String> offered(ToolSelectingProvider provider, String question) {
+        var result = provider.provideTools(new ToolProviderRequest("id", UserMessage.from(question)));
+        var selected = result.tools().keySet().stream().map(ToolSpecification::name).toList();
+        // Executors travel with their tools
+        result.tools().forEach((tool, executor) -> assertSame(tools.get(tool), executor));
+        return selected;
+    }
+
+    private void tool(String name, String description, JsonObjectSchema parameters) {
+        var tool = ToolSpecification.builder().name(name).description(description).parameters(parameters).build();
+        tools.put(tool, (request, memoryId) -> name);
+    }
+}
@@ -0,0 +1,156 @@
+package org.acme.client.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import dev.langchain4j.exception.HttpException;
+import dev.langchain4j.http.client.HttpMethod;
+import dev.langchain4j.http.client.HttpRequest;
+import dev.langchain4j.http.client.sse.DefaultServerSentEventParser;
+import dev.langchain4j.http.client.sse.ServerSentEvent;
+import dev.langchain4j.http.client.sse.ServerSentEventListener;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SharedHttpClientTest {
+
+    private HttpServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/echo", exchange -> {
+            var body = exchange.getRequestBody().readAllBytes();
+            respond(exchange, 200, "text/plain", exchange.getRequestMethod() + " " + new String(body, StandardCharsets.UTF_8));
+        });
+        server.createContext("/events", exchange -> respond(exchange, 200, "text/event-stream",
+                "data: one\n\nevent: last\ndata: two\n\n"));
+        server.createContext("/missing", exchange -> respond(exchange, 404, "text/plain", "no such thing"));
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void testSequentialRequestsReuseOneConnection() throws Exception {
+        var client = SharedHttpClient.create(4, Duration.ofSeconds(30), 8, true);
+        var stats = SharedHttpClient.stats();
+        var opened = stats.opened();
+        var requests = stats.requests();
+
+        for (int i = 0; i < 5; i++) {
+            try (var response = SharedHttpClient.send(client, new Request.Builder().url(url("/echo")).build())
+                    .get(5, TimeUnit.SECONDS)) {
+                assertEquals("GET ", response.body().string());
+            }
+        }
+
+        assertEquals(1, stats.opened() - opened);
+        assertEquals(5, stats.requests() - requests);
+    }
+
+    @Test
+    void testCallsRunOnPlatformThreads() throws Exception {
+        var client = SharedHttpClient.create(4, Duration.ofSeconds(30), 8, true);
+        var thread = new CompletableFuture<Thread>();
+
+        client.newCall(new Request.Builder().url(url("/echo")).build()).enqueue(new Callback() {
+
+            @Override
+            public void onFailure(Call call, IOException e) {
+                thread.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                response.close();
+                thread.complete(Thread.currentThread());
+            }
+        });
+
+        assertFalse(thread.get(5, TimeUnit.SECONDS).isVirtual());
+    }
+
+    @Test
+    void testLangChainClientSendsBodiesAndReportsErrors() {
+        var client = LangChainHttpClient.builder().connectTimeout(Duration.ofSeconds(5)).readTimeout(Duration.ofSeconds(5)).build();
+
+        var response = client.execute(HttpRequest.builder()
+                .method(HttpMethod.POST)
+                .url(url("/echo"))
+                .addHeader("Content-Type", "application/json")
+                .body("{\"model\":\"llama3.2\"}")
+                .build());
+        assertEquals(200, response.statusCode());
+        assertEquals("POST {\"model\":\"llama3.2\"}", response.body());
+
+        var error = assertThrows(HttpException.class, () -> client.execute(HttpRequest.builder()
+                .method(HttpMethod.GET)
+                .url(url("/missing"))
+                .build()));
+        assertEquals(404, error.statusCode());
+    }
+
+    @Test
+    void testLangChainClientStreamsEvents() throws Exception {
+        var client = LangChainHttpClient.builder().build();
+        var events = new CopyOnWriteArrayList<ServerSentEvent>();
+        var closed = new CompletableFuture<Void>();
+
+        client.execute(HttpRequest.builder().method(HttpMethod.GET).url(url("/events")).build(),
+                new DefaultServerSentEventParser(), new ServerSentEventListener() {
+
+                    @Override
+                    public void onEvent(ServerSentEvent event) {
+                        events.add(event);
+                    }
+
+                    @Override
+                    public void onError(Throwable error) {
+                        closed.completeExceptionally(error);
+                    }
+
+                    @Override
+                    public void onClose() {
+                        closed.complete(null);
+                    }
+                });
+
+        closed.get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("one", "two"), events.stream().map(ServerSentEvent::data).toList());
+        assertEquals("last", events.get(1).event());
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + server.getAddress().getPort() + path;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body)
+            throws IOException {
+        var bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (var out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
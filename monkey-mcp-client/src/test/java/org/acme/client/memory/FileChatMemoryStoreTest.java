@@ -0,0 +1,169 @@
+package org.acme.client.memory;
+
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.memory.chat.MessageWindowChatMemory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileChatMemoryStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testMessagesSurviveReopening() {
+        var store = new FileChatMemoryStore(dir);
+        List<ChatMessage> messages = List.of(
+                SystemMessage.from("You are helpful"),
+                UserMessage.from("Tell me about mandrills"),
+                AiMessage.from(ToolExecutionRequest.builder()
+                        .id("1").name("get_monkey_species_details").arguments("{\"speciesName\":\"Mandrill\"}").build()),
+                ToolExecutionResultMessage.from("1", "get_monkey_species_details", "Species Name: Mandrill"),
+                AiMessage.from("Mandrills live in Central Africa."));
+        store.updateMessages("operator", messages);
+
+        assertEquals(messages, new FileChatMemoryStore(dir).getMessages("operator"));
+    }
+
+    @Test
+    void testUpdatesAppendOnlyTheDifference() throws Exception {
+        var store = new FileChatMemoryStore(dir);
+        var system = SystemMessage.from("You are helpful");
+        store.updateMessages("s", List.of(system, UserMessage.from("one")));
+        store.updateMessages("s", List.of(system, UserMessage.from("one"), AiMessage.from("two")));
+        // The window evicts the oldest message after the pinned system message
+        store.updateMessages("s", List.of(system, AiMessage.from("two"), UserMessage.from("three")));
+
+        var lines = Files.readAllLines(logOf("s"));
+        assertEquals(5, lines.size(), String.join("\n", lines));
+        assertTrue(lines.get(3).contains("\"op\":\"remove\""), lines.get(3));
+        assertEquals(List.of(system, AiMessage.from("two"), UserMessage.from("three")),
+                new FileChatMemoryStore(dir).getMessages("s"));
+    }
+
+    @Test
+    void testLogIsCompactedToTheWindow() throws Exception {
+        var store = new FileChatMemoryStore(dir);
+        var memory = MessageWindowChatMemory.builder().id("long").maxMessages(10).chatMemoryStore(store).build();
+        for (int i = 0; i < 200; i++) {
+            memory.add(UserMessage.from("question " + i));
+            memory.add(AiMessage.from("answer " + i));
+        }
+
+        var lines = Files.readAllLines(logOf("long"));
+        assertTrue(lines.size() <= FileChatMemoryStore.MIN_RECORDS_BEFORE_COMPACTION, "log has " + lines.size() + " records");
+        assertEquals(memory.messages(), new FileChatMemoryStore(dir).getMessages("long"));
+        assertEquals(AiMessage.from("answer 199"), memory.messages().get(9));
+    }
+
+    @Test
+    void testTornLastRecordIsIgnored() throws Exception {
+        new FileChatMemoryStore(dir).updateMessages("crash", List.of(UserMessage.from("kept")));
+        Files.writeString(logOf("crash"), "{\"op\":\"append\",\"message\":{\"con", StandardCharsets.UTF_8,
+                StandardOpenOption.APPEND);
+
+        assertEquals(List.of(UserMessage.from("kept")), new FileChatMemoryStore(dir).getMessages("crash"));
+    }
+
+    @Test
+    void testSessionsAreIndependentAndDeletable() {
+        var store = new FileChatMemoryStore(dir);
+        store.updateMessages("a", List.of(UserMessage.from("for a")));
+        store.updateMessages("b/../b", List.of(UserMessage.from("for b")));
+        store.deleteMessages("a");
+
+        var reopened = new FileChatMemoryStore(dir);
+        assertEquals(List.of(), reopened.getMessages("a"));
+        assertEquals(List.of(UserMessage.from("for b")), reopened.getMessages("b/../b"));
+    }
+
+    @Test
+    void testCachedSessionsAreBoundedAndDeletedSessionsForgotten() {
+        var store = new FileChatMemoryStore(dir, 2);
+        for (int i = 0; i < 5; i++) {
+            store.updateMessages("session-" + i, List.of(UserMessage.from("message " + i)));
+            assertTrue(store.cachedSessions() <= 2, "cached: " + store.cachedSessions());
+        }
+
+        // Evicted sessions are replayed from their logs
+        assertEquals(List.of(UserMessage.from("message 0")), store.getMessages("session-0"));
+        assertEquals(List.of(UserMessage.from("message 4")), store.getMessages("session-4"));
+
+        store.deleteMessages("session-0");
+        store.deleteMessages("session-4");
+        assertEquals(0, store.cachedSessions());
+        assertEquals(List.of(), store.getMessages("session-0"));
+    }
+
+    @Test
+    void testSessionsDroppedWhileInUseStayConsistent() throws Exception {
+        var store = new FileChatMemoryStore(dir, 1);
+        var threads = new ArrayList<Thread>();
+        for (int t = 0; t < 4; t++) {
+            var id = "session-" + t;
+            threads.add(Thread.ofVirtual().start(() -> {
+                var memory = MessageWindowChatMemory.builder().id(id).maxMessages(6).chatMemoryStore(store).build();
+                for (int i = 0; i < 50; i++) {
+                    memory.add(UserMessage.from(id + " message " + i));
+                    if (i == 25) {
+                        store.deleteMessages(id);
+                    }
+                }
+            }));
+        }
+        for (var thread : threads) {
+            thread.join();
+        }
+
+        var reopened = new FileChatMemoryStore(dir);
+        for (int t = 0; t < 4; t++) {
+            var messages = reopened.getMessages("session-" + t);
+            assertEquals(6, messages.size());
+            assertEquals(UserMessage.from("session-" + t + " message 49"), messages.get(5));
+            assertEquals(messages, store.getMessages("session-" + t));
+        }
+    }
+
+    @Test
+    void testConcurrentSessions() throws Exception {
+        var store = new FileChatMemoryStore(dir);
+        var threads = new ArrayList<Thread>();
+        for (int t = 0; t < 8; t++) {
+            var id = "session-" + t;
+            threads.add(Thread.ofVirtual().start(() -> {
+                var memory = MessageWindowChatMemory.builder().id(id).maxMessages(6).chatMemoryStore(store).build();
+                for (int i = 0; i < 50; i++) {
+                    memory.add(UserMessage.from(id + " message " + i));
+                }
+            }));
+        }
+        for (var thread : threads) {
+            thread.join();
+        }
+
+        var reopened = new FileChatMemoryStore(dir);
+        for (int t = 0; t < 8; t++) {
+            var messages = reopened.getMessages("session-" + t);
+            assertEquals(6, messages.size());
+            assertEquals(UserMessage.from("session-" + t + " message 49"), messages.get(5));
+        }
+    }
+
+    private Path logOf(String memoryId) {
+        return dir.resolve(memoryId + ".jsonl");
+    }
+}
@@ -0,0 +1,124 @@
+package org.acme.client.memory;
+
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.data.message.UserMessage;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBudgetChatMemoryTest {
+
+    private final CharacterTokenCountEstimator estimator = new CharacterTokenCountEstimator();
+    private final List<List<ChatMessage>> summarized = new ArrayList<>();
+
+    private final ConversationSummarizer summarizer = (previousSummary, messages) -> {
+        summarized.add(messages);
+        var folded = messages.stream().filter(UserMessage.class::isInstance).count();
+        return (previousSummary == null ? "" : previousSummary + " ") + "folded " + folded + " question(s).";
+    };
+
+    @Test
+    void testSystemMessageIsPinnedAndNotDuplicated() {
+        var memory = memory(1000);
+        memory.add(SystemMessage.from("You are helpful"));
+        memory.add(UserMessage.from("hello"));
+        memory.add(SystemMessage.from("You are helpful"));
+        memory.add(SystemMessage.from("You are terse"));
+
+        assertEquals(List.of(SystemMessage.from("You are terse"), UserMessage.from("hello")), memory.messages());
+    }
+
+    @Test
+    void testOldestTurnsAreFoldedIntoOneSummary() {
+        var memory = memory(120);
+        memory.add(SystemMessage.from("You are helpful"));
+        for (int i = 0; i < 10; i++) {
+            memory.add(UserMessage.from("question number " + i + " about some monkey species"));
+            memory.add(AiMessage.from("answer number " + i + " with a few details about that species"));
+        }
+
+        var messages = memory.messages();
+        assertTrue(memory.estimatedTokens() <= 120, "memory holds " + memory.estimatedTokens() + " tokens");
+        assertEquals(SystemMessage.from("You are helpful"), messages.get(0));
+        assertTrue(((UserMessage) messages.get(1)).singleText().startsWith(TokenBudgetChatMemory.SUMMARY_PREFIX));
+        assertEquals(AiMessage.from("answer number 9 with a few details about that species"), messages.getLast());
+
+        // Every folded batch starts at a question, so no tool result is separated from its request
+        summarized.forEach(batch -> assertInstanceOf(UserMessage.class, batch.getFirst()));
+        var foldedQuestions = summarized.stream().flatMap(List::stream).filter(UserMessage.class::isInstance).count();
+        var keptQuestions = messages.stream().skip(2).filter(UserMessage.class::isInstance).count();
+        assertEquals(10, foldedQuestions + keptQuestions);
+    }
+
+    @Test
+    void testEarlierToolResultsAreTruncatedBeforeFolding() {
+        var memory = memory(250, 20);
+        var details = "Species Name: Mandrill. " + "Lives in the rainforests of Central Africa. ".repeat(20);
+        memory.add(UserMessage.from("Tell me about mandrills"));
+        memory.add(AiMessage.from(ToolExecutionRequest.builder()
+                .id("1").name("get_monkey_species_details").arguments("{\"speciesName\":\"Mandrill\"}").build()));
+        memory.add(ToolExecutionResultMessage.from("1", "get_monkey_species_details", details));
+        memory.add(AiMessage.from("Mandrills live in Central Africa."));
+
+        // The result of the turn in progress is kept whole
+        assertEquals(details, ((ToolExecutionResultMessage) memory.messages().get(2)).text());
+
+        memory.add(UserMessage.from("And where do they sleep?"));
+
+        var result = (ToolExecutionResultMessage) memory.messages().get(2);
+        assertTrue(result.text().startsWith("Species Name: Mandrill."), result.text());
+        assertTrue(result.text().contains("[truncated,"), result.text());
+        assertTrue(summarized.isEmpty(), "nothing should be folded once the tool result fits");
+    }
+
+    @Test
+    void testCurrentTurnIsNeverFolded() {
+        var memory = memory(10);
+        memory.add(UserMessage.from("a question that is already longer than the whole budget"));
+        memory.add(AiMessage.from("and an answer that is longer still, but belongs to the same turn"));
+
+        assertEquals(2, memory.messages().size());
+        assertTrue(summarized.isEmpty());
+    }
+
+    @Test
+    void testFailingSummarizerDropsTheFoldedTurns() {
+        var memory = TokenBudgetChatMemory.builder()
+                .id("failing")
+                .maxTokens(40)
+                .summarizer((previousSummary, messages) -> {
+                    throw new IllegalStateException("model unavailable");
+                })
+                .build();
+        for (int i = 0; i < 5; i++) {
+            memory.add(UserMessage.from("question number " + i));
+            memory.add(AiMessage.from("answer number " + i));
+        }
+
+        assertTrue(memory.estimatedTokens() <= 40, "memory holds " + memory.estimatedTokens() + " tokens");
+        assertEquals(AiMessage.from("answer number 4"), memory.messages().getLast());
+        assertTrue(memory.messages().stream()
+                .noneMatch(m -> m instanceof UserMessage u && u.singleText().startsWith(TokenBudgetChatMemory.SUMMARY_PREFIX)));
+    }
+
+    private TokenBudgetChatMemory memory(int maxTokens) {
+        return memory(maxTokens, Integer.MAX_VALUE);
+    }
+
+    private TokenBudgetChatMemory memory(int maxTokens, int toolResultMaxTokens) {
+        return TokenBudgetChatMemory.builder()
+                .id("test")
+                .tokenCountEstimator(estimator)
+                .maxTokens(maxTokens)
+                .toolResultMaxTokens(toolResultMaxTokens)
+                .summarizer(summarizer)
+                .build();
+    }
+}
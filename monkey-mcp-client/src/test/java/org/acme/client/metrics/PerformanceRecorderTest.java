@@ -0,0 +1,138 @@
+package org.acme.client.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.ModelProvider;
+import dev.langchain4j.model.chat.listener.ChatModelRequestContext;
+import dev.langchain4j.model.chat.listener.ChatModelResponseContext;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.output.TokenUsage;
+import dev.langchain4j.service.tool.ToolExecutor;
+import dev.langchain4j.service.tool.ToolProviderRequest;
+import dev.langchain4j.service.tool.ToolProviderResult;
+import org.acme.client.ParallelToolCalls;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerformanceRecorderTest {
+
+    private final ToolSpecification lookup = ToolSpecification.builder().name("lookup").build();
+
+    private final ToolExecutor sleepy = (request, memoryId) -> {
+        try {
+            Thread.sleep(Long.parseLong(request.arguments()));
+            return "slept " + request.arguments();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    };
+
+    @Test
+    void testHistogramInterpolatesWithinBuckets() {
+        var histogram = new Histogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(100, histogram.count());
+        assertEquals(50.5, histogram.mean(), 0.001);
+        assertEquals(50, histogram.percentile(50));
+        assertEquals(95, histogram.percentile(95));
+        assertEquals(100, histogram.max());
+
+        histogram.record(700_000);
+        assertEquals(700_000, histogram.percentile(100));
+    }
+
+    @Test
+    void testModelCallsTokensAndRetriesAddUpPerTurn() {
+        var recorder = new PerformanceRecorder();
+        var turn = recorder.begin("ask", false);
+
+        // The first call needed a second attempt
+        modelCall(recorder, 2, new TokenUsage(100, 20));
+        modelCall(recorder, 1, new TokenUsage(150, 30));
+        recorder.end(turn);
+
+        assertEquals(2, turn.modelCalls());
+        assertEquals(1, turn.retries());
+        assertEquals(250, turn.promptTokens());
+        assertEquals(50, turn.completionTokens());
+        assertTrue(turn.breakdown().startsWith("model "), turn.breakdown());
+
+        // Calls outside of any turn are not attributed to the ended one
+        modelCall(recorder, 1, new TokenUsage(10, 1));
+        assertEquals(2, turn.modelCalls());
+    }
+
+    @Test
+    void testConcurrentToolCallsAreTimedUnderTheirServer() {
+        var recorder = new PerformanceRecorder();
+        var parallel = new ParallelToolCalls(4, Duration.ofSeconds(5));
+        var provider = parallel.wrap(recorder.wrap(request -> new ToolProviderResult(Map.of(lookup, sleepy)),
+                tool -> "monkeymcp"));
+        var toolExecutor = provider.provideTools(new ToolProviderRequest("memory", UserMessage.from("compare")))
+                .tools().get(lookup);
+        var requests = List.of(
+                ToolExecutionRequest.builder().id("1").name("lookup").arguments("200").build(),
+                ToolExecutionRequest.builder().id("2").name("lookup").arguments("100").build());
+
+        var turn = recorder.begin("chat", false);
+        parallel.onResponse(new ChatModelResponseContext(ChatResponse.builder().aiMessage(AiMessage.from(requests)).build(),
+                ChatRequest.builder().messages(UserMessage.from("compare")).toolSpecifications(lookup).build(),
+                ModelProvider.OLLAMA, new HashMap<>()));
+        requests.forEach(request -> toolExecutor.execute(request, "memory"));
+        recorder.end(turn);
+
+        var calls = turn.toolCalls();
+        assertEquals(2, calls.size());
+        calls.forEach(call -> assertEquals("monkeymcp/lookup", call.name()));
+        assertTrue(calls.stream().allMatch(call -> call.nanos() >= Duration.ofMillis(90).toNanos()));
+        assertTrue(calls.stream().noneMatch(TurnMetrics.ToolCall::failed));
+    }
+
+    @Test
+    void testExportWritesHistogramsAndTurns(@TempDir Path dir) throws Exception {
+        var recorder = new PerformanceRecorder();
+        var failing = recorder.wrap(request -> new ToolProviderResult(Map.of(lookup,
+                (ToolExecutor) (toolRequest, memoryId) -> "There was an error executing the tool. Boom")), tool -> "monkeymcp");
+        var turn = recorder.begin("ask", false);
+        modelCall(recorder, 1, new TokenUsage(100, 20));
+        failing.provideTools(new ToolProviderRequest("memory", UserMessage.from("boom"))).tools().get(lookup)
+                .execute(ToolExecutionRequest.builder().id("1").name("lookup").arguments("{}").build(), "memory");
+        recorder.end(turn);
+
+        var file = dir.resolve("metrics/session.json");
+        recorder.export(file);
+
+        var json = new ObjectMapper().readTree(file.toFile());
+        assertEquals(1, json.at("/histograms/turnMs/count").asInt());
+        assertEquals(100, json.at("/histograms/promptTokens/max").asInt());
+        assertEquals(1, json.at("/histograms/toolMs/monkeymcp~1lookup/count").asInt());
+        assertEquals("ask", json.at("/turns/0/kind").asText());
+        assertTrue(json.at("/turns/0/toolCalls/0/failed").asBoolean());
+    }
+
+    private static void modelCall(PerformanceRecorder recorder, int attempts, TokenUsage usage) {
+        var request = ChatRequest.builder().messages(UserMessage.from("hello")).build();
+        var attributes = new HashMap<Object, Object>();
+        recorder.onRequest(new ChatModelRequestContext(request, ModelProvider.OLLAMA, attributes));
+        for (int i = 0; i < attempts; i++) {
+            recorder.modelRequestSent();
+        }
+        var response = ChatResponse.builder().aiMessage(AiMessage.from("hi")).tokenUsage(usage).build();
+        recorder.onResponse(new ChatModelResponseContext(response, request, ModelProvider.OLLAMA, attributes));
+    }
+}
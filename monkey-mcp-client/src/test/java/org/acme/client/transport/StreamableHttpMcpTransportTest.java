@@ -0,0 +1,119 @@
+package org.acme.client.transport;
+
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.mcp.client.DefaultMcpClient;
+import dev.langchain4j.mcp.client.McpClient;
+import dev.langchain4j.mcp.client.transport.McpTransport;
+import okio.Buffer;
+import org.acme.client.FakeMcpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamableHttpMcpTransportTest {
+
+    private final FakeMcpServer server = new FakeMcpServer();
+    private final List<McpClient> clients = new ArrayList<>();
+
+    StreamableHttpMcpTransportTest() throws IOException {
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (var client : clients) {
+            client.close();
+        }
+        server.close();
+    }
+
+    @Test
+    void testEventsAreParsedAsTheSseSpecSays() throws IOException {
+        var events = new ArrayList<String>();
+        StreamableHttpMcpTransport.readEvents(new Buffer().writeUtf8("""
+                : comment
+                event: message
+                id: 1
+                data: {"a":
+                data:1}
+
+                data
+
+                data: two\r
+                data:  lines\r
+                \r
+                retry: 1000
+                data: cut off
+                """), events::add);
+
+        assertEquals(List.of("{\"a\":\n1}", "", "two\n lines"), events);
+    }
+
+    @Test
+    void testResponsesSpreadOverSeveralDataLinesAreJoined() {
+        server.eventStream = true;
+        var client = client(new StreamableHttpMcpTransport.Builder().url(server.url()).build());
+
+        assertEquals(List.of("lookup_species"), client.listTools().stream().map(ToolSpecification::name).toList());
+        assertEquals("Details of Mandrill", client.executeTool(ToolExecutionRequest.builder()
+                .name("lookup_species")
+                .arguments("{\"speciesName\":\"Mandrill\"}")
+                .build()));
+    }
+
+    @Test
+    void testToolListChangesArriveOnTheNotificationStream() throws Exception {
+        server.notificationStream = true;
+        var changed = new CountDownLatch(1);
+        client(new ToolListChangeAwareTransport(new StreamableHttpMcpTransport.Builder().url(server.url()).build(),
+                changed::countDown));
+
+        waitUntil(() -> {
+            try {
+                return server.notifyToolListChanged();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertTrue(changed.await(5, TimeUnit.SECONDS));
+        assertEquals(1, server.notificationStreamRequests.get());
+    }
+
+    @Test
+    void testServerWithoutNotificationStreamIsNotAskedAgain() throws Exception {
+        client(new StreamableHttpMcpTransport.Builder().url(server.url()).build());
+
+        waitUntil(() -> server.notificationStreamRequests.get() == 1);
+        Thread.sleep(StreamableHttpMcpTransport.STREAM_REOPEN_DELAY.plusMillis(200));
+
+        assertEquals(1, server.notificationStreamRequests.get());
+    }
+
+    private McpClient client(McpTransport transport) {
+        var client = new DefaultMcpClient.Builder()
+                .key("species")
+                .transport(transport)
+                .toolExecutionTimeout(Duration.ofSeconds(5))
+                .build();
+        clients.add(client);
+        return client;
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for the notification stream");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package org.acme.admission;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Admission control settings for MCP tool calls.
+ * Per-tool rate limits override the default, e.g.
+ * {@code monkey.admission.tools."list_monkey_species".permits-per-second=2}.
+ */
+@ConfigMapping(prefix = "monkey.admission")
+public interface AdmissionConfig {
+
+    /**
+     * Whether admission control is applied at all.
+     */
+    @WithDefault("true")
+    boolean enabled();
+
+    /**
+     * Maximum number of tool calls executing at once across all sessions.
+     */
+    @WithDefault("32")
+    int globalMaxConcurrent();
+
+    /**
+     * Maximum number of tool calls executing at once for a single session.
+     */
+    @WithDefault("4")
+    int sessionMaxConcurrent();
+
+    /**
+     * Maximum number of calls waiting for a global slot. Calls beyond this are rejected immediately.
+     */
+    @WithDefault("64")
+    int maxQueued();
+
+    /**
+     * How long a queued call waits for a global slot before it is rejected.
+     */
+    @WithDefault("1s")
+    Duration queueTimeout();
+
+    /**
+     * Rate limit applied per session to tools without their own entry.
+     */
+    RateLimit defaultRateLimit();
+
+    /**
+     * Per-tool rate limits, keyed by tool name.
+     */
+    Map<String, RateLimit> tools();
+
+    interface RateLimit {
+
+        /**
+         * Sustained rate at which tokens are refilled.
+         */
+        @WithDefault("10")
+        double permitsPerSecond();
+
+        /**
+         * Bucket capacity, i.e. the largest burst allowed after an idle period.
+         */
+        @WithDefault("20")
+        int burst();
+    }
+}
@@ -0,0 +1,212 @@
+package org.acme.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkiverse.mcp.server.McpConnection;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admission control for MCP tool calls.
+ * A call must pass, in order: the per-session concurrency limit, the per-session token
+ * bucket for its tool, and the global concurrency limit. A call turned away at any step
+ * gives back what the earlier steps took, so a rejected call spends no token. Only the
+ * global limit queues, and the queue is bounded so that an overloaded server rejects fast
+ * instead of piling up work.
+ *
+ * Sessions that are closed or idle with no call in flight are forgotten now and then. A
+ * session is only forgotten while holding its lock, and callers take their concurrency slot
+ * under the same lock, so a caller never holds a slot of a session that is no longer in use.
+ */
+@ApplicationScoped
+public class AdmissionController {
+
+    static final String LOCAL_SESSION = "local";
+
+    private static final int SWEEP_INTERVAL = 256;
+    private static final long IDLE_SESSION_NANOS = Duration.ofMinutes(10).toNanos();
+
+    @Inject
+    AdmissionConfig config;
+
+    @Inject
+    MeterRegistry registry;
+
+    private final Map<String, SessionState> sessions = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong acquisitions = new AtomicLong();
+    private Semaphore globalSlots;
+
+    @PostConstruct
+    void init() {
+        globalSlots = new Semaphore(config.globalMaxConcurrent(), true);
+        registry.gauge("mcp.admission.in.flight", inFlight);
+        registry.gauge("mcp.admission.queued", queued);
+        registry.gaugeMapSize("mcp.admission.sessions", List.of(), sessions);
+    }
+
+    /**
+     * Admits a tool call or rejects it immediately.
+     *
+     * @param connection The MCP connection making the call, or null for in-process callers
+     * @param toolName The name of the tool being called
+     * @return A permit that must be closed when the call completes
+     * @throws AdmissionRejectedException if the call is rate limited or the server is overloaded
+     */
+    public Permit acquire(McpConnection connection, String toolName) {
+        if (!config.enabled()) {
+            return Permit.NONE;
+        }
+
+        long now = System.nanoTime();
+        if (acquisitions.incrementAndGet() % SWEEP_INTERVAL == 0) {
+            sweepSessions(now);
+        }
+
+        String sessionId = connection != null ? connection.id() : LOCAL_SESSION;
+        SessionState session = takeSessionSlot(sessionId, connection, now);
+        if (session == null) {
+            throw reject(toolName, "session_busy",
+                    String.format("Too many concurrent calls from this session (limit %d). Please retry shortly.",
+                            config.sessionMaxConcurrent()));
+        }
+
+        TokenBucket bucket = session.bucket(toolName, now);
+        if (!bucket.tryAcquire(now)) {
+            session.concurrency.release();
+            throw reject(toolName, "rate_limited",
+                    String.format("Rate limit exceeded for tool '%s'. Please slow down and retry shortly.", toolName));
+        }
+
+        try {
+            acquireGlobalSlot(toolName);
+        } catch (RuntimeException e) {
+            bucket.refund();
+            session.concurrency.release();
+            throw e;
+        }
+
+        inFlight.incrementAndGet();
+        Counter.builder("mcp.admission.admitted").tag("tool", toolName).register(registry).increment();
+        return () -> {
+            inFlight.decrementAndGet();
+            globalSlots.release();
+            session.concurrency.release();
+        };
+    }
+
+    /**
+     * Takes a concurrency slot of the session, creating the session if needed.
+     *
+     * @return The session, or null if all its slots are taken
+     */
+    private SessionState takeSessionSlot(String sessionId, McpConnection connection, long now) {
+        while (true) {
+            SessionState session = sessions.computeIfAbsent(sessionId, id -> new SessionState(connection));
+            synchronized (session) {
+                if (!session.removed) {
+                    session.lastSeen = now;
+                    return session.concurrency.tryAcquire() ? session : null;
+                }
+            }
+            // Swept between the lookup and the lock; the next lookup creates a fresh session
+        }
+    }
+
+    private void acquireGlobalSlot(String toolName) {
+        if (globalSlots.tryAcquire()) {
+            return;
+        }
+        if (queued.incrementAndGet() > config.maxQueued()) {
+            queued.decrementAndGet();
+            throw reject(toolName, "queue_full", "Server is overloaded. Please retry later.");
+        }
+        try {
+            if (!globalSlots.tryAcquire(config.queueTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                throw reject(toolName, "queue_timeout", "Server is busy. Please retry later.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw reject(toolName, "queue_timeout", "Interrupted while waiting for admission.");
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    private AdmissionRejectedException reject(String toolName, String reason, String message) {
+        Counter.builder("mcp.admission.rejected")
+                .tag("tool", toolName)
+                .tag("reason", reason)
+                .register(registry)
+                .increment();
+        return new AdmissionRejectedException(reason, message);
+    }
+
+    void sweepSessions(long now) {
+        for (String sessionId : sessions.keySet()) {
+            sessions.computeIfPresent(sessionId, (id, session) -> {
+                synchronized (session) {
+                    boolean closed = session.connection != null && session.connection.status() == McpConnection.Status.CLOSED;
+                    boolean idle = now - session.lastSeen > IDLE_SESSION_NANOS;
+                    if ((closed || idle) && session.concurrency.availablePermits() == config.sessionMaxConcurrent()) {
+                        session.removed = true;
+                        return null;
+                    }
+                    return session;
+                }
+            });
+        }
+    }
+
+    int sessionCount() {
+        return sessions.size();
+    }
+
+    private AdmissionConfig.RateLimit rateLimitFor(String toolName) {
+        return config.tools().getOrDefault(toolName, config.defaultRateLimit());
+    }
+
+    /**
+     * A granted admission. Closing it releases the concurrency slots held by the call.
+     */
+    @FunctionalInterface
+    public interface Permit extends AutoCloseable {
+
+        Permit NONE = () -> {
+        };
+
+        @Override
+        void close();
+    }
+
+    private final class SessionState {
+
+        final McpConnection connection;
+        final Semaphore concurrency = new Semaphore(config.sessionMaxConcurrent());
+        final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+        volatile long lastSeen;
+        // Set under the session's lock when it is swept; callers holding it look it up again
+        boolean removed;
+
+        SessionState(McpConnection connection) {
+            this.connection = connection;
+        }
+
+        TokenBucket bucket(String toolName, long now) {
+            return buckets.computeIfAbsent(toolName, name -> {
+                AdmissionConfig.RateLimit limit = rateLimitFor(name);
+                return new TokenBucket(limit.permitsPerSecond(), limit.burst(), now);
+            });
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package org.acme.admission;
+
+import io.quarkiverse.mcp.server.McpConnection;
+import io.quarkiverse.mcp.server.Tool;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+/**
+ * Applies admission control to {@link Tool} methods before any repository work is done.
+ * The session is taken from the {@link McpConnection} argument when the method declares one.
+ */
+@AdmissionControlled
+@Interceptor
+@Priority(Interceptor.Priority.APPLICATION)
+public class AdmissionInterceptor {
+
+    @Inject
+    AdmissionController admissionController;
+
+    @AroundInvoke
+    Object admit(InvocationContext context) throws Exception {
+        Tool tool = context.getMethod().getAnnotation(Tool.class);
+        if (tool == null) {
+            return context.proceed();
+        }
+
+        try (AdmissionController.Permit permit = admissionController.acquire(connectionOf(context), tool.name())) {
+            return context.proceed();
+        }
+    }
+
+    private static McpConnection connectionOf(InvocationContext context) {
+        for (Object parameter : context.getParameters()) {
+            if (parameter instanceof McpConnection connection) {
+                return connection;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,24 @@
+package org.acme.admission;
+
+import io.quarkiverse.mcp.server.ToolCallException;
+
+/**
+ * Thrown when a tool call is rejected by admission control.
+ * The MCP layer reports it to the client as a tool error result.
+ */
+public class AdmissionRejectedException extends ToolCallException {
+
+    private final String reason;
+
+    public AdmissionRejectedException(String reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    /**
+     * @return The rejection reason used as the metrics tag: rate_limited, session_busy, queue_full or queue_timeout
+     */
+    public String reason() {
+        return reason;
+    }
+}
@@ -0,0 +1,42 @@
+package org.acme.admission;
+
+/**
+ * Token bucket rate limiter. Tokens refill continuously at a fixed rate up to the bucket capacity.
+ */
+final class TokenBucket {
+
+    private final double permitsPerNano;
+    private final double capacity;
+    private double tokens;
+    private long lastRefill;
+
+    TokenBucket(double permitsPerSecond, int burst, long nowNanos) {
+        this.permitsPerNano = permitsPerSecond / 1_000_000_000.0;
+        this.capacity = Math.max(1, burst);
+        this.tokens = capacity;
+        this.lastRefill = nowNanos;
+    }
+
+    /**
+     * Takes one token if available.
+     *
+     * @param nowNanos The current time from {@link System#nanoTime()}
+     * @return true if a token was taken, false if the bucket is empty
+     */
+    synchronized boolean tryAcquire(long nowNanos) {
+        tokens = Math.min(capacity, tokens + (nowNanos - lastRefill) * permitsPerNano);
+        lastRefill = nowNanos;
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    /**
+     * Gives back a token taken by a call that was then turned away for another reason.
+     */
+    synchronized void refund() {
+        tokens = Math.min(capacity, tokens + 1);
+    }
+}
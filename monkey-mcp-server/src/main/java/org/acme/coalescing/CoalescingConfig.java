@@ -0,0 +1,17 @@
+package org.acme.coalescing;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+/**
+ * Settings for sharing one computation between identical tool calls that run at the same time.
+ */
+@ConfigMapping(prefix = "monkey.coalescing")
+public interface CoalescingConfig {
+
+    /**
+     * Whether identical concurrent tool calls share one computation.
+     */
+    @WithDefault("true")
+    boolean enabled();
+}
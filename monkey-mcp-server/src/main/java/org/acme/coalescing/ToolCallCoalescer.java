@@ -0,0 +1,165 @@
+package org.acme.coalescing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+import org.jboss.logging.Logger;
+
+/**
+ * Single-flight execution of tool calls.
+ * The first call for a tool and set of arguments computes the response; identical calls that
+ * arrive while it is still running wait for it and return the same response instead of
+ * computing their own. Calls arriving after it has finished start a new computation, so
+ * nothing is cached beyond the lifetime of one call.
+ *
+ * Each call still counts: once the shared computation has finished, the call that made it
+ * reports how many callers joined it, so that work such as access counting can be done for
+ * all of them in one update.
+ */
+@ApplicationScoped
+public class ToolCallCoalescer {
+
+    private static final Logger LOG = Logger.getLogger(ToolCallCoalescer.class);
+
+    @Inject
+    CoalescingConfig config;
+
+    @Inject
+    MeterRegistry registry;
+
+    private final Map<FlightKey, Flight> flights = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        registry.gaugeMapSize("mcp.coalescing.in.flight", List.of(), flights);
+    }
+
+    /**
+     * Runs a tool call whose callers need nothing done per call, or joins an identical one already running.
+     *
+     * @param toolName The name of the tool being called
+     * @param arguments The call's arguments, normalized so that equivalent calls are equal
+     * @param call Computes the response
+     * @return The response, computed by this call or by the call it joined
+     */
+    public <T> T execute(String toolName, List<?> arguments, Supplier<T> call) {
+        return execute(toolName, arguments, call, joined -> {
+        });
+    }
+
+    /**
+     * Runs a tool call, or joins an identical one already running.
+     *
+     * @param toolName The name of the tool being called
+     * @param arguments The call's arguments, normalized so that equivalent calls are equal
+     * @param call Computes the response
+     * @param onShared Called once with the number of callers that joined, if any, after the
+     *                 response has been handed to them
+     * @return The response, computed by this call or by the call it joined
+     */
+    public <T> T execute(String toolName, List<?> arguments, Supplier<T> call, IntConsumer onShared) {
+        if (!config.enabled()) {
+            return call.get();
+        }
+
+        FlightKey key = new FlightKey(toolName, arguments);
+        while (true) {
+            Flight flight = new Flight();
+            Flight running = flights.putIfAbsent(key, flight);
+            if (running == null) {
+                return lead(key, flight, call, onShared);
+            }
+            if (running.join()) {
+                count(toolName, "joined");
+                return running.await();
+            }
+            // The running call has finished but not yet left the map
+            flights.remove(key, running);
+        }
+    }
+
+    private <T> T lead(FlightKey key, Flight flight, Supplier<T> call, IntConsumer onShared) {
+        count(key.toolName(), "computed");
+        T response;
+        try {
+            response = call.get();
+        } catch (RuntimeException | Error e) {
+            land(key, flight);
+            flight.result.completeExceptionally(e);
+            throw e;
+        }
+
+        int joined = land(key, flight);
+        flight.result.complete(response);
+        if (joined > 0) {
+            LOG.debugf("%s call shared with %d identical call(s)", key.toolName(), joined);
+            onShared.accept(joined);
+        }
+        return response;
+    }
+
+    private int land(FlightKey key, Flight flight) {
+        int joined = flight.close();
+        flights.remove(key, flight);
+        return joined;
+    }
+
+    private void count(String toolName, String outcome) {
+        Counter.builder("mcp.coalescing.calls")
+                .tag("tool", toolName)
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment();
+    }
+
+    private record FlightKey(String toolName, List<?> arguments) {
+    }
+
+    /**
+     * One computation in progress and the callers waiting for it. Joining and closing are
+     * serialized so that every caller that joined is counted by the call that computed.
+     */
+    private static final class Flight {
+
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+        private int joined;
+        private boolean closed;
+
+        synchronized boolean join() {
+            if (closed) {
+                return false;
+            }
+            joined++;
+            return true;
+        }
+
+        synchronized int close() {
+            closed = true;
+            return joined;
+        }
+
+        @SuppressWarnings("unchecked")
+        <T> T await() {
+            try {
+                return (T) result.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw e;
+            }
+        }
+    }
+}
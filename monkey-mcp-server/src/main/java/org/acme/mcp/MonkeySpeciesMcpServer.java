@@ -1,79 +1,149 @@
 package org.acme.mcp;
 
+import org.acme.admission.AdmissionControlled;
+import org.acme.coalescing.ToolCallCoalescer;
+import org.acme.model.AccessRates;
+import org.acme.model.DatabaseStats;
 import org.acme.model.MonkeySpecies;
+import org.acme.response.ResponseFormatter;
+import org.acme.response.ResponseOptions;
 import org.acme.service.MonkeySpeciesService;
+import io.quarkiverse.mcp.server.McpConnection;
 import io.quarkiverse.mcp.server.Tool;
+import io.quarkiverse.mcp.server.ToolArg;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 @ApplicationScoped
+@AdmissionControlled
 public class MonkeySpeciesMcpServer {
     
+    static final int MAX_BATCH_SIZE = 25;
+    
+    static final String FORMAT_DESCRIPTION = "Response format: verbose, compact or json. Defaults to the session's format";
+    static final String MAX_TOKENS_DESCRIPTION = "Approximate token budget of the response; longer details and lists are cut to fit";
+    
     @Inject
     MonkeySpeciesService monkeySpeciesService;
     
+    @Inject
+    ResponseFormatter responseFormatter;
+    
+    @Inject
+    ToolCallCoalescer toolCallCoalescer;
+    
+    @Tool(name = "set_response_profile", description = "Set the format and token budget of all further responses in this session. Compact and json responses are much smaller than verbose ones")
+    public String setResponseProfile(@ToolArg(description = "verbose, compact or json") String format,
+                                     @ToolArg(description = "Approximate token budget of each response, 0 for none", required = false) Integer maxTokens,
+                                     McpConnection connection) {
+        try {
+            ResponseOptions options = responseFormatter.setSessionOptions(connection, format, maxTokens);
+            return String.format("Responses in this session are now %s%s.", options.profile(),
+                                 options.hasBudget() ? ", within about " + options.maxTokens() + " tokens each" : "");
+        } catch (IllegalArgumentException e) {
+            return "Error: " + e.getMessage();
+        }
+    }
+    
     @Tool(name = "list_monkey_species", description = "List all available monkey species with their basic information")
-    public String listMonkeySpecies() {
+    public String listMonkeySpecies(@ToolArg(description = FORMAT_DESCRIPTION, required = false) String format,
+                                    @ToolArg(description = MAX_TOKENS_DESCRIPTION, required = false) Integer maxTokens,
+                                    McpConnection connection) {
         try {
-            List<MonkeySpecies> allSpecies = monkeySpeciesService.getAllSpecies();
-            
-            if (allSpecies.isEmpty()) {
-                return "No monkey species found in the database.";
-            }
-            
-            StringBuilder result = new StringBuilder();
-            result.append("Available Monkey Species (").append(allSpecies.size()).append(" total):\n\n");
-            
-            for (MonkeySpecies species : allSpecies) {
-                String fictionalFlag = species.isFictional() ? " *FAKE*" : "";
-                result.append("• ").append(species.speciesName()).append(fictionalFlag)
-                      .append(" (").append(species.location()).append(")")
-                      .append(" - Population: ").append(species.population())
-                      .append("\n");
-            }
-            
-            return result.toString();
+            ResponseOptions options = responseFormatter.options(connection, format, maxTokens);
+            return toolCallCoalescer.execute("list_monkey_species", List.of(options), () -> {
+                List<MonkeySpecies> allSpecies = monkeySpeciesService.getAllSpecies();
+                
+                if (allSpecies.isEmpty()) {
+                    return "No monkey species found in the database.";
+                }
+                
+                return responseFormatter.speciesList("list_monkey_species", allSpecies, options);
+            });
         } catch (Exception e) {
             return "Error retrieving monkey species list: " + e.getMessage();
         }
     }
     
     @Tool(name = "get_monkey_species_details", description = "Get detailed information for a specific monkey species by name")
-    public String getMonkeySpeciesDetails(String speciesName) {
+    public String getMonkeySpeciesDetails(String speciesName,
+                                          @ToolArg(description = FORMAT_DESCRIPTION, required = false) String format,
+                                          @ToolArg(description = MAX_TOKENS_DESCRIPTION, required = false) Integer maxTokens,
+                                          McpConnection connection) {
         if (speciesName == null || speciesName.trim().isEmpty()) {
             return "Error: Species name cannot be empty. Please provide a valid species name.";
         }
         
         try {
-            Optional<MonkeySpecies> species = monkeySpeciesService.getSpeciesDetails(speciesName);
-            
-            if (species.isPresent()) {
-                return species.get().toFormattedString();
-            } else {
-                // Provide helpful suggestions
-                List<String> availableSpecies = monkeySpeciesService.getAllSpeciesNames();
-                String suggestions = availableSpecies.stream()
-                        .limit(5)
-                        .collect(Collectors.joining(", "));
+            ResponseOptions options = responseFormatter.options(connection, format, maxTokens);
+            // Identical concurrent lookups share one; every caller still counts as an access
+            return toolCallCoalescer.execute("get_monkey_species_details", List.of(normalize(speciesName), options), () -> {
+                Optional<MonkeySpecies> species = monkeySpeciesService.getSpeciesDetails(speciesName);
                 
-                return String.format("Monkey species '%s' not found. Available species include: %s", 
-                                   speciesName, suggestions);
-            }
+                if (species.isPresent()) {
+                    return responseFormatter.species("get_monkey_species_details", species.get(), null, options);
+                } else {
+                    // Provide helpful suggestions
+                    List<String> availableSpecies = monkeySpeciesService.getAllSpeciesNames();
+                    String suggestions = availableSpecies.stream()
+                            .limit(5)
+                            .collect(Collectors.joining(", "));
+                    
+                    return String.format("Monkey species '%s' not found. Available species include: %s", 
+                                       speciesName, suggestions);
+                }
+            }, joined -> monkeySpeciesService.recordSharedAccess(List.of(speciesName), joined));
+        } catch (Exception e) {
+            return "Error retrieving species details: " + e.getMessage();
+        }
+    }
+    
+    @Tool(name = "get_monkey_species_details_batch", description = "Get detailed information for several monkey species by name in one call. Prefer this over repeated get_monkey_species_details calls when comparing species")
+    public String getMonkeySpeciesDetailsBatch(List<String> speciesNames,
+                                               @ToolArg(description = FORMAT_DESCRIPTION, required = false) String format,
+                                               @ToolArg(description = MAX_TOKENS_DESCRIPTION, required = false) Integer maxTokens,
+                                               McpConnection connection) {
+        if (speciesNames == null || speciesNames.isEmpty()) {
+            return "Error: Species names cannot be empty. Please provide at least one species name.";
+        }
+        if (speciesNames.size() > MAX_BATCH_SIZE) {
+            return String.format("Error: Too many species requested (%d). Please request at most %d species per call.",
+                               speciesNames.size(), MAX_BATCH_SIZE);
+        }
+        
+        try {
+            ResponseOptions options = responseFormatter.options(connection, format, maxTokens);
+            List<String> normalizedNames = speciesNames.stream().map(MonkeySpeciesMcpServer::normalize).toList();
+            return toolCallCoalescer.execute("get_monkey_species_details_batch", List.of(normalizedNames, options), () -> {
+                Map<String, Optional<MonkeySpecies>> results = monkeySpeciesService.getSpeciesDetailsBatch(speciesNames);
+                
+                List<String> suggestions = results.containsValue(Optional.empty())
+                        ? monkeySpeciesService.getAllSpeciesNames().stream().limit(5).toList()
+                        : List.of();
+                return responseFormatter.speciesBatch("get_monkey_species_details_batch", results, suggestions, options);
+            }, joined -> monkeySpeciesService.recordSharedAccess(speciesNames, joined));
         } catch (Exception e) {
             return "Error retrieving species details: " + e.getMessage();
         }
     }
     
     @Tool(name = "get_random_monkey_species", description = "Get a random monkey species with full details")
-    public String getRandomMonkeySpecies() {
+    public String getRandomMonkeySpecies(@ToolArg(description = FORMAT_DESCRIPTION, required = false) String format,
+                                         @ToolArg(description = MAX_TOKENS_DESCRIPTION, required = false) Integer maxTokens,
+                                         McpConnection connection) {
         try {
+            ResponseOptions options = responseFormatter.options(connection, format, maxTokens);
+            // Not coalesced: every caller gets a species of its own
             Optional<MonkeySpecies> randomSpecies = monkeySpeciesService.getRandomSpecies();
             
             if (randomSpecies.isPresent()) {
-                return "Here's a random monkey species:\n\n" + randomSpecies.get().toFormattedString();
+                return responseFormatter.species("get_random_monkey_species", randomSpecies.get(),
+                                                 "Here's a random monkey species:", options);
             } else {
                 return "No monkey species available in the database.";
             }
@@ -83,45 +153,64 @@ public class MonkeySpeciesMcpServer {
     } 
     
     @Tool(name = "get_monkey_species_stats", description = "Get statistics about the monkey species database")
-    public String getMonkeySpeciesStats() {
+    public String getMonkeySpeciesStats(@ToolArg(description = FORMAT_DESCRIPTION, required = false) String format,
+                                        McpConnection connection) {
         try {
-            int totalSpecies = monkeySpeciesService.getSpeciesCount();
-            List<MonkeySpecies> allSpecies = monkeySpeciesService.getAllSpecies();
-            
-            if (allSpecies.isEmpty()) {
-                return "Database is empty - no monkey species available.";
-            }
-            
-            // Calculate total population
-            long totalPopulation = allSpecies.stream()
-                    .mapToLong(species -> species.population() != null ? species.population() : 0)
-                    .sum();
-            
-            // Find most accessed species
-            Optional<MonkeySpecies> mostAccessed = allSpecies.stream()
-                    .max((a, b) -> Integer.compare(a.accessed(), b.accessed()));
-            
-            // Count unique locations
-            long uniqueLocations = allSpecies.stream()
-                    .map(MonkeySpecies::location)
-                    .distinct()
-                    .count();
-            
-            StringBuilder stats = new StringBuilder();
-            stats.append("Monkey Species Database Statistics:\n\n");
-            stats.append("• Total Species: ").append(totalSpecies).append("\n");
-            stats.append("• Total Population: ").append(String.format("%,d", totalPopulation)).append("\n");
-            stats.append("• Unique Locations: ").append(uniqueLocations).append("\n");
-            
-            if (mostAccessed.isPresent()) {
-                MonkeySpecies popular = mostAccessed.get();
-                stats.append("• Most Accessed: ").append(popular.speciesName())
-                     .append(" (").append(popular.accessed()).append(" times)\n");
-            }
-            
-            return stats.toString();
+            ResponseOptions options = responseFormatter.options(connection, format, null);
+            return toolCallCoalescer.execute("get_monkey_species_stats", List.of(options), () -> databaseStats(options));
         } catch (Exception e) {
             return "Error retrieving database statistics: " + e.getMessage();
         }
     }
+    
+    @Tool(name = "get_monkey_species_access_rates", description = "Get recent access rates (last 1 minute, 5 minutes and 1 hour) for all monkey species, hottest first")
+    public String getMonkeySpeciesAccessRates(@ToolArg(description = FORMAT_DESCRIPTION, required = false) String format,
+                                              @ToolArg(description = MAX_TOKENS_DESCRIPTION, required = false) Integer maxTokens,
+                                              McpConnection connection) {
+        try {
+            ResponseOptions options = responseFormatter.options(connection, format, maxTokens);
+            return toolCallCoalescer.execute("get_monkey_species_access_rates", List.of(options), () -> {
+                List<AccessRates> rates = monkeySpeciesService.getAccessRates();
+                
+                if (rates.isEmpty()) {
+                    return "Database is empty - no monkey species available.";
+                }
+                
+                return responseFormatter.accessRates("get_monkey_species_access_rates", rates, options);
+            });
+        } catch (Exception e) {
+            return "Error retrieving access rates: " + e.getMessage();
+        }
+    }
+    
+    private String databaseStats(ResponseOptions options) {
+        int totalSpecies = monkeySpeciesService.getSpeciesCount();
+        List<MonkeySpecies> allSpecies = monkeySpeciesService.getAllSpecies();
+        
+        if (allSpecies.isEmpty()) {
+            return "Database is empty - no monkey species available.";
+        }
+        
+        // Calculate total population
+        long totalPopulation = allSpecies.stream()
+                .mapToLong(species -> species.population() != null ? species.population() : 0)
+                .sum();
+        
+        // Find most accessed species
+        Optional<MonkeySpecies> mostAccessed = allSpecies.stream()
+                .max((a, b) -> Integer.compare(a.accessed(), b.accessed()));
+        
+        // Count unique locations
+        long uniqueLocations = allSpecies.stream()
+                .map(MonkeySpecies::location)
+                .distinct()
+                .count();
+        
+        DatabaseStats stats = new DatabaseStats(totalSpecies, totalPopulation, uniqueLocations, mostAccessed.orElse(null));
+        return responseFormatter.stats("get_monkey_species_stats", stats, options);
+    }
+    
+    private static String normalize(String speciesName) {
+        return speciesName == null ? "" : speciesName.trim().toLowerCase(Locale.ROOT);
+    }
 }
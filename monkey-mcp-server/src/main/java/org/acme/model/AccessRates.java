@@ -0,0 +1,26 @@
+package org.acme.model;
+
+/**
+ * Snapshot of recent access activity for a monkey species.
+ * Counts cover the last minute, five minutes and hour at the time the snapshot was taken.
+ */
+public record AccessRates(
+    String speciesName,
+    long lastMinute,
+    long lastFiveMinutes,
+    long lastHour
+) {
+
+    /**
+     * Formats the access rates for display.
+     *
+     * @return A single line with the counts and per-minute rates for each window
+     */
+    public String toFormattedString() {
+        return String.format("%s - 1m: %d (%.1f/min), 5m: %d (%.1f/min), 1h: %d (%.1f/min)",
+            speciesName,
+            lastMinute, (double) lastMinute,
+            lastFiveMinutes, lastFiveMinutes / 5.0,
+            lastHour, lastHour / 60.0);
+    }
+}
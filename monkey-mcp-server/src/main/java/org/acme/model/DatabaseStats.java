@@ -0,0 +1,12 @@
+package org.acme.model;
+
+/**
+ * Summary statistics of the species database at the time they were computed.
+ */
+public record DatabaseStats(
+    int totalSpecies,
+    long totalPopulation,
+    long uniqueLocations,
+    MonkeySpecies mostAccessed
+) {
+}
@@ -22,6 +22,16 @@ public record MonkeySpecies(
      * @return A new MonkeySpecies instance with accessed count incremented by 1
      */
     public MonkeySpecies withIncrementedAccess() {
+        return withAccessIncrementedBy(1);
+    }
+    
+    /**
+     * Creates a new MonkeySpecies with the access count incremented by the given amount.
+     * 
+     * @param count The number of accesses to add
+     * @return A new MonkeySpecies instance with accessed count incremented by count
+     */
+    public MonkeySpecies withAccessIncrementedBy(int count) {
         return new MonkeySpecies(
             this.speciesName,
             this.location,
@@ -29,7 +39,26 @@ public record MonkeySpecies(
             this.population,
             this.latitude,
             this.longitude,
-            this.accessed + 1,
+            this.accessed + count,
+            this.isFictional
+        );
+    }
+    
+    /**
+     * Creates a new MonkeySpecies with different details, e.g. shortened to fit a response.
+     * 
+     * @param details The details to use
+     * @return A new MonkeySpecies instance with the given details
+     */
+    public MonkeySpecies withDetails(String details) {
+        return new MonkeySpecies(
+            this.speciesName,
+            this.location,
+            details,
+            this.population,
+            this.latitude,
+            this.longitude,
+            this.accessed,
             this.isFictional
         );
     }
@@ -1,20 +1,27 @@
 package org.acme.repository;
 
+import org.acme.model.AccessRates;
 import org.acme.model.MonkeySpecies;
 import jakarta.enterprise.context.ApplicationScoped;
+import java.time.Clock;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Repository for managing monkey species data.
  * Handles thread-safe operations for immutable MonkeySpecies records.
+ * The data lives in an immutable {@link SpeciesCatalog} version that is swapped atomically
+ * on reload; every operation reads the current version once, so calls in flight during a
+ * reload finish against the version they started with.
  */
 @ApplicationScoped
 public class MonkeySpeciesRepository {
     
-    private final Map<String, MonkeySpecies> speciesDatabase = new ConcurrentHashMap<>();
+    private final AtomicReference<SpeciesCatalog> catalog = new AtomicReference<>();
     private final Random random = new Random();
     
+    Clock clock = Clock.systemUTC();
+    
     /**
      * Initializes the repository with sample monkey species data.
      */
@@ -28,7 +35,7 @@ public class MonkeySpeciesRepository {
      * @return A list of all monkey species
      */
     public List<MonkeySpecies> findAll() {
-        return new ArrayList<>(speciesDatabase.values());
+        return catalog.get().all();
     }
     
     /**
@@ -42,12 +49,59 @@ public class MonkeySpeciesRepository {
             return Optional.empty();
         }
         
-        return Optional.ofNullable(speciesDatabase.get(speciesName.toLowerCase()))
-                .map(species -> {
-                    MonkeySpecies updatedSpecies = species.withIncrementedAccess();
-                    speciesDatabase.put(speciesName.toLowerCase(), updatedSpecies);
-                    return updatedSpecies;
-                });
+        return Optional.ofNullable(incrementAccess(catalog.get(), speciesName.toLowerCase()));
+    }
+    
+    /**
+     * Finds several monkey species by name in one pass and increments each found species once.
+     * Names are matched case-insensitively; duplicate names in the request count as a single access.
+     * 
+     * @param speciesNames The names of the species to find
+     * @return A map from each requested name to its species, in request order; names that
+     *         were not found map to an empty Optional
+     */
+    public Map<String, Optional<MonkeySpecies>> findAllByNameAndIncrementAccess(Collection<String> speciesNames) {
+        SpeciesCatalog current = catalog.get();
+        Map<String, Optional<MonkeySpecies>> results = new LinkedHashMap<>();
+        Map<String, MonkeySpecies> updatedByKey = new HashMap<>();
+        
+        for (String speciesName : speciesNames) {
+            if (speciesName == null || speciesName.trim().isEmpty() || results.containsKey(speciesName.trim())) {
+                continue;
+            }
+            String key = SpeciesCatalog.key(speciesName);
+            MonkeySpecies updatedSpecies = updatedByKey.computeIfAbsent(key, k -> incrementAccess(current, k));
+            results.put(speciesName.trim(), Optional.ofNullable(updatedSpecies));
+        }
+        
+        return results;
+    }
+    
+    /**
+     * Counts further accesses to species that were already looked up, without looking them up again.
+     * Used when several identical calls shared one lookup: each caller still counts as an access.
+     * Names are matched case-insensitively; duplicate and unknown names are ignored.
+     * 
+     * @param speciesNames The names of the species that were accessed
+     * @param count The number of accesses to add to each species
+     */
+    public void incrementAccess(Collection<String> speciesNames, int count) {
+        if (count <= 0) {
+            return;
+        }
+        SpeciesCatalog current = catalog.get();
+        long now = clock.millis();
+        Set<String> seen = new HashSet<>();
+        for (String speciesName : speciesNames) {
+            if (speciesName == null || speciesName.trim().isEmpty()) {
+                continue;
+            }
+            String key = SpeciesCatalog.key(speciesName);
+            if (!seen.add(key)) {
+                continue;
+            }
+            current.incrementAccess(key, count, now);
+        }
     }
     
     /**
@@ -56,13 +110,41 @@ public class MonkeySpeciesRepository {
      * @return An Optional containing a random species if any exist, empty otherwise
      */
     public Optional<MonkeySpecies> findRandomAndIncrementAccess() {
-        List<String> speciesNames = new ArrayList<>(speciesDatabase.keySet());
-        if (speciesNames.isEmpty()) {
+        SpeciesCatalog current = catalog.get();
+        if (current.keys.isEmpty()) {
             return Optional.empty();
         }
         
-        String randomSpeciesName = speciesNames.get(random.nextInt(speciesNames.size()));
-        return findByNameAndIncrementAccess(randomSpeciesName);
+        String randomSpeciesName = current.keys.get(random.nextInt(current.keys.size()));
+        return Optional.ofNullable(incrementAccess(current, randomSpeciesName));
+    }
+    
+    /**
+     * Gets the recent access rates for a species.
+     * 
+     * @param speciesName The name of the species
+     * @return An Optional containing the access rates if the species exists, empty otherwise
+     */
+    public Optional<AccessRates> findAccessRates(String speciesName) {
+        if (speciesName == null || speciesName.trim().isEmpty()) {
+            return Optional.empty();
+        }
+        SpeciesCatalog current = catalog.get();
+        return Optional.ofNullable(current.get(SpeciesCatalog.key(speciesName)))
+                .map(species -> toAccessRates(current, species, clock.millis()));
+    }
+    
+    /**
+     * Gets the recent access rates for all species, using a single point in time for every window.
+     * 
+     * @return A list of access rates, one per species
+     */
+    public List<AccessRates> findAllAccessRates() {
+        SpeciesCatalog current = catalog.get();
+        long now = clock.millis();
+        return current.all().stream()
+                .map(species -> toAccessRates(current, species, now))
+                .toList();
     }
     
     /**
@@ -75,7 +157,7 @@ public class MonkeySpeciesRepository {
         if (speciesName == null || speciesName.trim().isEmpty()) {
             return false;
         }
-        return speciesDatabase.containsKey(speciesName.toLowerCase());
+        return catalog.get().contains(speciesName.toLowerCase());
     }
     
     /**
@@ -84,7 +166,57 @@ public class MonkeySpeciesRepository {
      * @return The number of species
      */
     public int getSpeciesCount() {
-        return speciesDatabase.size();
+        return catalog.get().size();
+    }
+    
+    /**
+     * Gets the version of the catalog currently being served.
+     * The initial catalog is version 1 and every successful reload increments it.
+     * 
+     * @return The current catalog version
+     */
+    public long getCatalogVersion() {
+        return catalog.get().version;
+    }
+    
+    /**
+     * Replaces the whole catalog with new data and swaps it in atomically.
+     * Species present in both versions keep their access counts and access-rate history,
+     * including accesses that calls still running against the old version make after the swap.
+     * 
+     * @param species The species making up the new catalog
+     * @return The version number of the new catalog
+     * @throws IllegalArgumentException if a species has no name or a name appears twice
+     */
+    public synchronized long replaceAll(List<MonkeySpecies> species) {
+        Set<String> seen = new HashSet<>();
+        for (MonkeySpecies entry : species) {
+            if (entry.speciesName() == null || entry.speciesName().trim().isEmpty()) {
+                throw new IllegalArgumentException("Species name cannot be empty");
+            }
+            if (!seen.add(SpeciesCatalog.key(entry.speciesName()))) {
+                throw new IllegalArgumentException("Duplicate species name: " + entry.speciesName());
+            }
+        }
+        
+        SpeciesCatalog previous = catalog.get();
+        SpeciesCatalog next = SpeciesCatalog.build(previous.version + 1, species, previous);
+        catalog.set(next);
+        return next.version;
+    }
+    
+    private MonkeySpecies incrementAccess(SpeciesCatalog current, String key) {
+        return current.incrementAccess(key, 1, clock.millis());
+    }
+    
+    private AccessRates toAccessRates(SpeciesCatalog current, MonkeySpecies species, long now) {
+        SlidingWindowCounter window = current.window(SpeciesCatalog.key(species.speciesName()));
+        return new AccessRates(
+            species.speciesName(),
+            window.countLastMinute(now),
+            window.countLastMinutes(now, 5),
+            window.countLastMinutes(now, 60)
+        );
     }
     
     /**
@@ -206,8 +338,6 @@ public class MonkeySpeciesRepository {
             )
         );
         
-        for (MonkeySpecies species : initialSpecies) {
-            speciesDatabase.put(species.speciesName().toLowerCase(), species);
-        }
+        catalog.set(SpeciesCatalog.build(1, initialSpecies, null));
     }
 }
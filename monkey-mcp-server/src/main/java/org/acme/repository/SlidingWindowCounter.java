@@ -0,0 +1,92 @@
+package org.acme.repository;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free sliding time-window counter with a fixed memory footprint.
+ * Keeps two ring buffers: 60 one-second buckets and 60 one-minute buckets.
+ * Each bucket packs its epoch stamp (high 32 bits) and its count (low 32 bits)
+ * into a single long, so rolling a stale bucket over and counting into it is
+ * one compare-and-set with no lost updates.
+ */
+public final class SlidingWindowCounter {
+
+    private static final int SECOND_BUCKETS = 60;
+    private static final int MINUTE_BUCKETS = 60;
+    private static final long COUNT_MASK = 0xFFFF_FFFFL;
+
+    private final AtomicLongArray seconds = new AtomicLongArray(SECOND_BUCKETS);
+    private final AtomicLongArray minutes = new AtomicLongArray(MINUTE_BUCKETS);
+
+    /**
+     * Records a single access at the given instant.
+     *
+     * @param epochMillis The access time in milliseconds since the epoch
+     */
+    public void record(long epochMillis) {
+        record(epochMillis, 1);
+    }
+
+    /**
+     * Records several accesses made at the same instant in one update per ring buffer.
+     *
+     * @param epochMillis The access time in milliseconds since the epoch
+     * @param count The number of accesses
+     */
+    public void record(long epochMillis, int count) {
+        long epochSecond = epochMillis / 1000;
+        increment(seconds, epochSecond, count);
+        increment(minutes, epochSecond / 60, count);
+    }
+
+    /**
+     * Counts accesses in the last 60 seconds, at one-second granularity.
+     *
+     * @param epochMillis The current time in milliseconds since the epoch
+     * @return The number of accesses in the last minute
+     */
+    public long countLastMinute(long epochMillis) {
+        return sum(seconds, epochMillis / 1000, SECOND_BUCKETS);
+    }
+
+    /**
+     * Counts accesses in the last given number of minutes, at one-minute granularity.
+     * The current, partially elapsed minute is included.
+     *
+     * @param epochMillis The current time in milliseconds since the epoch
+     * @param windowMinutes The window size in minutes, between 1 and 60
+     * @return The number of accesses in the window
+     */
+    public long countLastMinutes(long epochMillis, int windowMinutes) {
+        if (windowMinutes < 1 || windowMinutes > MINUTE_BUCKETS) {
+            throw new IllegalArgumentException("Window must be between 1 and " + MINUTE_BUCKETS + " minutes");
+        }
+        return sum(minutes, epochMillis / 60_000, windowMinutes);
+    }
+
+    private static void increment(AtomicLongArray buckets, long epochUnit, int count) {
+        int index = (int) (epochUnit % buckets.length());
+        long stamp = epochUnit & COUNT_MASK;
+        while (true) {
+            long current = buckets.get(index);
+            long updated = (current >>> 32) == stamp
+                    ? current + count
+                    : (stamp << 32) | count;
+            if (buckets.compareAndSet(index, current, updated)) {
+                return;
+            }
+        }
+    }
+
+    private static long sum(AtomicLongArray buckets, long nowUnit, int window) {
+        long total = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            long value = buckets.get(i);
+            long age = (nowUnit & COUNT_MASK) - (value >>> 32);
+            if (value != 0 && age >= 0 && age < window) {
+                total += value & COUNT_MASK;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,135 @@
+package org.acme.repository;
+
+import org.acme.model.MonkeySpecies;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One immutable version of the species catalog and its indexes.
+ * Adding or removing species means building a new version and swapping it in as a whole.
+ * The access count and access-rate window of a species live in an {@link Access} object
+ * that every version containing the species shares, so an increment made through an old
+ * version while a new one is swapped in still shows up in the new one.
+ */
+final class SpeciesCatalog {
+
+    final long version;
+    final List<String> keys;
+    // Species records as loaded; their accessed field is not used
+    private final Map<String, MonkeySpecies> species;
+    private final Map<String, Access> access;
+
+    /**
+     * Access count and access-rate window of one species, shared across catalog versions.
+     */
+    static final class Access {
+
+        final AtomicInteger count;
+        final SlidingWindowCounter window = new SlidingWindowCounter();
+
+        Access(int count) {
+            this.count = new AtomicInteger(count);
+        }
+    }
+
+    private SpeciesCatalog(long version, Map<String, MonkeySpecies> species, Map<String, Access> access) {
+        this.version = version;
+        this.species = Map.copyOf(species);
+        this.access = Map.copyOf(access);
+        this.keys = List.copyOf(species.keySet());
+    }
+
+    /**
+     * Builds a new catalog version. Species that also exist in the previous version share
+     * its access count and access-rate window.
+     *
+     * @param version The version number of the new catalog
+     * @param data The species making up the new catalog
+     * @param previous The catalog being replaced, or null for the first version
+     * @return The new catalog
+     */
+    static SpeciesCatalog build(long version, List<MonkeySpecies> data, SpeciesCatalog previous) {
+        Map<String, MonkeySpecies> species = new HashMap<>();
+        Map<String, Access> access = new HashMap<>();
+
+        for (MonkeySpecies entry : data) {
+            String key = SpeciesCatalog.key(entry.speciesName());
+            species.put(key, new MonkeySpecies(
+                entry.speciesName(),
+                entry.location(),
+                entry.details(),
+                entry.population(),
+                entry.latitude(),
+                entry.longitude(),
+                0,
+                Boolean.TRUE.equals(entry.isFictional())
+            ));
+            Access old = previous != null ? previous.access.get(key) : null;
+            access.put(key, old != null ? old : new Access(0));
+        }
+
+        return new SpeciesCatalog(version, species, access);
+    }
+
+    /**
+     * Gets a species with its current access count.
+     *
+     * @param key The species key
+     * @return The species, or null if this version does not contain it
+     */
+    MonkeySpecies get(String key) {
+        MonkeySpecies entry = species.get(key);
+        return entry != null ? entry.withAccessIncrementedBy(access.get(key).count.get()) : null;
+    }
+
+    /**
+     * Gets every species with its current access count.
+     *
+     * @return The species of this version
+     */
+    List<MonkeySpecies> all() {
+        List<MonkeySpecies> all = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            all.add(get(key));
+        }
+        return all;
+    }
+
+    boolean contains(String key) {
+        return species.containsKey(key);
+    }
+
+    int size() {
+        return species.size();
+    }
+
+    /**
+     * Counts accesses to a species.
+     *
+     * @param key The species key
+     * @param count The number of accesses
+     * @param epochMillis The access time
+     * @return The species with its access count after this increment, or null if this version does not contain it
+     */
+    MonkeySpecies incrementAccess(String key, int count, long epochMillis) {
+        MonkeySpecies entry = species.get(key);
+        if (entry == null) {
+            return null;
+        }
+        Access counters = access.get(key);
+        int accessed = counters.count.addAndGet(count);
+        counters.window.record(epochMillis, count);
+        return entry.withAccessIncrementedBy(accessed);
+    }
+
+    SlidingWindowCounter window(String key) {
+        return access.get(key).window;
+    }
+
+    static String key(String speciesName) {
+        return speciesName.trim().toLowerCase();
+    }
+}
@@ -0,0 +1,225 @@
+package org.acme.repository;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.acme.model.MonkeySpecies;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Loads the species catalog from a JSON dataset and reloads it when the dataset changes.
+ * The dataset is either a single file or a directory of {@code *.json} files, each holding
+ * an array of species. Rebuilds happen on a background thread and are swapped into the
+ * repository atomically, so open MCP sessions never need to be drained.
+ */
+@ApplicationScoped
+public class SpeciesCatalogWatcher {
+
+    private static final Logger LOG = Logger.getLogger(SpeciesCatalogWatcher.class);
+    private static final TypeReference<List<MonkeySpecies>> SPECIES_LIST = new TypeReference<>() {
+    };
+
+    @Inject
+    MonkeySpeciesRepository repository;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "monkey.catalog.path")
+    Optional<Path> catalogPath;
+
+    @ConfigProperty(name = "monkey.catalog.watch", defaultValue = "true")
+    boolean watch;
+
+    @ConfigProperty(name = "monkey.catalog.debounce", defaultValue = "500ms")
+    Duration debounce;
+
+    private volatile WatchService watchService;
+
+    void onStart(@Observes StartupEvent event) {
+        registry.gauge("monkey.catalog.version", repository, MonkeySpeciesRepository::getCatalogVersion);
+        if (catalogPath.isEmpty()) {
+            return;
+        }
+
+        try {
+            reload();
+        } catch (IOException | RuntimeException e) {
+            LOG.errorf("Failed to load species catalog from %s, serving built-in data: %s", catalogPath.get(), e.getMessage());
+        }
+
+        if (watch) {
+            startWatching(catalogPath.get());
+        }
+    }
+
+    void onStop(@Observes ShutdownEvent event) throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    /**
+     * Reads the dataset, rebuilds the catalog and its indexes, and swaps it in.
+     * On failure the current catalog stays in place.
+     *
+     * @return A report of the rebuild
+     * @throws IOException if the dataset cannot be read or parsed
+     */
+    public synchronized ReloadReport reload() throws IOException {
+        Path path = catalogPath.orElseThrow(() -> new IllegalStateException("monkey.catalog.path is not configured"));
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long heapBefore = memory.getHeapMemoryUsage().getUsed();
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+
+        List<MonkeySpecies> species = readDataset(path);
+        long version = repository.replaceAll(species);
+
+        Duration rebuildTime = Duration.ofNanos(System.nanoTime() - start);
+        long allocated = allocatedBytes() - allocatedBefore;
+        ReloadReport report = new ReloadReport(version, species.size(), rebuildTime, allocated,
+                memory.getHeapMemoryUsage().getUsed() - heapBefore);
+
+        Timer.builder("monkey.catalog.rebuild").register(registry).record(rebuildTime);
+        DistributionSummary.builder("monkey.catalog.rebuild.allocated").baseUnit("bytes").register(registry).record(allocated);
+        LOG.infof("Species catalog v%d loaded from %s: %d species in %d ms, %d KB allocated, heap delta %d KB",
+                version, path, species.size(), rebuildTime.toMillis(), allocated / 1024, report.heapDeltaBytes() / 1024);
+        return report;
+    }
+
+    private List<MonkeySpecies> readDataset(Path path) throws IOException {
+        if (!Files.isDirectory(path)) {
+            return readFile(path);
+        }
+
+        List<Path> files;
+        try (Stream<Path> entries = Files.list(path)) {
+            files = entries.filter(SpeciesCatalogWatcher::isDatasetFile).sorted().toList();
+        }
+        List<MonkeySpecies> species = new ArrayList<>();
+        for (Path file : files) {
+            species.addAll(readFile(file));
+        }
+        return species;
+    }
+
+    private List<MonkeySpecies> readFile(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return objectMapper.readValue(in, SPECIES_LIST);
+        }
+    }
+
+    private void startWatching(Path path) {
+        Path directory = Files.isDirectory(path) ? path : path.toAbsolutePath().getParent();
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            directory.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            LOG.errorf("Cannot watch %s for catalog changes: %s", directory, e.getMessage());
+            return;
+        }
+
+        Thread.ofPlatform().daemon().name("species-catalog-watcher").start(() -> watchLoop(path));
+        LOG.infof("Watching %s for species catalog changes", directory);
+    }
+
+    private void watchLoop(Path path) {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean relevant = isRelevant(key, path);
+                key.reset();
+                if (!relevant) {
+                    continue;
+                }
+
+                // Editors and copy tools write in several steps; wait for the burst to settle
+                Thread.sleep(debounce.toMillis());
+                WatchKey pending;
+                while ((pending = watchService.poll()) != null) {
+                    pending.pollEvents();
+                    pending.reset();
+                }
+
+                try {
+                    reload();
+                } catch (IOException | RuntimeException e) {
+                    LOG.errorf("Species catalog reload failed, keeping v%d: %s", repository.getCatalogVersion(), e.getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Shutting down
+        }
+    }
+
+    private static boolean isRelevant(WatchKey key, Path path) {
+        boolean relevant = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (!(event.context() instanceof Path changed)) {
+                continue;
+            }
+            if (Files.isDirectory(path) ? isDatasetFile(changed) : changed.equals(path.getFileName())) {
+                relevant = true;
+            }
+        }
+        return relevant;
+    }
+
+    private static boolean isDatasetFile(Path file) {
+        return file.getFileName().toString().endsWith(".json");
+    }
+
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads) {
+            return threads.getCurrentThreadAllocatedBytes();
+        }
+        return 0;
+    }
+
+    /**
+     * Outcome of a catalog rebuild.
+     *
+     * @param version The catalog version now being served
+     * @param speciesCount The number of species in the new catalog
+     * @param rebuildTime Time taken to read the dataset and build the new catalog
+     * @param allocatedBytes Bytes allocated by the rebuilding thread
+     * @param heapDeltaBytes Change in used heap across the rebuild (affected by concurrent GC)
+     */
+    public record ReloadReport(long version, int speciesCount, Duration rebuildTime, long allocatedBytes, long heapDeltaBytes) {
+    }
+}
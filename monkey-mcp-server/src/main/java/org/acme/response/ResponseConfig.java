@@ -0,0 +1,32 @@
+package org.acme.response;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+/**
+ * Default rendering of tool responses. A session can override these with the
+ * {@code set_response_profile} tool, and a single call with its {@code format} and
+ * {@code maxTokens} arguments.
+ */
+@ConfigMapping(prefix = "monkey.response")
+public interface ResponseConfig {
+
+    /**
+     * Profile used when neither the call nor its session chose one.
+     */
+    @WithDefault("verbose")
+    ResponseProfile profile();
+
+    /**
+     * Approximate token budget of a response when neither the call nor its session set one; 0 for no budget.
+     */
+    @WithDefault("0")
+    int maxTokens();
+
+    /**
+     * Whether responses end with their size in bytes and estimated tokens. Room for the size is
+     * kept within the token budget.
+     */
+    @WithDefault("true")
+    boolean reportSize();
+}
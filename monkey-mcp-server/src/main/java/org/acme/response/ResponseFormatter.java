@@ -0,0 +1,493 @@
+package org.acme.response;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkiverse.mcp.server.McpConnection;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.acme.model.AccessRates;
+import org.acme.model.DatabaseStats;
+import org.acme.model.MonkeySpecies;
+
+/**
+ * Renders tool responses in the profile and within the token budget chosen for a call.
+ *
+ * Tokens are estimated at four characters each. A response over its budget first has the
+ * {@code details} of its species shortened at a word boundary, down to
+ * {@value #MIN_DETAILS_CHARACTERS} characters each, and then leaves out trailing list items
+ * with a note saying how many were left out. At least one item is always kept, so a small
+ * budget can still be exceeded. Responses end with their size, for which room is kept within
+ * the budget, and the size is also recorded in the {@code mcp_response_bytes} metric.
+ */
+@ApplicationScoped
+public class ResponseFormatter {
+
+    static final int CHARACTERS_PER_TOKEN = 4;
+    static final int MIN_DETAILS_CHARACTERS = 40;
+
+    private static final String ELLIPSIS = "…";
+
+    @Inject
+    ResponseConfig config;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    private final Map<String, SessionOptions> sessions = new ConcurrentHashMap<>();
+
+    private record SessionOptions(McpConnection connection, ResponseOptions options) {
+    }
+
+    private record Rendered(String text, boolean truncated) {
+    }
+
+    /**
+     * Renders the first {@code shown} items with details cut to {@code detailsLimit} characters.
+     */
+    @FunctionalInterface
+    private interface Renderer {
+        String render(int shown, int detailsLimit);
+    }
+
+    /**
+     * Resolves the options of one call. Arguments given with the call win over the session's
+     * options, which win over the configured defaults.
+     *
+     * @param connection The MCP connection making the call, or null for in-process callers
+     * @param format The profile name given with the call, or null
+     * @param maxTokens The token budget given with the call, or null
+     * @return The options to render the response with
+     * @throws IllegalArgumentException if the format is not a known profile
+     */
+    public ResponseOptions options(McpConnection connection, String format, Integer maxTokens) {
+        SessionOptions session = connection != null ? sessions.get(connection.id()) : null;
+        ResponseOptions base = session != null ? session.options() : defaults();
+        ResponseProfile profile = format == null || format.isBlank() ? base.profile() : parse(format);
+        return new ResponseOptions(profile, maxTokens != null ? Math.max(0, maxTokens) : base.maxTokens());
+    }
+
+    /**
+     * Sets the options used for the rest of a session's calls that do not choose their own.
+     *
+     * @param connection The MCP connection of the session, or null for in-process callers
+     * @param format The profile name
+     * @param maxTokens The token budget, or null for the configured default
+     * @return The options now in effect for the session
+     * @throws IllegalArgumentException if the format is not a known profile
+     */
+    public ResponseOptions setSessionOptions(McpConnection connection, String format, Integer maxTokens) {
+        ResponseOptions options = new ResponseOptions(parse(format),
+                maxTokens != null ? Math.max(0, maxTokens) : config.maxTokens());
+        if (connection != null) {
+            sessions.entrySet().removeIf(entry -> entry.getValue().connection().status() == McpConnection.Status.CLOSED);
+            sessions.put(connection.id(), new SessionOptions(connection, options));
+        }
+        return options;
+    }
+
+    /**
+     * Renders a single species, e.g. for a details lookup.
+     *
+     * @param tool The tool answering, for metrics
+     * @param heading A line shown before the species in the verbose profile, or null
+     */
+    public String species(String tool, MonkeySpecies species, String heading, ResponseOptions options) {
+        Rendered rendered = fit(options, 1, detailsLength(species), (shown, limit) -> switch (options.profile()) {
+            case VERBOSE -> (heading != null ? heading + "\n\n" : "") + shorten(species, limit).toFormattedString();
+            case COMPACT -> compactLine(shorten(species, limit));
+            case JSON -> json(speciesNode(shorten(species, limit)));
+        });
+        return finish(tool, options, rendered);
+    }
+
+    /**
+     * Renders the list of all species without their details.
+     */
+    public String speciesList(String tool, List<MonkeySpecies> species, ResponseOptions options) {
+        Rendered rendered = fit(options, species.size(), 0, (shown, limit) -> {
+            List<MonkeySpecies> page = species.subList(0, shown);
+            int omitted = species.size() - shown;
+            return switch (options.profile()) {
+                case VERBOSE -> {
+                    StringBuilder result = new StringBuilder();
+                    result.append("Available Monkey Species (").append(species.size()).append(" total):\n\n");
+                    for (MonkeySpecies item : page) {
+                        result.append("• ").append(item.speciesName()).append(fictionalFlag(item))
+                              .append(" (").append(item.location()).append(")")
+                              .append(" - Population: ").append(item.population())
+                              .append("\n");
+                    }
+                    yield result.append(omittedNote(omitted)).toString();
+                }
+                case COMPACT -> {
+                    StringBuilder result = new StringBuilder();
+                    result.append(species.size()).append(" species\n");
+                    for (MonkeySpecies item : page) {
+                        result.append(item.speciesName()).append(fictionalFlag(item))
+                              .append(" | ").append(item.location())
+                              .append(" | pop ").append(item.population())
+                              .append("\n");
+                    }
+                    yield result.append(omittedNote(omitted)).toString();
+                }
+                case JSON -> {
+                    ObjectNode result = objectMapper.createObjectNode().put("total", species.size());
+                    ArrayNode items = result.putArray("species");
+                    for (MonkeySpecies item : page) {
+                        items.addObject()
+                             .put("name", item.speciesName())
+                             .put("location", item.location())
+                             .put("population", item.population())
+                             .put("fictional", item.isFictional());
+                    }
+                    putOmitted(result, omitted);
+                    yield json(result);
+                }
+            };
+        });
+        return finish(tool, options, rendered);
+    }
+
+    /**
+     * Renders the result of a batch lookup.
+     *
+     * @param results Each requested name mapped to its species, or to empty if not found
+     * @param suggestions Species names offered when some were not found
+     */
+    public String speciesBatch(String tool, Map<String, Optional<MonkeySpecies>> results, List<String> suggestions,
+            ResponseOptions options) {
+        List<MonkeySpecies> found = results.values().stream().flatMap(Optional::stream).toList();
+        List<String> missing = results.entrySet().stream()
+                .filter(entry -> entry.getValue().isEmpty())
+                .map(Map.Entry::getKey)
+                .toList();
+        int longestDetails = found.stream().mapToInt(ResponseFormatter::detailsLength).max().orElse(0);
+
+        Rendered rendered = fit(options, found.size(), longestDetails, (shown, limit) -> {
+            List<MonkeySpecies> page = found.subList(0, shown);
+            int omitted = found.size() - shown;
+            return switch (options.profile()) {
+                case VERBOSE -> {
+                    StringBuilder result = new StringBuilder();
+                    result.append("Found ").append(found.size()).append(" of ").append(results.size())
+                          .append(" requested monkey species:\n\n");
+                    for (MonkeySpecies species : page) {
+                        result.append(shorten(species, limit).toFormattedString()).append("\n");
+                    }
+                    result.append(omittedNote(omitted));
+                    if (!missing.isEmpty()) {
+                        result.append(String.format("Not found: %s. Available species include: %s%n",
+                                                    String.join(", ", missing), String.join(", ", suggestions)));
+                    }
+                    yield result.toString();
+                }
+                case COMPACT -> {
+                    StringBuilder result = new StringBuilder();
+                    result.append("found ").append(found.size()).append(" of ").append(results.size()).append("\n");
+                    for (MonkeySpecies species : page) {
+                        result.append(compactLine(shorten(species, limit))).append("\n");
+                    }
+                    result.append(omittedNote(omitted));
+                    if (!missing.isEmpty()) {
+                        result.append("not found: ").append(String.join(", ", missing))
+                              .append(" | available: ").append(String.join(", ", suggestions)).append("\n");
+                    }
+                    yield result.toString();
+                }
+                case JSON -> {
+                    ObjectNode result = objectMapper.createObjectNode()
+                            .put("found", found.size())
+                            .put("requested", results.size());
+                    ArrayNode items = result.putArray("species");
+                    page.forEach(species -> items.add(speciesNode(shorten(species, limit))));
+                    putOmitted(result, omitted);
+                    if (!missing.isEmpty()) {
+                        missing.forEach(result.putArray("notFound")::add);
+                        suggestions.forEach(result.putArray("availableSpecies")::add);
+                    }
+                    yield json(result);
+                }
+            };
+        });
+        return finish(tool, options, rendered);
+    }
+
+    /**
+     * Renders database statistics. They are short, so they are never cut.
+     */
+    public String stats(String tool, DatabaseStats stats, ResponseOptions options) {
+        MonkeySpecies popular = stats.mostAccessed();
+        String text = switch (options.profile()) {
+            case VERBOSE -> {
+                StringBuilder result = new StringBuilder();
+                result.append("Monkey Species Database Statistics:\n\n");
+                result.append("• Total Species: ").append(stats.totalSpecies()).append("\n");
+                result.append("• Total Population: ").append(String.format("%,d", stats.totalPopulation())).append("\n");
+                result.append("• Unique Locations: ").append(stats.uniqueLocations()).append("\n");
+                if (popular != null) {
+                    result.append("• Most Accessed: ").append(popular.speciesName())
+                          .append(" (").append(popular.accessed()).append(" times)\n");
+                }
+                yield result.toString();
+            }
+            case COMPACT -> "species " + stats.totalSpecies()
+                    + " | population " + stats.totalPopulation()
+                    + " | locations " + stats.uniqueLocations()
+                    + (popular != null ? " | most accessed " + popular.speciesName() + " (" + popular.accessed() + ")" : "");
+            case JSON -> {
+                ObjectNode result = objectMapper.createObjectNode()
+                        .put("totalSpecies", stats.totalSpecies())
+                        .put("totalPopulation", stats.totalPopulation())
+                        .put("uniqueLocations", stats.uniqueLocations());
+                if (popular != null) {
+                    result.putObject("mostAccessed")
+                          .put("name", popular.speciesName())
+                          .put("accessed", popular.accessed());
+                }
+                yield json(result);
+            }
+        };
+        return finish(tool, options, new Rendered(text, false));
+    }
+
+    /**
+     * Renders recent access rates, in the order given.
+     */
+    public String accessRates(String tool, List<AccessRates> rates, ResponseOptions options) {
+        Rendered rendered = fit(options, rates.size(), 0, (shown, limit) -> {
+            List<AccessRates> page = rates.subList(0, shown);
+            int omitted = rates.size() - shown;
+            return switch (options.profile()) {
+                case VERBOSE -> {
+                    StringBuilder result = new StringBuilder();
+                    result.append("Monkey Species Access Rates (hottest first):\n\n");
+                    for (AccessRates rate : page) {
+                        result.append("• ").append(rate.toFormattedString()).append("\n");
+                    }
+                    yield result.append(omittedNote(omitted)).toString();
+                }
+                case COMPACT -> {
+                    StringBuilder result = new StringBuilder();
+                    result.append("species | 1m | 5m | 1h\n");
+                    for (AccessRates rate : page) {
+                        result.append(rate.speciesName())
+                              .append(" | ").append(rate.lastMinute())
+                              .append(" | ").append(rate.lastFiveMinutes())
+                              .append(" | ").append(rate.lastHour())
+                              .append("\n");
+                    }
+                    yield result.append(omittedNote(omitted)).toString();
+                }
+                case JSON -> {
+                    ObjectNode result = objectMapper.createObjectNode();
+                    ArrayNode items = result.putArray("species");
+                    for (AccessRates rate : page) {
+                        items.addObject()
+                             .put("name", rate.speciesName())
+                             .put("lastMinute", rate.lastMinute())
+                             .put("lastFiveMinutes", rate.lastFiveMinutes())
+                             .put("lastHour", rate.lastHour());
+                    }
+                    putOmitted(result, omitted);
+                    yield json(result);
+                }
+            };
+        });
+        return finish(tool, options, rendered);
+    }
+
+    /**
+     * Estimated number of tokens of a text, at four characters each.
+     */
+    static int estimateTokens(String text) {
+        return (text.length() + CHARACTERS_PER_TOKEN - 1) / CHARACTERS_PER_TOKEN;
+    }
+
+    private ResponseOptions defaults() {
+        return new ResponseOptions(config.profile(), config.maxTokens());
+    }
+
+    private static ResponseProfile parse(String format) {
+        return ResponseProfile.parse(format).orElseThrow(() -> new IllegalArgumentException(
+                String.format("Unknown response format '%s'. Use verbose, compact or json.", format)));
+    }
+
+    /**
+     * Renders everything if it fits the budget. Otherwise shortens details to the longest
+     * limit that fits, and if even the shortest does not, leaves out as few trailing items as
+     * needed. Each search is a bisection over a monotone size.
+     */
+    private Rendered fit(ResponseOptions options, int items, int longestDetails, Renderer renderer) {
+        String full = renderer.render(items, Integer.MAX_VALUE);
+        if (!options.hasBudget()) {
+            return new Rendered(full, false);
+        }
+        int budget = options.maxTokens() - sizeReserve(options);
+        if (fits(full, budget)) {
+            return new Rendered(full, false);
+        }
+
+        int detailsLimit = Integer.MAX_VALUE;
+        if (longestDetails > MIN_DETAILS_CHARACTERS) {
+            int low = MIN_DETAILS_CHARACTERS;
+            int high = longestDetails - 1;
+            String best = null;
+            while (low <= high) {
+                int limit = (low + high) >>> 1;
+                String text = renderer.render(items, limit);
+                if (fits(text, budget)) {
+                    best = text;
+                    low = limit + 1;
+                } else {
+                    high = limit - 1;
+                }
+            }
+            if (best != null) {
+                return new Rendered(best, true);
+            }
+            detailsLimit = MIN_DETAILS_CHARACTERS;
+        }
+
+        int low = Math.min(1, items);
+        int high = items - 1;
+        String best = renderer.render(low, detailsLimit);
+        while (low <= high) {
+            int shown = (low + high) >>> 1;
+            String text = renderer.render(shown, detailsLimit);
+            if (fits(text, budget)) {
+                best = text;
+                low = shown + 1;
+            } else {
+                high = shown - 1;
+            }
+        }
+        return new Rendered(best, true);
+    }
+
+    private static boolean fits(String text, int budget) {
+        return estimateTokens(text) <= budget;
+    }
+
+    /**
+     * Tokens kept free for the size that {@link #finish} adds, counted for the largest size a
+     * response within the budget can report, so that the response with its size still fits.
+     */
+    private int sizeReserve(ResponseOptions options) {
+        if (!config.reportSize()) {
+            return 0;
+        }
+        int tokens = options.maxTokens();
+        // A UTF-16 character takes at most three UTF-8 bytes
+        long bytes = (long) tokens * CHARACTERS_PER_TOKEN * 3;
+        String size = options.profile() == ResponseProfile.JSON
+                ? ",\"size\":{\"bytes\":" + bytes + ",\"tokens\":" + tokens + "}"
+                : sizeNote(bytes, tokens);
+        return estimateTokens(size);
+    }
+
+    private static String sizeNote(long bytes, int tokens) {
+        return "\n[" + bytes + " bytes, ~" + tokens + " tokens]";
+    }
+
+    /**
+     * Adds the size of the response and records it.
+     */
+    private String finish(String tool, ResponseOptions options, Rendered rendered) {
+        String text = rendered.text();
+        int bytes = text.getBytes(StandardCharsets.UTF_8).length;
+        int tokens = estimateTokens(text);
+
+        DistributionSummary.builder("mcp.response.bytes")
+                .baseUnit("bytes")
+                .tag("tool", tool)
+                .tag("profile", options.profile().toString())
+                .register(registry)
+                .record(bytes);
+        if (rendered.truncated()) {
+            Counter.builder("mcp.response.truncated").tag("tool", tool).register(registry).increment();
+        }
+
+        if (!config.reportSize()) {
+            return text;
+        }
+        if (options.profile() == ResponseProfile.JSON) {
+            try {
+                ObjectNode node = (ObjectNode) objectMapper.readTree(text);
+                node.putObject("size").put("bytes", bytes).put("tokens", tokens);
+                return objectMapper.writeValueAsString(node);
+            } catch (JsonProcessingException e) {
+                return text;
+            }
+        }
+        return text.stripTrailing() + sizeNote(bytes, tokens);
+    }
+
+    private String json(ObjectNode node) {
+        try {
+            return objectMapper.writeValueAsString(node);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not render response as JSON", e);
+        }
+    }
+
+    private ObjectNode speciesNode(MonkeySpecies species) {
+        return objectMapper.createObjectNode()
+                .put("name", species.speciesName())
+                .put("location", species.location())
+                .put("details", species.details())
+                .put("population", species.population())
+                .put("latitude", species.latitude())
+                .put("longitude", species.longitude())
+                .put("accessed", species.accessed())
+                .put("fictional", species.isFictional());
+    }
+
+    private static String compactLine(MonkeySpecies species) {
+        return String.format("%s%s | %s | pop %d | %.2f,%.2f | accessed %d | %s",
+                species.speciesName(), fictionalFlag(species), species.location(), species.population(),
+                species.latitude(), species.longitude(), species.accessed(), species.details());
+    }
+
+    private static String fictionalFlag(MonkeySpecies species) {
+        return Boolean.TRUE.equals(species.isFictional()) ? " *FAKE*" : "";
+    }
+
+    private static String omittedNote(int omitted) {
+        return omitted > 0 ? ELLIPSIS + " and " + omitted + " more, left out to fit the token budget\n" : "";
+    }
+
+    private static void putOmitted(ObjectNode node, int omitted) {
+        if (omitted > 0) {
+            node.put("omitted", omitted);
+        }
+    }
+
+    private static int detailsLength(MonkeySpecies species) {
+        return species.details() != null ? species.details().length() : 0;
+    }
+
+    private static MonkeySpecies shorten(MonkeySpecies species, int limit) {
+        String details = species.details();
+        if (details == null || details.length() <= limit) {
+            return species;
+        }
+        int cut = details.lastIndexOf(' ', limit - 1);
+        if (cut < limit / 2) {
+            cut = limit - 1;
+        }
+        return species.withDetails(details.substring(0, cut).stripTrailing() + ELLIPSIS);
+    }
+}
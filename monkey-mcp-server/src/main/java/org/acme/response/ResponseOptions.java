@@ -0,0 +1,19 @@
+package org.acme.response;
+
+/**
+ * The profile and token budget a tool response is rendered with.
+ *
+ * @param profile How the response is rendered
+ * @param maxTokens Approximate token budget of the response, or 0 for no budget
+ */
+public record ResponseOptions(ResponseProfile profile, int maxTokens) {
+
+    /**
+     * Verbose responses without a budget, as the tools answered before profiles existed.
+     */
+    public static final ResponseOptions DEFAULT = new ResponseOptions(ResponseProfile.VERBOSE, 0);
+
+    public boolean hasBudget() {
+        return maxTokens > 0;
+    }
+}
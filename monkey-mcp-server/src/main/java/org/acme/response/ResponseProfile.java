@@ -0,0 +1,47 @@
+package org.acme.response;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * How tool responses are rendered for the model.
+ */
+public enum ResponseProfile {
+
+    /**
+     * Labelled, human-readable prose with bullet glyphs.
+     */
+    VERBOSE,
+
+    /**
+     * One line per record with fields separated by {@code |} and no labels.
+     */
+    COMPACT,
+
+    /**
+     * A JSON object, for clients that parse the response rather than show it.
+     */
+    JSON;
+
+    /**
+     * Parses a profile name, ignoring case.
+     *
+     * @param name The profile name, e.g. "compact"
+     * @return The profile, or empty if the name is not one
+     */
+    public static Optional<ResponseProfile> parse(String name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(valueOf(name.trim().toUpperCase(Locale.ROOT)));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
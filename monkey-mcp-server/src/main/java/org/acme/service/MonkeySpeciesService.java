@@ -1,10 +1,14 @@
 package org.acme.service;
 
+import org.acme.model.AccessRates;
 import org.acme.model.MonkeySpecies;
 import org.acme.repository.MonkeySpeciesRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import java.util.Comparator;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -48,6 +52,36 @@ public class MonkeySpeciesService {
                 .map(species -> repository.findByNameAndIncrementAccess(species.speciesName()).orElse(species));
     }
     
+    /**
+     * Gets detailed information for several monkey species in a single pass.
+     * Each species found is counted as one access, even if requested more than once.
+     * 
+     * @param speciesNames The names of the species to retrieve
+     * @return A map from each requested name to its details, in request order;
+     *         names that were not found map to an empty Optional
+     */
+    public Map<String, Optional<MonkeySpecies>> getSpeciesDetailsBatch(Collection<String> speciesNames) {
+        if (speciesNames == null || speciesNames.isEmpty()) {
+            return Map.of();
+        }
+        
+        return repository.findAllByNameAndIncrementAccess(speciesNames);
+    }
+    
+    /**
+     * Counts accesses by callers that shared another call's lookup of the given species.
+     * 
+     * @param speciesNames The names of the species the shared call looked up
+     * @param count The number of callers that shared it
+     */
+    public void recordSharedAccess(Collection<String> speciesNames, int count) {
+        if (speciesNames == null || speciesNames.isEmpty()) {
+            return;
+        }
+        
+        repository.incrementAccess(speciesNames, count);
+    }
+    
     /**
      * Gets a random monkey species.
      * This method increments the access counter for the selected species.
@@ -93,4 +127,31 @@ public class MonkeySpeciesService {
                 .sorted()
                 .toList();
     }
+    
+    /**
+     * Gets recent access rates for all species, hottest first.
+     * Species are ordered by last-minute, then five-minute, then last-hour access counts.
+     * 
+     * @return A list of access rates for every species
+     */
+    public List<AccessRates> getAccessRates() {
+        return repository.findAllAccessRates().stream()
+                .sorted(Comparator.comparingLong(AccessRates::lastMinute)
+                        .thenComparingLong(AccessRates::lastFiveMinutes)
+                        .thenComparingLong(AccessRates::lastHour)
+                        .reversed()
+                        .thenComparing(AccessRates::speciesName))
+                .toList();
+    }
+    
+    /**
+     * Gets recent access rates for a specific species.
+     * Looking up rates does not count as an access.
+     * 
+     * @param speciesName The name of the species
+     * @return An Optional containing the access rates if found, empty otherwise
+     */
+    public Optional<AccessRates> getAccessRates(String speciesName) {
+        return repository.findAccessRates(speciesName);
+    }
 }
@@ -0,0 +1,131 @@
+package org.acme.admission;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkiverse.mcp.server.InitialRequest;
+import io.quarkiverse.mcp.server.McpConnection;
+import io.quarkiverse.mcp.server.McpLog;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.acme.mcp.MonkeySpeciesMcpServer;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+@TestProfile(AdmissionControllerTest.TightLimits.class)
+class AdmissionControllerTest {
+
+    @Inject
+    AdmissionController admissionController;
+
+    @Inject
+    MonkeySpeciesMcpServer mcpServer;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Test
+    void testToolRateLimitRejectsAfterBurst() {
+        McpConnection connection = new TestConnection("rate-limited");
+        mcpServer.getMonkeySpeciesStats(null, connection);
+        mcpServer.getMonkeySpeciesStats(null, connection);
+
+        AdmissionRejectedException rejected = assertThrows(AdmissionRejectedException.class,
+                () -> mcpServer.getMonkeySpeciesStats(null, connection));
+        assertEquals("rate_limited", rejected.reason());
+
+        // Other sessions have their own buckets
+        assertDoesNotThrow(() -> mcpServer.getMonkeySpeciesStats(null, new TestConnection("well-behaved")));
+        assertTrue(registry.counter("mcp.admission.rejected", "tool", "get_monkey_species_stats", "reason", "rate_limited").count() >= 1);
+    }
+
+    @Test
+    void testSessionConcurrencyLimit() {
+        McpConnection connection = new TestConnection("busy-session");
+        try (AdmissionController.Permit permit = admissionController.acquire(connection, "get_random_monkey_species")) {
+            AdmissionRejectedException rejected = assertThrows(AdmissionRejectedException.class,
+                    () -> admissionController.acquire(connection, "get_random_monkey_species"));
+            assertEquals("session_busy", rejected.reason());
+        }
+
+        assertDoesNotThrow(() -> admissionController.acquire(connection, "get_random_monkey_species").close());
+    }
+
+    @Test
+    void testCallTurnedAwayAsBusySpendsNoToken() {
+        McpConnection connection = new TestConnection("patient-session");
+        try (AdmissionController.Permit permit = admissionController.acquire(connection, "get_monkey_species_stats")) {
+            for (int i = 0; i < 3; i++) {
+                AdmissionRejectedException rejected = assertThrows(AdmissionRejectedException.class,
+                        () -> admissionController.acquire(connection, "get_monkey_species_stats"));
+                assertEquals("session_busy", rejected.reason());
+            }
+        }
+
+        // The burst of 2 still has its second token
+        assertDoesNotThrow(() -> admissionController.acquire(connection, "get_monkey_species_stats").close());
+    }
+
+    @Test
+    void testSweepForgetsOnlySessionsWithoutCallsInFlight() {
+        McpConnection busy = new TestConnection("swept-busy");
+        admissionController.acquire(new TestConnection("swept-idle"), "get_random_monkey_species").close();
+        try (AdmissionController.Permit permit = admissionController.acquire(busy, "get_random_monkey_species")) {
+            admissionController.sweepSessions(System.nanoTime() + TimeUnit.HOURS.toNanos(1));
+            assertEquals(1, admissionController.sessionCount());
+
+            AdmissionRejectedException rejected = assertThrows(AdmissionRejectedException.class,
+                    () -> admissionController.acquire(busy, "get_random_monkey_species"));
+            assertEquals("session_busy", rejected.reason());
+        }
+
+        admissionController.sweepSessions(System.nanoTime() + TimeUnit.HOURS.toNanos(1));
+        assertEquals(0, admissionController.sessionCount());
+        assertDoesNotThrow(() -> admissionController.acquire(busy, "get_random_monkey_species").close());
+    }
+
+    @Test
+    void testGlobalLimitRejectsWhenQueueIsFull() {
+        try (AdmissionController.Permit permit = admissionController.acquire(new TestConnection("first"), "get_random_monkey_species")) {
+            AdmissionRejectedException rejected = assertThrows(AdmissionRejectedException.class,
+                    () -> admissionController.acquire(new TestConnection("second"), "get_random_monkey_species"));
+            assertEquals("queue_full", rejected.reason());
+        }
+    }
+
+    public static class TightLimits implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "monkey.admission.global-max-concurrent", "1",
+                    "monkey.admission.session-max-concurrent", "1",
+                    "monkey.admission.max-queued", "0",
+                    "monkey.admission.tools.\"get_monkey_species_stats\".permits-per-second", "0.001",
+                    "monkey.admission.tools.\"get_monkey_species_stats\".burst", "2");
+        }
+    }
+
+    record TestConnection(String id) implements McpConnection {
+
+        @Override
+        public Status status() {
+            return Status.IN_OPERATION;
+        }
+
+        @Override
+        public InitialRequest initialRequest() {
+            return null;
+        }
+
+        @Override
+        public McpLog.LogLevel logLevel() {
+            return McpLog.LogLevel.INFO;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package org.acme.coalescing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkiverse.mcp.server.InitialRequest;
+import io.quarkiverse.mcp.server.McpConnection;
+import io.quarkiverse.mcp.server.McpLog;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.acme.mcp.MonkeySpeciesMcpServer;
+import org.acme.model.MonkeySpecies;
+import org.acme.service.MonkeySpeciesService;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+class ToolCallCoalescerTest {
+
+    @Inject
+    ToolCallCoalescer coalescer;
+
+    @Inject
+    MonkeySpeciesMcpServer mcpServer;
+
+    @Inject
+    MonkeySpeciesService service;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Test
+    void testIdenticalConcurrentCallsShareOneComputation() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger computations = new AtomicInteger();
+        AtomicInteger shared = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        try {
+            List<Future<String>> calls = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                calls.add(executor.submit(() -> coalescer.execute("shared_tool", List.of("mandrill"), () -> {
+                    computations.incrementAndGet();
+                    await(release);
+                    return "response";
+                }, shared::addAndGet)));
+            }
+            waitUntil(() -> joined("shared_tool") == 4);
+            release.countDown();
+
+            for (Future<String> call : calls) {
+                assertEquals("response", call.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, computations.get());
+        assertEquals(4, shared.get());
+        assertEquals(1, registry.counter("mcp.coalescing.calls", "tool", "shared_tool", "outcome", "computed").count());
+
+        // The flight is over: the next call computes again
+        assertEquals("again", coalescer.execute("shared_tool", List.of("mandrill"), () -> "again"));
+    }
+
+    @Test
+    void testDifferentArgumentsAndFailuresAreNotShared() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> failing = executor.submit(() -> coalescer.execute("failing_tool", List.of("a"), () -> {
+                await(release);
+                throw new IllegalStateException("boom");
+            }));
+            Future<String> joining = executor.submit(() -> {
+                waitUntil(() -> registry.find("mcp.coalescing.calls").tag("tool", "failing_tool").counter() != null);
+                return coalescer.execute("failing_tool", List.of("a"), () -> "not shared");
+            });
+            waitUntil(() -> joined("failing_tool") == 1);
+
+            assertEquals("other", coalescer.execute("failing_tool", List.of("b"), () -> "other"));
+            release.countDown();
+
+            Exception failure = assertThrows(Exception.class, () -> failing.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, failure.getCause());
+            Exception joinedFailure = assertThrows(Exception.class, () -> joining.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, joinedFailure.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals("recovered", coalescer.execute("failing_tool", List.of("a"), () -> "recovered"));
+    }
+
+    @Test
+    void testEveryCoalescedCallerCountsAsAnAccess() throws Exception {
+        int before = accessed("Golden Snub-nosed Monkey");
+        long rateBefore = service.getAccessRates("Golden Snub-nosed Monkey").orElseThrow().lastMinute();
+        int threads = 8;
+        int callsPerThread = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> callers = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                McpConnection connection = new TestConnection("coalesced-" + i);
+                callers.add(executor.submit(() -> {
+                    for (int j = 0; j < callsPerThread; j++) {
+                        String result = mcpServer.getMonkeySpeciesDetails(j % 2 == 0 ? "golden snub-nosed monkey" : "Golden Snub-nosed Monkey ",
+                                                                          null, null, connection);
+                        assertTrue(result.contains("Species Name: Golden Snub-nosed Monkey"), result);
+                    }
+                }));
+            }
+            for (Future<?> caller : callers) {
+                caller.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(before + threads * callsPerThread, accessed("Golden Snub-nosed Monkey"));
+        assertEquals(rateBefore + threads * callsPerThread, service.getAccessRates("Golden Snub-nosed Monkey").orElseThrow().lastMinute());
+    }
+
+    private double joined(String tool) {
+        return registry.counter("mcp.coalescing.calls", "tool", tool, "outcome", "joined").count();
+    }
+
+    private int accessed(String speciesName) {
+        return service.getAllSpecies().stream()
+                .filter(species -> species.speciesName().equals(speciesName))
+                .mapToInt(MonkeySpecies::accessed)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for calls to join");
+            Thread.sleep(5);
+        }
+    }
+
+    record TestConnection(String id) implements McpConnection {
+
+        @Override
+        public Status status() {
+            return Status.IN_OPERATION;
+        }
+
+        @Override
+        public InitialRequest initialRequest() {
+            return null;
+        }
+
+        @Override
+        public McpLog.LogLevel logLevel() {
+            return McpLog.LogLevel.INFO;
+        }
+    }
+}
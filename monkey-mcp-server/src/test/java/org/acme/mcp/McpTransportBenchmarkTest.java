@@ -0,0 +1,253 @@
+package org.acme.mcp;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exercises both MCP transports served by this application over raw HTTP:
+ * the legacy SSE transport at /mcp/sse and the Streamable HTTP transport at /mcp.
+ * The benchmark runs only with -Dbenchmark=true, e.g. {@code ./mvnw test -Dbenchmark=true -Dtest=McpTransportBenchmarkTest}.
+ */
+@QuarkusTest
+class McpTransportBenchmarkTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int SESSIONS = Integer.getInteger("benchmark.sessions", 200);
+    private static final int CALLS = Integer.getInteger("benchmark.calls", 2000);
+
+    @TestHTTPResource("/mcp")
+    URI mcpEndpoint;
+
+    @TestHTTPResource("/mcp/sse")
+    URI sseEndpoint;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    @Test
+    void testStreamableHttpToolCall() throws Exception {
+        try (McpSession session = new StreamableHttpSession(httpClient, mcpEndpoint)) {
+            JsonNode result = session.call("tools/call", Map.of(
+                    "name", "get_monkey_species_details",
+                    "arguments", Map.of("speciesName", "Mandrill")));
+
+            assertTrue(result.path("result").path("content").get(0).path("text").asText()
+                    .contains("Species Name: Mandrill"));
+        }
+    }
+
+    @Test
+    void testSseToolCall() throws Exception {
+        try (McpSession session = new SseSession(httpClient, sseEndpoint)) {
+            JsonNode result = session.call("tools/call", Map.of(
+                    "name", "get_monkey_species_details",
+                    "arguments", Map.of("speciesName", "Mandrill")));
+
+            assertTrue(result.path("result").path("content").get(0).path("text").asText()
+                    .contains("Species Name: Mandrill"));
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkTransports() throws Exception {
+        System.out.printf("%nMCP transport benchmark (%d sessions, %d calls)%n", SESSIONS, CALLS);
+        System.out.printf("%-16s %12s %12s %12s %16s%n", "transport", "p50 (us)", "p95 (us)", "p99 (us)", "heap/session (KB)");
+        report("sse", () -> new SseSession(httpClient, sseEndpoint));
+        report("streamable-http", () -> new StreamableHttpSession(httpClient, mcpEndpoint));
+    }
+
+    private void report(String name, SessionFactory factory) throws Exception {
+        try (McpSession session = factory.open()) {
+            long[] latencies = new long[CALLS];
+            for (int i = 0; i < CALLS; i++) {
+                long start = System.nanoTime();
+                session.call("tools/call", Map.of(
+                        "name", "get_monkey_species_details",
+                        "arguments", Map.of("speciesName", "Mandrill")));
+                latencies[i] = (System.nanoTime() - start) / 1000;
+            }
+            Arrays.sort(latencies);
+
+            long before = usedHeapAfterGc();
+            List<McpSession> open = new ArrayList<>();
+            for (int i = 0; i < SESSIONS; i++) {
+                McpSession idle = factory.open();
+                idle.call("ping", Map.of());
+                open.add(idle);
+            }
+            long perSession = (usedHeapAfterGc() - before) / SESSIONS;
+            for (McpSession idle : open) {
+                idle.close();
+            }
+
+            System.out.printf("%-16s %12d %12d %12d %16.1f%n", name,
+                    latencies[CALLS / 2], latencies[CALLS * 95 / 100], latencies[CALLS * 99 / 100],
+                    perSession / 1024.0);
+        }
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    @FunctionalInterface
+    interface SessionFactory {
+        McpSession open() throws Exception;
+    }
+
+    abstract static class McpSession implements AutoCloseable {
+
+        private final AtomicLong ids = new AtomicLong();
+
+        JsonNode call(String method, Map<String, Object> params) throws Exception {
+            long id = ids.incrementAndGet();
+            return send(MAPPER.writeValueAsString(Map.of("jsonrpc", "2.0", "id", id, "method", method, "params", params)), id);
+        }
+
+        void initialize() throws Exception {
+            call("initialize", Map.of(
+                    "protocolVersion", protocolVersion(),
+                    "capabilities", Map.of(),
+                    "clientInfo", Map.of("name", "transport-benchmark", "version", "1.0")));
+            send(MAPPER.writeValueAsString(Map.of("jsonrpc", "2.0", "method", "notifications/initialized")), null);
+        }
+
+        abstract String protocolVersion();
+
+        abstract JsonNode send(String body, Long id) throws Exception;
+    }
+
+    static class StreamableHttpSession extends McpSession {
+
+        private final HttpClient httpClient;
+        private final URI endpoint;
+        private String sessionId;
+
+        StreamableHttpSession(HttpClient httpClient, URI endpoint) throws Exception {
+            this.httpClient = httpClient;
+            this.endpoint = endpoint;
+            initialize();
+        }
+
+        @Override
+        String protocolVersion() {
+            return "2025-03-26";
+        }
+
+        @Override
+        JsonNode send(String body, Long id) throws Exception {
+            HttpRequest.Builder request = HttpRequest.newBuilder(endpoint)
+                    .header("Content-Type", "application/json")
+                    .header("Accept", "application/json, text/event-stream")
+                    .POST(HttpRequest.BodyPublishers.ofString(body));
+            if (sessionId != null) {
+                request.header("Mcp-Session-Id", sessionId);
+            }
+            HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            response.headers().firstValue("Mcp-Session-Id").ifPresent(value -> sessionId = value);
+            return id == null ? null : MAPPER.readTree(response.body());
+        }
+
+        @Override
+        public void close() throws Exception {
+            httpClient.send(HttpRequest.newBuilder(endpoint).header("Mcp-Session-Id", sessionId).DELETE().build(),
+                    HttpResponse.BodyHandlers.discarding());
+        }
+    }
+
+    static class SseSession extends McpSession {
+
+        private final HttpClient httpClient;
+        private final Map<Long, CompletableFuture<JsonNode>> pending = new ConcurrentHashMap<>();
+        private final CompletableFuture<URI> messageEndpoint = new CompletableFuture<>();
+        private final Stream<String> events;
+
+        SseSession(HttpClient httpClient, URI sseEndpoint) throws Exception {
+            this.httpClient = httpClient;
+            this.events = httpClient.send(HttpRequest.newBuilder(sseEndpoint).header("Accept", "text/event-stream").GET().build(),
+                    HttpResponse.BodyHandlers.ofLines()).body();
+            Thread.ofVirtual().start(() -> {
+                try {
+                    events.forEach(line -> onLine(sseEndpoint, line));
+                } catch (UncheckedIOException e) {
+                    // Stream closed by close()
+                }
+            });
+            messageEndpoint.get(10, TimeUnit.SECONDS);
+            initialize();
+        }
+
+        private void onLine(URI sseEndpoint, String line) {
+            if (!line.startsWith("data:")) {
+                return;
+            }
+            String data = line.substring(5).trim();
+            if (!messageEndpoint.isDone()) {
+                messageEndpoint.complete(sseEndpoint.resolve(data));
+                return;
+            }
+            try {
+                JsonNode message = MAPPER.readTree(data);
+                CompletableFuture<JsonNode> future = pending.remove(message.path("id").asLong());
+                if (future != null) {
+                    future.complete(message);
+                }
+            } catch (Exception e) {
+                // Ignore non-JSON keep-alive events
+            }
+        }
+
+        @Override
+        String protocolVersion() {
+            return "2024-11-05";
+        }
+
+        @Override
+        JsonNode send(String body, Long id) throws Exception {
+            CompletableFuture<JsonNode> future = new CompletableFuture<>();
+            if (id != null) {
+                pending.put(id, future);
+            }
+            httpClient.send(HttpRequest.newBuilder(messageEndpoint.get())
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(body)).build(),
+                    HttpResponse.BodyHandlers.discarding());
+            return id == null ? null : future.get(10, TimeUnit.SECONDS);
+        }
+
+        @Override
+        public void close() {
+            events.close();
+        }
+    }
+}
@@ -4,6 +4,9 @@ import io.quarkus.test.junit.QuarkusTest;
 import jakarta.inject.Inject;
 import org.junit.jupiter.api.Test;
 
+import java.util.Collections;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @QuarkusTest
@@ -14,7 +17,7 @@ class MonkeySpeciesMcpServerTest {
 
     @Test
     void testListMonkeySpecies() {
-        String result = mcpServer.listMonkeySpecies();
+        String result = mcpServer.listMonkeySpecies(null, null, null);
         
         assertNotNull(result);
         assertFalse(result.contains("Error"));
@@ -24,7 +27,7 @@ class MonkeySpeciesMcpServerTest {
 
     @Test
     void testGetMonkeySpeciesDetailsWithValidName() {
-        String result = mcpServer.getMonkeySpeciesDetails("Proboscis Monkey");
+        String result = mcpServer.getMonkeySpeciesDetails("Proboscis Monkey", null, null, null);
         
         assertNotNull(result);
         assertFalse(result.contains("Error"));
@@ -34,7 +37,7 @@ class MonkeySpeciesMcpServerTest {
 
     @Test
     void testGetMonkeySpeciesDetailsWithInvalidName() {
-        String result = mcpServer.getMonkeySpeciesDetails("Nonexistent Monkey");
+        String result = mcpServer.getMonkeySpeciesDetails("Nonexistent Monkey", null, null, null);
         
         assertNotNull(result);
         assertTrue(result.contains("not found"));
@@ -43,7 +46,7 @@ class MonkeySpeciesMcpServerTest {
 
     @Test
     void testGetMonkeySpeciesDetailsWithEmptyName() {
-        String result = mcpServer.getMonkeySpeciesDetails("");
+        String result = mcpServer.getMonkeySpeciesDetails("", null, null, null);
         
         assertNotNull(result);
         assertTrue(result.contains("Error: Species name cannot be empty"));
@@ -51,15 +54,41 @@ class MonkeySpeciesMcpServerTest {
 
     @Test
     void testGetMonkeySpeciesDetailsWithNullName() {
-        String result = mcpServer.getMonkeySpeciesDetails(null);
+        String result = mcpServer.getMonkeySpeciesDetails(null, null, null, null);
         
         assertNotNull(result);
         assertTrue(result.contains("Error: Species name cannot be empty"));
     }
 
+    @Test
+    void testGetMonkeySpeciesDetailsBatch() {
+        String result = mcpServer.getMonkeySpeciesDetailsBatch(List.of("Mandrill", "japanese macaque", "Nonexistent Monkey"), null, null, null);
+        
+        assertNotNull(result);
+        assertFalse(result.contains("Error"));
+        assertTrue(result.contains("Found 2 of 3 requested monkey species"));
+        assertTrue(result.contains("Species Name: Mandrill"));
+        assertTrue(result.contains("Species Name: Japanese Macaque"));
+        assertTrue(result.contains("Not found: Nonexistent Monkey"));
+    }
+
+    @Test
+    void testGetMonkeySpeciesDetailsBatchWithEmptyList() {
+        assertTrue(mcpServer.getMonkeySpeciesDetailsBatch(List.of(), null, null, null).contains("Error: Species names cannot be empty"));
+        assertTrue(mcpServer.getMonkeySpeciesDetailsBatch(null, null, null, null).contains("Error: Species names cannot be empty"));
+    }
+
+    @Test
+    void testGetMonkeySpeciesDetailsBatchWithTooManyNames() {
+        List<String> names = Collections.nCopies(MonkeySpeciesMcpServer.MAX_BATCH_SIZE + 1, "Mandrill");
+        String result = mcpServer.getMonkeySpeciesDetailsBatch(names, null, null, null);
+        
+        assertTrue(result.contains("Error: Too many species requested"));
+    }
+
     @Test
     void testGetRandomMonkeySpecies() {
-        String result = mcpServer.getRandomMonkeySpecies();
+        String result = mcpServer.getRandomMonkeySpecies(null, null, null);
         
         assertNotNull(result);
         assertFalse(result.contains("Error"));
@@ -69,7 +98,7 @@ class MonkeySpeciesMcpServerTest {
 
     @Test
     void testGetMonkeySpeciesStats() {
-        String result = mcpServer.getMonkeySpeciesStats();
+        String result = mcpServer.getMonkeySpeciesStats(null, null);
         
         assertNotNull(result);
         assertFalse(result.contains("Error"));
@@ -77,4 +106,33 @@ class MonkeySpeciesMcpServerTest {
         assertTrue(result.contains("Total Species:"));
         assertTrue(result.contains("Total Population:"));
     }
+
+    @Test
+    void testGetMonkeySpeciesDetailsInCompactFormat() {
+        String compact = mcpServer.getMonkeySpeciesDetails("Mandrill", "compact", null, null);
+        String verbose = mcpServer.getMonkeySpeciesDetails("Mandrill", null, null, null);
+        
+        assertTrue(compact.startsWith("Mandrill | "), compact);
+        assertFalse(compact.contains("Species Name:"), compact);
+        assertTrue(compact.length() < verbose.length());
+        assertTrue(compact.contains(" bytes, ~"), compact);
+    }
+
+    @Test
+    void testUnknownFormatIsAnError() {
+        assertTrue(mcpServer.getMonkeySpeciesDetails("Mandrill", "yaml", null, null).contains("Unknown response format 'yaml'"));
+        assertTrue(mcpServer.setResponseProfile("yaml", null, null).startsWith("Error: Unknown response format"));
+        assertTrue(mcpServer.setResponseProfile("compact", 300, null).contains("compact, within about 300 tokens"));
+    }
+
+    @Test
+    void testGetMonkeySpeciesAccessRates() {
+        mcpServer.getMonkeySpeciesDetails("Mandrill", null, null, null);
+        String result = mcpServer.getMonkeySpeciesAccessRates(null, null, null);
+        
+        assertNotNull(result);
+        assertFalse(result.contains("Error"));
+        assertTrue(result.contains("Monkey Species Access Rates"));
+        assertTrue(result.contains("Mandrill - 1m:"));
+    }
 }
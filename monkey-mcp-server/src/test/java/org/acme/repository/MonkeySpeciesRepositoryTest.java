@@ -0,0 +1,123 @@
+package org.acme.repository;
+
+import org.acme.model.MonkeySpecies;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MonkeySpeciesRepositoryTest {
+
+    private static MonkeySpecies species(String name) {
+        return new MonkeySpecies(name, "Somewhere", "Details", 100, 0.0, 0.0, null, null);
+    }
+
+    @Test
+    void testReplaceAllSwapsCatalogAndCarriesAccessCounts() {
+        MonkeySpeciesRepository repository = new MonkeySpeciesRepository();
+        repository.findByNameAndIncrementAccess("mandrill");
+        repository.findByNameAndIncrementAccess("mandrill");
+        long version = repository.getCatalogVersion();
+
+        long newVersion = repository.replaceAll(List.of(species("Mandrill"), species("Silver Leaf Monkey")));
+
+        assertEquals(version + 1, newVersion);
+        assertEquals(2, repository.getSpeciesCount());
+        assertFalse(repository.existsByName("Proboscis Monkey"));
+        assertEquals(3, repository.findByNameAndIncrementAccess("mandrill").orElseThrow().accessed());
+        assertEquals(1, repository.findByNameAndIncrementAccess("silver leaf monkey").orElseThrow().accessed());
+        assertEquals(3, repository.findAccessRates("Mandrill").orElseThrow().lastMinute());
+        assertFalse(repository.findByNameAndIncrementAccess("silver leaf monkey").orElseThrow().isFictional());
+    }
+
+    @Test
+    void testAccessesDuringReloadsAreNotLost() throws InterruptedException {
+        MonkeySpeciesRepository repository = new MonkeySpeciesRepository();
+        List<MonkeySpecies> data = repository.findAll();
+        int threads = 4;
+        int accessesPerThread = 20_000;
+        AtomicBoolean done = new AtomicBoolean();
+
+        Thread reloader = new Thread(() -> {
+            while (!done.get()) {
+                repository.replaceAll(data);
+            }
+        });
+        reloader.start();
+        Thread[] callers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            callers[i] = new Thread(() -> {
+                for (int j = 0; j < accessesPerThread; j++) {
+                    if (j % 2 == 0) {
+                        repository.findByNameAndIncrementAccess("mandrill");
+                    } else {
+                        repository.incrementAccess(List.of("Mandrill"), 1);
+                    }
+                }
+            });
+            callers[i].start();
+        }
+        for (Thread caller : callers) {
+            caller.join();
+        }
+        done.set(true);
+        reloader.join();
+
+        assertTrue(repository.getCatalogVersion() > 1);
+        assertEquals(threads * accessesPerThread + 1, repository.findByNameAndIncrementAccess("mandrill").orElseThrow().accessed());
+        assertEquals(threads * accessesPerThread + 1, repository.findAccessRates("Mandrill").orElseThrow().lastMinute());
+    }
+
+    @Test
+    void testSnapshotsTakenBeforeReloadAreUnaffected() {
+        MonkeySpeciesRepository repository = new MonkeySpeciesRepository();
+        List<MonkeySpecies> before = repository.findAll();
+
+        repository.replaceAll(List.of(species("Silver Leaf Monkey")));
+
+        assertEquals(11, before.size());
+        assertEquals(1, repository.findAll().size());
+    }
+
+    @Test
+    void testBatchLookupSeesSingleCatalogVersion() {
+        MonkeySpeciesRepository repository = new MonkeySpeciesRepository();
+        repository.replaceAll(List.of(species("Silver Leaf Monkey")));
+
+        Map<String, Optional<MonkeySpecies>> result =
+                repository.findAllByNameAndIncrementAccess(List.of("Silver Leaf Monkey", "Mandrill"));
+
+        assertTrue(result.get("Silver Leaf Monkey").isPresent());
+        assertFalse(result.get("Mandrill").isPresent());
+    }
+
+    @Test
+    void testSharedAccessesAreCountedOncePerSpecies() {
+        MonkeySpeciesRepository repository = new MonkeySpeciesRepository();
+        repository.findByNameAndIncrementAccess("mandrill");
+
+        repository.incrementAccess(List.of("Mandrill", " mandrill ", "Nonexistent Monkey"), 4);
+
+        assertEquals(6, repository.findByNameAndIncrementAccess("mandrill").orElseThrow().accessed());
+        assertEquals(6, repository.findAccessRates("Mandrill").orElseThrow().lastMinute());
+        assertFalse(repository.existsByName("Nonexistent Monkey"));
+    }
+
+    @Test
+    void testInvalidCatalogIsRejectedAndCurrentOneKept() {
+        MonkeySpeciesRepository repository = new MonkeySpeciesRepository();
+        long version = repository.getCatalogVersion();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> repository.replaceAll(List.of(species("Mandrill"), species("mandrill"))));
+        assertThrows(IllegalArgumentException.class,
+                () -> repository.replaceAll(List.of(species(" "))));
+
+        assertEquals(version, repository.getCatalogVersion());
+        assertEquals(11, repository.getSpeciesCount());
+    }
+}
@@ -0,0 +1,71 @@
+package org.acme.repository;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingWindowCounterTest {
+
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    void testCountsWithinLastMinute() {
+        SlidingWindowCounter counter = new SlidingWindowCounter();
+        counter.record(START);
+        counter.record(START + 1_000);
+        counter.record(START + 59_000);
+
+        assertEquals(3, counter.countLastMinute(START + 59_000));
+        assertEquals(2, counter.countLastMinute(START + 60_000));
+        assertEquals(0, counter.countLastMinute(START + 200_000));
+    }
+
+    @Test
+    void testCountsAcrossMinuteWindows() {
+        SlidingWindowCounter counter = new SlidingWindowCounter();
+        counter.record(START);
+        counter.record(START + 3 * 60_000);
+        counter.record(START + 30 * 60_000);
+
+        long now = START + 30 * 60_000;
+        assertEquals(1, counter.countLastMinutes(now, 5));
+        assertEquals(3, counter.countLastMinutes(now, 60));
+        assertEquals(0, counter.countLastMinutes(now + 60 * 60_000, 60));
+    }
+
+    @Test
+    void testStaleBucketsAreReused() {
+        SlidingWindowCounter counter = new SlidingWindowCounter();
+        counter.record(START);
+        counter.record(START + 60_000);
+
+        assertEquals(1, counter.countLastMinute(START + 60_000));
+    }
+
+    @Test
+    void testInvalidWindowIsRejected() {
+        SlidingWindowCounter counter = new SlidingWindowCounter();
+
+        assertThrows(IllegalArgumentException.class, () -> counter.countLastMinutes(START, 0));
+        assertThrows(IllegalArgumentException.class, () -> counter.countLastMinutes(START, 61));
+    }
+
+    @Test
+    void testConcurrentRecordsAreNotLost() throws InterruptedException {
+        SlidingWindowCounter counter = new SlidingWindowCounter();
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    counter.record(START);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(80_000, counter.countLastMinute(START));
+    }
+}
@@ -0,0 +1,103 @@
+package org.acme.repository;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+@TestProfile(SpeciesCatalogWatcherTest.DatasetFile.class)
+class SpeciesCatalogWatcherTest {
+
+    private static final Path DATASET = createDataset();
+
+    @Inject
+    MonkeySpeciesRepository repository;
+
+    @Inject
+    SpeciesCatalogWatcher watcher;
+
+    @Test
+    void testCatalogIsLoadedFromDatasetAndReloadedOnChange() throws Exception {
+        assertTrue(repository.existsByName("Silver Leaf Monkey"));
+        assertFalse(repository.existsByName("Proboscis Monkey"));
+        repository.findByNameAndIncrementAccess("silver leaf monkey");
+        long version = repository.getCatalogVersion();
+
+        writeDataset("Silver Leaf Monkey", "Bonnet Macaque");
+        awaitVersionAfter(version);
+
+        assertEquals(2, repository.getSpeciesCount());
+        assertTrue(repository.existsByName("Bonnet Macaque"));
+        assertTrue(repository.findByNameAndIncrementAccess("silver leaf monkey").orElseThrow().accessed() >= 2);
+    }
+
+    @Test
+    void testBrokenDatasetKeepsCurrentCatalog() throws Exception {
+        long version = repository.getCatalogVersion();
+        int count = repository.getSpeciesCount();
+        Files.writeString(DATASET, "[{\"speciesName\": ");
+
+        assertThrows(IOException.class, () -> watcher.reload());
+        assertEquals(version, repository.getCatalogVersion());
+        assertEquals(count, repository.getSpeciesCount());
+
+        writeDataset("Silver Leaf Monkey", "Bonnet Macaque");
+        SpeciesCatalogWatcher.ReloadReport report = watcher.reload();
+        assertEquals(2, report.speciesCount());
+        assertTrue(report.version() > version);
+        assertTrue(report.allocatedBytes() >= 0);
+    }
+
+    private void awaitVersionAfter(long version) throws InterruptedException {
+        for (int i = 0; i < 100 && repository.getCatalogVersion() == version; i++) {
+            Thread.sleep(100);
+        }
+        assertTrue(repository.getCatalogVersion() > version, "catalog was not reloaded");
+    }
+
+    private static void writeDataset(String... names) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < names.length; i++) {
+            json.append(i > 0 ? "," : "")
+                .append("{\"speciesName\": \"").append(names[i]).append("\", \"location\": \"Asia\", ")
+                .append("\"details\": \"Test species\", \"population\": 1000, \"latitude\": 1.0, \"longitude\": 2.0, ")
+                .append("\"isFictional\": false}");
+        }
+        try {
+            Files.writeString(DATASET, json.append("]").toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Path createDataset() {
+        try {
+            Path directory = Files.createTempDirectory("species-catalog");
+            directory.toFile().deleteOnExit();
+            return directory.resolve("species.json");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static class DatasetFile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            writeDataset("Silver Leaf Monkey");
+            return Map.of(
+                    "monkey.catalog.path", DATASET.toString(),
+                    "monkey.catalog.debounce", "50ms");
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package org.acme.response;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkiverse.mcp.server.InitialRequest;
+import io.quarkiverse.mcp.server.McpConnection;
+import io.quarkiverse.mcp.server.McpLog;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.acme.model.MonkeySpecies;
+import org.acme.service.MonkeySpeciesService;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+class ResponseFormatterTest {
+
+    private static final ResponseOptions VERBOSE = new ResponseOptions(ResponseProfile.VERBOSE, 0);
+    private static final ResponseOptions COMPACT = new ResponseOptions(ResponseProfile.COMPACT, 0);
+    private static final ResponseOptions JSON = new ResponseOptions(ResponseProfile.JSON, 0);
+
+    @Inject
+    ResponseFormatter formatter;
+
+    @Inject
+    MonkeySpeciesService service;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Test
+    void testCompactAndJsonAreSmallerThanVerbose() {
+        List<MonkeySpecies> species = service.getAllSpecies();
+
+        String verbose = formatter.speciesList("test", species, VERBOSE);
+        String compact = formatter.speciesList("test", species, COMPACT);
+
+        assertTrue(verbose.contains("• Proboscis Monkey (Borneo) - Population: "), verbose);
+        assertTrue(compact.contains("Proboscis Monkey | Borneo | pop "), compact);
+        assertFalse(compact.contains("•"), compact);
+        assertTrue(compact.length() < verbose.length(), compact.length() + " vs " + verbose.length());
+
+        MonkeySpecies mandrill = byName("Mandrill");
+        assertTrue(formatter.species("test", mandrill, null, COMPACT).length()
+                < formatter.species("test", mandrill, null, VERBOSE).length());
+    }
+
+    @Test
+    void testResponsesReportTheirSize() throws Exception {
+        MonkeySpecies mandrill = byName("Mandrill");
+
+        String compact = formatter.species("test", mandrill, null, COMPACT);
+        String body = compact.substring(0, compact.lastIndexOf("\n["));
+        assertTrue(compact.endsWith("[" + body.getBytes(java.nio.charset.StandardCharsets.UTF_8).length + " bytes, ~"
+                + ResponseFormatter.estimateTokens(body) + " tokens]"), compact);
+
+        JsonNode json = objectMapper.readTree(formatter.species("test", mandrill, null, JSON));
+        assertEquals("Mandrill", json.path("name").asText());
+        assertEquals(mandrill.details(), json.path("details").asText());
+        assertTrue(json.path("size").path("bytes").asInt() > 0);
+        assertTrue(json.path("size").path("tokens").asInt() > 0);
+    }
+
+    @Test
+    void testBudgetShortensDetailsBeforeLeavingSpeciesOut() throws Exception {
+        Map<String, Optional<MonkeySpecies>> results = new LinkedHashMap<>();
+        for (MonkeySpecies species : service.getAllSpecies().subList(0, 4)) {
+            results.put(species.speciesName(), Optional.of(species));
+        }
+        String full = formatter.speciesBatch("test", results, List.of(), COMPACT);
+        int fullTokens = ResponseFormatter.estimateTokens(full);
+
+        String shortened = formatter.speciesBatch("test", results, List.of(),
+                new ResponseOptions(ResponseProfile.COMPACT, fullTokens * 2 / 3));
+        assertTrue(shortened.contains("…"), shortened);
+        assertFalse(shortened.contains("more, left out"), shortened);
+        assertTrue(ResponseFormatter.estimateTokens(shortened) <= fullTokens * 2 / 3, shortened);
+
+        String budgeted = formatter.speciesBatch("test", results, List.of(), new ResponseOptions(ResponseProfile.JSON, 100));
+        assertTrue(ResponseFormatter.estimateTokens(budgeted) <= 100, budgeted);
+        JsonNode json = objectMapper.readTree(budgeted);
+        assertTrue(json.path("size").path("tokens").asInt() > 0, budgeted);
+        assertEquals(4, json.path("found").asInt());
+        assertTrue(json.path("omitted").asInt() > 0, json.toString());
+        assertEquals(4, json.path("species").size() + json.path("omitted").asInt());
+    }
+
+    @Test
+    void testBudgetLeavesTrailingListItemsOut() {
+        List<MonkeySpecies> species = service.getAllSpecies();
+
+        String result = formatter.speciesList("test", species, new ResponseOptions(ResponseProfile.VERBOSE, 60));
+
+        assertTrue(result.startsWith("Available Monkey Species (" + species.size() + " total)"), result);
+        assertTrue(result.contains("more, left out to fit the token budget"), result);
+        assertTrue(result.endsWith(" tokens]"), result);
+        assertTrue(ResponseFormatter.estimateTokens(result) <= 60, result);
+    }
+
+    @Test
+    void testResponseWithItsSizeStaysWithinEveryBudget() {
+        List<MonkeySpecies> species = service.getAllSpecies();
+        int full = ResponseFormatter.estimateTokens(formatter.speciesList("test", species, VERBOSE));
+
+        for (int budget = 60; budget <= full; budget += 7) {
+            String result = formatter.speciesList("test", species, new ResponseOptions(ResponseProfile.VERBOSE, budget));
+            assertTrue(ResponseFormatter.estimateTokens(result) <= budget, budget + ": " + result);
+        }
+    }
+
+    @Test
+    void testCallOptionsOverrideSessionOptionsWhichOverrideDefaults() {
+        McpConnection connection = new TestConnection("profiled-session");
+        assertEquals(ResponseOptions.DEFAULT, formatter.options(connection, null, null));
+
+        formatter.setSessionOptions(connection, "compact", 200);
+
+        assertEquals(new ResponseOptions(ResponseProfile.COMPACT, 200), formatter.options(connection, null, null));
+        assertEquals(new ResponseOptions(ResponseProfile.JSON, 200), formatter.options(connection, "JSON", null));
+        assertEquals(new ResponseOptions(ResponseProfile.COMPACT, 0), formatter.options(connection, "", 0));
+        assertEquals(ResponseOptions.DEFAULT, formatter.options(new TestConnection("other-session"), null, null));
+        assertThrows(IllegalArgumentException.class, () -> formatter.options(connection, "yaml", null));
+    }
+
+    private MonkeySpecies byName(String name) {
+        return service.getAllSpecies().stream()
+                .filter(species -> species.speciesName().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    record TestConnection(String id) implements McpConnection {
+
+        @Override
+        public Status status() {
+            return Status.IN_OPERATION;
+        }
+
+        @Override
+        public InitialRequest initialRequest() {
+            return null;
+        }
+
+        @Override
+        public McpLog.LogLevel logLevel() {
+            return McpLog.LogLevel.INFO;
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package org.acme.service;
 
+import org.acme.model.AccessRates;
 import org.acme.model.MonkeySpecies;
 import io.quarkus.test.junit.QuarkusTest;
 import jakarta.inject.Inject;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -55,6 +57,26 @@ class MonkeySpeciesServiceTest {
         assertFalse(result.isPresent());
     }
 
+    @Test
+    void testGetSpeciesDetailsBatchIncrementsEachSpeciesOnce() {
+        int before = service.getAllSpecies().stream()
+                .filter(species -> species.speciesName().equals("Spider Monkey"))
+                .findFirst().orElseThrow().accessed();
+        
+        Map<String, Optional<MonkeySpecies>> result = service.getSpeciesDetailsBatch(
+                List.of("Spider Monkey", "spider monkey", "Nonexistent Monkey"));
+        
+        assertEquals(List.of("Spider Monkey", "spider monkey", "Nonexistent Monkey"), List.copyOf(result.keySet()));
+        assertEquals(before + 1, result.get("Spider Monkey").orElseThrow().accessed());
+        assertEquals(before + 1, result.get("spider monkey").orElseThrow().accessed());
+        assertFalse(result.get("Nonexistent Monkey").isPresent());
+    }
+
+    @Test
+    void testGetSpeciesDetailsBatchWithEmptyList() {
+        assertTrue(service.getSpeciesDetailsBatch(List.of()).isEmpty());
+    }
+
     @Test
     void testGetRandomSpecies() {
         Optional<MonkeySpecies> result = service.getRandomSpecies();
@@ -87,4 +109,30 @@ class MonkeySpeciesServiceTest {
         assertFalse(names.isEmpty());
         assertTrue(names.contains("Proboscis Monkey"));
     }
+
+    @Test
+    void testGetAccessRatesCountsRecentAccesses() {
+        long before = service.getAccessRates("Howler Monkey").orElseThrow().lastMinute();
+        service.getSpeciesDetails("Howler Monkey");
+        service.getSpeciesDetails("howler monkey");
+        
+        AccessRates rates = service.getAccessRates("Howler Monkey").orElseThrow();
+        assertEquals(before + 2, rates.lastMinute());
+        assertTrue(rates.lastFiveMinutes() >= rates.lastMinute());
+        assertTrue(rates.lastHour() >= rates.lastFiveMinutes());
+    }
+
+    @Test
+    void testGetAccessRatesOrdersHottestFirst() {
+        service.getSpeciesDetails("Temporal Weaver Monkey");
+        service.getSpeciesDetails("Temporal Weaver Monkey");
+        service.getSpeciesDetails("Temporal Weaver Monkey");
+        
+        List<AccessRates> rates = service.getAccessRates();
+        assertEquals(service.getSpeciesCount(), rates.size());
+        for (int i = 1; i < rates.size(); i++) {
+            assertTrue(rates.get(i - 1).lastMinute() >= rates.get(i).lastMinute());
+        }
+        assertFalse(service.getAccessRates("Nonexistent Monkey").isPresent());
+    }
 }